@@ -0,0 +1,52 @@
+package benchmarks;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import logic.Deck;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class DeckBenchmark {
+	
+	@Param({"1", "2"})
+	private int deckCount;
+	
+	@Param({"6", "12"})
+	private int highestValue;
+	
+	private Deck deck;
+	private SplittableRandom random;
+	
+	@Setup
+	public void setUp() {
+		deck = new Deck(deckCount);
+		random = new SplittableRandom(1);
+	}
+	
+	/**
+	 * Fills and shuffles the deck, as every round does.
+	 */
+	@Benchmark
+	public Deck initialize() {
+		deck.initialize(highestValue, random);
+		return deck;
+	}
+
+}
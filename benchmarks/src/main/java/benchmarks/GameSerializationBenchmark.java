@@ -0,0 +1,82 @@
+package benchmarks;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.concurrent.TimeUnit;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import logic.Game;
+import logic.GameJson;
+
+/**
+ * Saving and loading games, both the JSON objects alone and the whole round trip through text,
+ * which can be done building the JSON tree or streaming.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class GameSerializationBenchmark {
+	
+	private Game game;
+	private JSONObject saved;
+	private String savedText;
+	
+	@Setup
+	public void setUp() throws JSONException {
+		game = Positions.middleGame();
+		saved = game.save();
+		savedText = Positions.middleGameText();
+	}
+	
+	@Benchmark
+	public JSONObject save() throws JSONException {
+		return game.save();
+	}
+	
+	@Benchmark
+	public Game reset() throws JSONException {
+		game.reset(saved);
+		return game;
+	}
+	
+	@Benchmark
+	public String saveText() throws JSONException {
+		return game.save().toString();
+	}
+	
+	@Benchmark
+	public Game resetText() throws JSONException {
+		game.reset(new JSONObject(savedText));
+		return game;
+	}
+	
+	@Benchmark
+	public String writeStream() throws JSONException, IOException {
+		StringWriter writer = new StringWriter();
+		GameJson.write(game, writer);
+		return writer.toString();
+	}
+	
+	@Benchmark
+	public Game readStream() throws JSONException {
+		GameJson.read(new StringReader(savedText), game);
+		return game;
+	}
+
+}
@@ -0,0 +1,51 @@
+package benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import org.json.JSONException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import logic.Game;
+import logic.Hand;
+import logic.Piece;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class HandBenchmark {
+	
+	private Hand hand;
+	private Predicate<Piece> playable;
+	
+	@Setup
+	public void setUp() throws JSONException {
+		Game game = Positions.middleGame();
+		hand = game.status().currentPlayer().hand();
+		playable = (Piece p) -> game.board().couldAdd(p, hand);
+	}
+	
+	@Benchmark
+	public List<Integer> filter() {
+		return hand.filter(playable);
+	}
+	
+	@Benchmark
+	public Integer biggestDoublePiece() {
+		return hand.biggestDoublePiece();
+	}
+
+}
@@ -0,0 +1,37 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import logic.exceptions.MovementFormatException;
+import logic.exceptions.UnrecognizedMovementException;
+import logic.movements.Movement;
+import logic.movements.MovementParser;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class MovementParserBenchmark {
+	
+	@Param({"pass", "place 3", "place 2 r", "bet"})
+	private String input;
+	
+	@Benchmark
+	public Movement parseMovement() throws MovementFormatException, UnrecognizedMovementException {
+		return MovementParser.parseMovement(input);
+	}
+
+}
@@ -0,0 +1,44 @@
+package benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import logic.Game;
+
+/**
+ * Fixed game positions, so every run of the benchmarks measures exactly the same work.
+ */
+public class Positions {
+	
+	private static final String MIDDLE_GAME = "position.json";
+	
+	/**
+	 * Reads the saved game used by the benchmarks: two players in the middle of a round, with pieces left in the deck.
+	 */
+	public static String middleGameText() {
+		try(InputStream in = Positions.class.getResourceAsStream(MIDDLE_GAME)) {
+			return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+		}
+		catch(IOException ioe) {
+			throw new IllegalStateException("Missing benchmark position " + MIDDLE_GAME, ioe);
+		}
+	}
+	
+	/**
+	 * Loads the saved game used by the benchmarks.
+	 */
+	public static Game middleGame() throws JSONException {
+		Game game = new Game();
+		game.setAutomaticAI(false);
+		game.reset(new JSONObject(middleGameText()));
+		return game;
+	}
+	
+	// Prevent instantiation
+	private Positions() {}
+
+}
@@ -0,0 +1,53 @@
+package benchmarks;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.json.JSONException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import logic.Game;
+import logic.search.Determinizer;
+import logic.search.Position;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class SearchBenchmark {
+	
+	private Determinizer determinizer;
+	private Position position;
+	private int[] moves;
+	private SplittableRandom random;
+	
+	@Setup
+	public void setUp() throws JSONException {
+		Game game = Positions.middleGame();
+		determinizer = new Determinizer(game, game.status().currentPlayer().hand());
+		position = determinizer.newPosition();
+		moves = new int[position.moveCapacity()];
+		random = new SplittableRandom(1);
+	}
+	
+	/**
+	 * Samples the hidden pieces and plays the rest of the round at random, as every iteration of the search does.
+	 */
+	@Benchmark
+	public Position playout() {
+		determinizer.sample(random, position).playout(random, moves);
+		return position;
+	}
+
+}
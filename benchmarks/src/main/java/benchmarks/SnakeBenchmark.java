@@ -0,0 +1,61 @@
+package benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.json.JSONException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import logic.Game;
+import logic.Hand;
+import logic.Piece;
+import logic.Snake;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class SnakeBenchmark {
+	
+	private Snake board;
+	private Hand hand;
+	private Hand nextHand;
+	
+	@Setup
+	public void setUp() throws JSONException {
+		Game game = Positions.middleGame();
+		board = game.board();
+		hand = game.status().currentPlayer().hand();
+		nextHand = game.players().get(0).hand();
+	}
+	
+	@Benchmark
+	public List<Integer> playablePieces() {
+		return board.playablePieces(hand);
+	}
+	
+	/**
+	 * Every placement of every piece in the hand, against the hand of the next player.
+	 */
+	@Benchmark
+	public void piecesAddableAfter(Blackhole blackhole) {
+		for(Piece p : hand.pieces()) {
+			for(Snake.Side s : Snake.Side.values()) {
+				blackhole.consume(board.piecesAddableAfter(p, s, nextHand));
+			}
+		}
+	}
+
+}
@@ -0,0 +1,62 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.json.JSONException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import logic.AIStrategy;
+import logic.BothersomePlacementStrategy;
+import logic.Game;
+import logic.Hand;
+import logic.HighestScorePlacementStrategy;
+import logic.RandomPlacementStrategy;
+import logic.movements.Movement;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class StrategyBenchmark {
+	
+	@Param({"random", "bothersome", "highestScore"})
+	private String strategyName;
+	
+	private AIStrategy strategy;
+	private Game game;
+	private Hand hand;
+	
+	private static AIStrategy strategy(String name) {
+		switch(name) {
+			case "random": return new RandomPlacementStrategy();
+			case "bothersome": return new BothersomePlacementStrategy();
+			case "highestScore": return new HighestScorePlacementStrategy();
+			default: throw new IllegalArgumentException("Unknown strategy: " + name);
+		}
+	}
+	
+	@Setup
+	public void setUp() throws JSONException {
+		strategy = strategy(strategyName);
+		game = Positions.middleGame();
+		hand = game.status().currentPlayer().hand();
+	}
+	
+	@Benchmark
+	public Movement decideMovement() {
+		return strategy.decideMovement(game, hand);
+	}
+
+}
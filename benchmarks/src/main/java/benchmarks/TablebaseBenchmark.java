@@ -0,0 +1,64 @@
+package benchmarks;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import logic.Piece;
+import logic.search.Position;
+import logic.search.SearchRules;
+import logic.search.Tablebase;
+import logic.search.TablebaseGenerator;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class TablebaseBenchmark {
+	
+	private static final int POSITION_COUNT = 1024;
+	
+	private Tablebase tablebase;
+	private Position[] positions;
+	private int next;
+	
+	@Setup
+	public void setUp() {
+		tablebase = TablebaseGenerator.generate(Piece.DEFAULT_HIGHEST_VALUE, Tablebase.DEFAULT_MAX_HAND_SIZE);
+		SplittableRandom random = new SplittableRandom(1);
+		int pieceCount = Piece.codeCount(Piece.DEFAULT_HIGHEST_VALUE);
+		positions = new Position[POSITION_COUNT];
+		for(int i = 0; i < POSITION_COUNT; i++) {
+			Position position = new Position(SearchRules.roundsWon(), 2, pieceCount);
+			int[] codes = random.ints(0, pieceCount).distinct().limit(2 * Tablebase.DEFAULT_MAX_HAND_SIZE).toArray();
+			for(int j = 0; j < codes.length; j++) {
+				position.addToHand(j % 2, codes[j]);
+			}
+			position.setEnds(random.nextInt(Piece.DEFAULT_HIGHEST_VALUE + 1), random.nextInt(Piece.DEFAULT_HIGHEST_VALUE + 1));
+			positions[i] = position;
+		}
+		next = 0;
+	}
+	
+	/**
+	 * Reads the outcome of a position, as the endgame solver does instead of searching it.
+	 */
+	@Benchmark
+	public boolean probe() {
+		next = next + 1 & POSITION_COUNT - 1;
+		return tablebase.wins(positions[next]);
+	}
+
+}
@@ -1,16 +1,20 @@
 package controller;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
+import java.io.StreamCorruptedException;
 import java.net.ConnectException;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.Socket;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
+import controller.net.GameProtocol;
+import controller.net.LobbyProtocol;
+import logic.Game;
 import logic.GameObserver;
 import logic.GameStatus;
 import logic.Player;
@@ -18,9 +22,13 @@ import logic.Snake;
 import logic.movements.Movement;
 
 public class Client implements Controller, GameObserver {
-
+	
 	private static final long serialVersionUID = 1L;
-
+	
+	public static final int RECONNECTION_ATTEMPTS = 30;
+	public static final long RECONNECTION_DELAY = 2000;
+	private static final int CONNECTION_TIMEOUT = 5000;
+	
 	private class ClientListener extends Thread {
 		
 		private volatile boolean listening;
@@ -29,42 +37,55 @@ public class Client implements Controller, GameObserver {
 			this.listening = true;
 		}
 		
+		private void fail(Exception e) {
+			if(listening) {
+				observers.forEach((GameObserver o) -> o.onError(e));
+				observers.forEach((GameObserver o) -> o.onGameEnd(null));
+			}
+			listening = false;
+		}
+		
 		@Override
 		public void run() {
 			while(listening) {
 				try {
-					@SuppressWarnings("unchecked")
-					SerializableConsumer<GameObserver> func = (SerializableConsumer<GameObserver>) input.readObject();
-					for(GameObserver o : observers) {
-						func.accept(o);
+					byte[] frame = LobbyProtocol.readFrame(input);
+					if(GameProtocol.isEvent(frame[0])) {
+						decoder.dispatch(frame, observers);
 					}
 				}
+				catch(StreamCorruptedException sce) {
+					fail(sce);
+				}
 				catch(IOException ioe) {
-					observers.forEach((GameObserver o) -> o.onError(new ConnectException("Disconnected from server!")));
-					observers.forEach((GameObserver o) -> o.onGameEnd(null));
+					if(listening && !reconnect()) {
+						fail(new ConnectException("Disconnected from server!"));
+					}
 				}
 				catch(Exception e) {
-					observers.forEach((GameObserver o) -> o.onError(e));
-					observers.forEach((GameObserver o) -> o.onGameEnd(null));
+					fail(e);
 				}
 			}
 		}
 		
 	}
 	
+	private InetAddress ip;
+	private int port;
 	private Socket socket;
-	private ObjectInputStream input;
-	private ObjectOutputStream output;
+	private DataInputStream input;
+	private DataOutputStream output;
 	private String name;
+	private boolean spectator;				// Spectators only receive the events, they don't have a seat
 	private ClientListener listener;
 	private List<GameObserver> observers;
+	private GameProtocol.EventDecoder decoder;
+	private Movement pendingMovement;		// Movement that couldn't be sent because the connection was lost
 	
 	private void stop() {
 		listener.listening = false;
 		try {
 			socket.close();
-			input.close();
-			output.close();
 		}
 		catch(IOException ioe) {
 			for(GameObserver o : observers) {
@@ -73,15 +94,88 @@ public class Client implements Controller, GameObserver {
 		}
 	}
 	
+	/**
+	 * Opens a connection to the server and introduces the client.
+	 * @param introduction The first message of the client.
+	 * @throws IOException If the connection fails or the server rejects the client.
+	 */
+	private void connect(byte[] introduction) throws IOException {
+		Socket s = new Socket();
+		try {
+			s.connect(new InetSocketAddress(ip, port), CONNECTION_TIMEOUT);
+			s.setTcpNoDelay(true);
+			DataOutputStream out = new DataOutputStream(s.getOutputStream());
+			DataInputStream in = new DataInputStream(s.getInputStream());
+			out.write(introduction);
+			out.flush();
+			byte[] answer = LobbyProtocol.readFrame(in);
+			if(answer[0] != LobbyProtocol.WELCOME) {
+				throw new IOException(answer[0] == LobbyProtocol.ERROR ? LobbyProtocol.body(answer).readUTF() : "Unexpected answer from the server!");
+			}
+			synchronized(this) {
+				this.socket = s;
+				this.input = in;
+				this.output = out;
+			}
+		}
+		catch(IOException ioe) {
+			s.close();
+			throw ioe;
+		}
+	}
+	
+	/**
+	 * Tries to take the seat back after losing the connection, resuming from the last event received.
+	 * @return True if the client could reconnect.
+	 */
+	private boolean reconnect() {
+		observers.forEach((GameObserver o) -> o.onError(new ConnectException("Connection lost, trying to reconnect...")));
+		for(int i = 0; i < RECONNECTION_ATTEMPTS && listener.listening; i++) {
+			try {
+				Thread.sleep(RECONNECTION_DELAY);
+				connect(spectator ? GameProtocol.spectateFrame(name, decoder.sequence()) : GameProtocol.resumeFrame(name, decoder.sequence()));
+				Movement unsent;
+				synchronized(this) {
+					unsent = pendingMovement;
+				}
+				if(unsent != null) {
+					execute(unsent);
+				}
+				return true;
+			}
+			catch(IOException ioe) {}
+			catch(InterruptedException ie) {
+				return false;
+			}
+		}
+		return false;
+	}
+	
 	public Client(String name, InetAddress ip) throws IOException {
-		this.socket = new Socket();
-		socket.connect(new InetSocketAddress(ip, Server.DEFAULT_PORT), 5000);
-		this.output = new ObjectOutputStream(socket.getOutputStream());
-		output.writeObject(name);
-		this.input = new ObjectInputStream(socket.getInputStream());
+		this(name, ip, false);
+	}
+	
+	/**
+	 * @param spectator True to watch the game without playing.
+	 */
+	public Client(String name, InetAddress ip, boolean spectator) throws IOException {
+		this(name, ip, Server.DEFAULT_PORT, spectator);
+	}
+	
+	/**
+	 * @param port The port of the server.
+	 * @param spectator True to watch the game without playing.
+	 */
+	public Client(String name, InetAddress ip, int port, boolean spectator) throws IOException {
+		this.ip = ip;
+		this.port = port;
 		this.name = name;
+		this.spectator = spectator;
+		connect(spectator ? GameProtocol.spectateFrame(name, 0) : GameProtocol.helloFrame(name));
 		this.listener = new ClientListener();
-		this.observers = new ArrayList<>();
+		this.observers = new CopyOnWriteArrayList<>();
+		this.decoder = new GameProtocol.EventDecoder();
+		this.pendingMovement = null;
 		addObserver(this);
 	}
 	
@@ -90,22 +184,37 @@ public class Client implements Controller, GameObserver {
 		listener.start();
 	}
 	
+	/**
+	 * Sends a movement. If the connection is lost, it's sent again after reconnecting.
+	 */
 	@Override
-	public void execute(Movement movement) {
+	public synchronized void execute(Movement movement) {
 		try {
-			output.writeObject(movement);
-			output.reset();
+			pendingMovement = movement;
+			output.write(GameProtocol.movementFrame(movement));
+			output.flush();
+			pendingMovement = null;
 		}
 		catch(IOException ioe) {
-			observers.forEach((GameObserver o) -> o.onError(ioe));
+			if(!listener.listening) {
+				observers.forEach((GameObserver o) -> o.onError(ioe));
+			}
 		}
 	}
-
+	
+	/**
+	 * Returns the copy of the game kept up to date with the events of the server.
+	 * It changes with every event, so it should only be read by the observers.
+	 */
+	public Game game() {
+		return decoder.replica();
+	}
+	
 	@Override
 	public void addObserver(GameObserver o) {
 		observers.add(o);
 	}
-
+	
 	@Override
 	public void removeObserver(GameObserver o) {
 		observers.remove(o);
@@ -113,40 +222,40 @@ public class Client implements Controller, GameObserver {
 	
 	@Override
 	public boolean usesThisController(Player player) {
-		return player.name().equals(name);
+		return !spectator && player.name().equals(name);
 	}
 	
 	@Override
 	public void loadGame(File file) {}
-
+	
 	@Override
 	public void saveGame(File file) {}
-
+	
 	@Override
 	public boolean allowsLoadingAndSaving() {
 		return false;
 	}
-
+	
 	@Override
 	public void onTurnChange(GameStatus status, Snake board) {}
-
+	
 	@Override
 	public void onPieceAdded(GameStatus status, Snake board) {}
-
+	
 	@Override
 	public void onRoundStart(GameStatus status, Snake board) {}
-
+	
 	@Override
 	public void onRoundEnd(GameStatus status, Snake board, List<Player> players, Player winner) {}
-
+	
 	@Override
 	public void onGameEnd(Player winner) {
 		stop();
 	}
-
+	
 	@Override
 	public void onSpecificError(Player player, Exception e) {}
-
+	
 	@Override
 	public void onError(Exception e) {}
 
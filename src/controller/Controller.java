@@ -14,7 +14,7 @@ import logic.movements.Movement;
 public interface Controller extends Observable<GameObserver> {
 	public void execute(Movement movement);
 	public void loadGame(File file) throws JSONException, FileNotFoundException, IOException;
-	public void saveGame(File file) throws JSONException, FileNotFoundException;
+	public void saveGame(File file) throws JSONException, FileNotFoundException, IOException;
 	public boolean usesThisController(Player player);
 	public boolean allowsLoadingAndSaving();
 }
@@ -1,19 +1,30 @@
 package controller;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 import org.json.JSONException;
-import org.json.JSONObject;
-import org.json.JSONTokener;
 
 import logic.Game;
+import logic.GameBinary;
+import logic.GameJson;
 import logic.GameObserver;
+import logic.GameSnapshot;
+import logic.MoveJournal;
 import logic.Player;
 import logic.gamemodes.GameMode;
 import logic.movements.Movement;
@@ -24,12 +35,37 @@ public class LocalController implements Controller {
 	
 	public LocalController() {
 		this.game = new Game();
+		game.enableActorMode();
 	}
 	
 	public void reset(List<String> playerNames, int AIPlayerCount, GameMode gameMode) {
 		game.reset(playerNames, AIPlayerCount, gameMode);
 	}
 	
+	/**
+	 * Changes the time the AI players wait before each movement.
+	 * @param aiThinkTime The time, in milliseconds. It can be zero.
+	 */
+	public void setAIThinkTime(long aiThinkTime) {
+		game.setAIThinkTime(aiThinkTime);
+	}
+	
+	/**
+	 * Records the game in a new journal, from the next round on.
+	 * @param file The file of the journal. It's replaced if it already exists.
+	 */
+	public void startJournal(File file) throws IOException {
+		game.setJournal(MoveJournal.create(file));
+	}
+	
+	/**
+	 * Rebuilds the game recorded in a journal, and goes on recording it there.
+	 * @param file The file of the journal.
+	 */
+	public void resumeJournal(File file) throws IOException {
+		MoveJournal.recover(file, game);
+	}
+	
 	@Override
 	public void execute(Movement movement) {
 		game.execute(movement);
@@ -53,10 +89,13 @@ public class LocalController implements Controller {
 		
 	@Override
 	public void loadGame(File file) throws JSONException, FileNotFoundException, IOException {
-		try(FileInputStream fileInputStream = new FileInputStream(file)) {
-			JSONTokener jsonTokener = new JSONTokener(fileInputStream);
-			JSONObject json = new JSONObject(jsonTokener);
-			game.reset(json);		
+		try(InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+			if(GameBinary.isBinary(in)) {
+				GameBinary.read(in, game);
+			}
+			else {
+				GameJson.read(new InputStreamReader(in, StandardCharsets.UTF_8), game);
+			}
 		}
 		catch(JSONException | FileNotFoundException ex) {
 			throw ex;
@@ -64,11 +103,24 @@ public class LocalController implements Controller {
 	}
 
 	@Override
-	public void saveGame(File file) throws JSONException, FileNotFoundException {
-		try(PrintWriter printWriter = new PrintWriter(new FileOutputStream(file))) {
-			printWriter.print(game.save().toString());
+	public void saveGame(File file) throws JSONException, FileNotFoundException, IOException {
+		// Taken between movements, as the AI players keep changing the game in its own thread
+		if(file.getName().endsWith("." + GameBinary.EXTENSION)) {
+			GameSnapshot snapshot = game.snapshot(GameBinary::snapshot);
+			try(OutputStream out = new BufferedOutputStream(new FileOutputStream(file))) {
+				GameBinary.write(snapshot, out);
+			}
+			return;
 		}
-		catch(JSONException | FileNotFoundException ex) {
+		String json = game.snapshot((Game g) -> {
+			StringWriter copy = new StringWriter();
+			GameJson.write(g, copy);
+			return copy.toString();
+		});
+		try(Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8))) {
+			writer.write(json);
+		}
+		catch(FileNotFoundException ex) {
 			throw ex;
 		}
 	}
@@ -0,0 +1,105 @@
+package controller;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import logic.Game;
+import logic.GameObserver;
+import logic.Player;
+import logic.Replay;
+import logic.movements.Movement;
+
+/**
+ * Shows a game recorded in a journal, one position at a time, instead of playing it.
+ * Every time the position changes, the observers are notified as if a round had just started there.
+ * Movements are ignored.
+ */
+public class ReplayController implements Controller {
+	
+	private Replay replay;
+	private List<GameObserver> observers;
+	private int position;
+	private Game game;
+	
+	/**
+	 * Opens the game recorded in a journal, at its first position.
+	 * @param file The file of the journal.
+	 */
+	public ReplayController(File file) throws IOException {
+		this.replay = Replay.open(file);
+		this.observers = new CopyOnWriteArrayList<>();
+		this.position = 0;
+		this.game = replay.position(0);
+	}
+	
+	/**
+	 * Moves to a position of the game and shows it.
+	 * @param position The index of the position, from 0 to size() - 1.
+	 */
+	public void seek(int position) {
+		try {
+			game = replay.position(position);
+			this.position = position;
+			observers.forEach((GameObserver o) -> o.onRoundStart(game.status(), game.board()));
+		}
+		catch(IOException ioe) {
+			observers.forEach((GameObserver o) -> o.onError(ioe));
+		}
+	}
+	
+	/**
+	 * Returns the index of the position being shown.
+	 */
+	public int position() {
+		return position;
+	}
+	
+	/**
+	 * Returns the amount of positions of the game.
+	 */
+	public int size() {
+		return replay.size();
+	}
+	
+	/**
+	 * Returns the game at the position being shown.
+	 */
+	public Game game() {
+		return game;
+	}
+	
+	@Override
+	public void execute(Movement movement) {}
+	
+	@Override
+	public void addObserver(GameObserver o) {
+		observers.add(o);
+	}
+	
+	@Override
+	public void removeObserver(GameObserver o) {
+		observers.remove(o);
+	}
+	
+	/**
+	 * The hand of every player can be seen.
+	 */
+	@Override
+	public boolean usesThisController(Player player) {
+		return true;
+	}
+	
+	@Override
+	public void loadGame(File file) {}
+	
+	@Override
+	public void saveGame(File file) {}
+	
+	@Override
+	public boolean allowsLoadingAndSaving() {
+		return false;
+	}
+
+}
@@ -1,8 +0,0 @@
-package controller;
-
-import java.io.Serializable;
-import java.util.function.Consumer;
-
-public interface SerializableConsumer<T> extends Consumer<T>, Serializable {
-	// This is just a marker interface
-}
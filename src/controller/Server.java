@@ -1,24 +1,33 @@
 package controller;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
+import java.io.StreamCorruptedException;
 import java.net.ConnectException;
 import java.net.InetAddress;
 import java.net.ServerSocket;
 import java.net.Socket;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
+import controller.net.EventHistory;
+import controller.net.GameProtocol;
+import controller.net.LobbyProtocol;
+import controller.net.OutboundQueue;
 import logic.Game;
 import logic.GameObserver;
+import logic.GameSnapshot;
 import logic.GameStatus;
 import logic.Player;
 import logic.Snake;
 import logic.gamemodes.GameMode;
-import logic.movements.Movement;
 
 public class Server implements GameObserver {
 	
@@ -26,69 +35,381 @@ public class Server implements GameObserver {
 	
 	public static final int DEFAULT_PORT = 7000;
 	public static final int DEFAULT_QUEUE_SIZE = 10;
+	public static final int HISTORY_SIZE = 256;				// Events kept for clients that reconnect
+	public static final long RECONNECTION_TIMEOUT = 60000;	// How long the game waits for a player that lost the connection
+	public static final int MAX_SPECTATORS = 1000;
+	private static final int HANDSHAKE_TIMEOUT = 5000;
+	
+	/**
+	 * Connection of a player or a spectator. It outlives the socket, so the player can reconnect and take the seat back.
+	 * Events are queued and written by the writers of the server, so the game never waits for a slow client.
+	 */
+	private static class Session {
+		
+		private final String name;
+		private final OutboundQueue outgoing;
+		private Socket socket;
+		private DataInputStream input;
+		private DataOutputStream output;
+		
+		private Session(String name, Supplier<byte[]> resync) {
+			this.name = name;
+			this.outgoing = new OutboundQueue(OutboundQueue.DEFAULT_CAPACITY, resync);
+		}
+		
+		private boolean connected() {
+			return socket != null;
+		}
+		
+		private void attach(Socket socket, DataInputStream input, DataOutputStream output) {
+			this.socket = socket;
+			this.input = input;
+			this.output = output;
+		}
+		
+		private void close() {
+			if(socket != null) {
+				try {
+					socket.close();
+				}
+				catch(IOException ioe) {}
+				socket = null;
+				input = null;
+				output = null;
+			}
+		}
+	
+	}
 	
 	private ServerSocket serverSocket;
-	private Map<String, Socket> sockets;
-	private Map<String, ObjectOutputStream> outputs;
-	private Map<String, ObjectInputStream> inputs;
+	private Map<String, Session> sessions;
+	private List<Session> spectators;		// Read-only clients, they don't have a seat
 	private Game game;
+	private GameProtocol.EventEncoder encoder;
+	private EventHistory history;
+	private ExecutorService writers;
+	private Session awaited;				// Player whose movement the game is waiting for
+	private volatile boolean stopped;
 	
-	private void closeSocket(String name) {
+	/**
+	 * Closes the server. The connections are closed in another thread, once the writers have sent the last events,
+	 * as it's called from the game's own thread when the game ends.
+	 */
+	private void stop() {
+		stopped = true;
 		try {
-			sockets.get(name).close();
-			outputs.get(name).close();
-			inputs.get(name).close();
+			serverSocket.close();
 		}
 		catch(IOException ioe) {}
-		sockets.remove(name);
-		outputs.remove(name);
-		inputs.remove(name);
+		writers.shutdown();
+		Thread closer = new Thread(() -> {
+			try {
+				writers.awaitTermination(HANDSHAKE_TIMEOUT, TimeUnit.MILLISECONDS);
+			}
+			catch(InterruptedException ie) {}
+			synchronized(this) {
+				for(Session s : sessions.values()) {
+					s.close();
+				}
+				for(Session s : spectators) {
+					s.close();
+				}
+				notifyAll();
+			}
+		}, "Server closer");
+		closer.setDaemon(true);
+		closer.start();
 	}
 	
-	private void stop() {
+	/**
+	 * Tells the clients that the game can't go on, and aborts it so the AI players stop too.
+	 * The game ending closes the connections, unless it had already ended and closed them.
+	 */
+	private void abort(Exception e) {
+		encoder.onError(e);
+		game.abort();
+	}
+	
+	/**
+	 * Waits until a player is connected.
+	 * @return The input of the player, or null if the player didn't come back in time.
+	 */
+	private synchronized DataInputStream awaitConnection(Session session) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + RECONNECTION_TIMEOUT;
+		long remaining = RECONNECTION_TIMEOUT;
+		while(!session.connected() && !stopped && remaining > 0) {
+			wait(remaining);
+			remaining = deadline - System.currentTimeMillis();
+		}
+		return session.input;
+	}
+	
+	/**
+	 * Closes the connection of a player after a failed read.
+	 * @return False if the player had already reconnected, so the connection that failed was an old one.
+	 */
+	private synchronized boolean disconnect(Session session, DataInputStream input) {
+		if(session.input == input) {
+			session.close();
+			return true;
+		}
+		return false;
+	}
+	
+	/**
+	 * Starts reading the movements of a player on a thread of its own, so the game never waits for a socket.
+	 */
+	private void startReader(Session session, DataInputStream input) {
+		Thread reader = new Thread(() -> readMovements(session, input), "Server reader " + session.name);
+		reader.setDaemon(true);
+		reader.start();
+	}
+	
+	/**
+	 * Passes the movements of a player to the game, which rejects the ones sent out of turn.
+	 * If the connection is lost, the seat is kept until the player comes back, and a new reader takes over then.
+	 * @param input The input of the connection this reader belongs to.
+	 */
+	private void readMovements(Session session, DataInputStream input) {
 		try {
-			serverSocket.close();
-			String[] clients = sockets.keySet().toArray(String[]::new);
-			for(String client : clients) {
-				closeSocket(client);
+			while(!stopped) {
+				byte[] frame = LobbyProtocol.readFrame(input);
+				if(frame[0] != LobbyProtocol.MOVEMENT) {
+					throw new StreamCorruptedException("Expected a movement!");
+				}
+				synchronized(this) {
+					if(awaited == session) {
+						awaited = null;
+					}
+				}
+				game.execute(GameProtocol.readMovement(frame), session.name);
 			}
 		}
-		catch(IOException ioe) {}
+		catch(StreamCorruptedException sce) {
+			abort(sce);
+		}
+		catch(IOException ioe) {		// Keep the seat until the player comes back
+			if(stopped || !disconnect(session, input)) {
+				return;
+			}
+			encoder.onError(new ConnectException(session.name + " lost the connection, waiting for a reconnection..."));
+			try {
+				if(awaitConnection(session) == null && !stopped) {
+					abort(new ConnectException(session.name + " has left the game!"));
+				}
+			}
+			catch(InterruptedException ie) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		catch(Exception e) {
+			abort(e);
+		}
 	}
 	
-	private void listenMovements() {
+	/**
+	 * Takes note of the player whose movement the game is waiting for, if it's a human one.
+	 */
+	private synchronized void await(Player player) {
+		awaited = player != null && player.dependsOnUser() ? sessions.get(player.name()) : null;
+	}
+	
+	/**
+	 * Sends an encoded event to every connected player and spectator, keeping it for the ones that join later.
+	 * It's encoded only once, whatever the amount of clients: the same array is queued for all of them,
+	 * so it must not be modified, and the writers send it.
+	 */
+	private synchronized void notifyClients(byte[] frame) {
 		try {
-			Movement m = (Movement) inputs.get(game.status().currentPlayer().name()).readObject();
-			game.execute(m);
+			history.add(frame);
+		}
+		catch(IOException ioe) {}
+		for(Session s : sessions.values()) {
+			if(s.connected()) {
+				send(s, frame);
+			}
 		}
-		catch(IOException e) {
-			onError(new ConnectException("One of the players has left the game!"));
-			onGameEnd(null);
+		spectators.removeIf((Session s) -> !s.connected());
+		for(Session s : spectators) {
+			send(s, frame);
 		}
-		catch(Exception e) {
-			onError(e);
-			onGameEnd(null);
+	}
+	
+	/**
+	 * Queues a frame for a client, waking up a writer if needed.
+	 */
+	private void send(Session session, byte[] frame) {
+		if(session.outgoing.offer(frame) && !writers.isShutdown()) {
+			writers.execute(() -> drain(session));
+		}
+	}
+	
+	/**
+	 * Writes the queued events of a client until there are none left. It runs in one of the writers.
+	 */
+	private void drain(Session session) {
+		byte[] frame;
+		while((frame = session.outgoing.take()) != null) {
+			DataOutputStream output;
+			synchronized(this) {
+				output = session.output;
+			}
+			if(output != null) {
+				try {
+					output.write(frame);
+					output.flush();
+				}
+				catch(IOException ioe) {		// The player has left the game or there is another connection problem
+					synchronized(this) {
+						if(session.output == output) {
+							session.close();
+						}
+					}
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Gives a seat back to a player that lost the connection, sending the events it missed.
+	 * They are queued like any other event, and the monitor is never held while writing,
+	 * so a slow client that is coming back doesn't hold the game.
+	 * @param frame The RESUME message of the client.
+	 */
+	private void resume(byte[] frame, Socket client, DataInputStream input, DataOutputStream output) throws IOException {
+		DataInputStream in = GameProtocol.checkVersion(frame);
+		String name = in.readUTF();
+		int sequence = GameSnapshot.readVarInt(in);
+		Session session;
+		synchronized(this) {
+			session = sessions.get(name);
+			if(session == null) {
+				throw new StreamCorruptedException("There is no seat to resume for " + name + "!");
+			}
+			session.close();		// The server may not have noticed that the old connection was lost
+			session.outgoing.clear();
 		}
+		output.write(LobbyProtocol.frame(LobbyProtocol.WELCOME));
+		output.flush();
+		synchronized(this) {
+			session.attach(client, input, output);
+			List<byte[]> missed = history.since(sequence);		// Including the events sent while it wasn't attached
+			if(missed != null) {
+				for(byte[] event : missed) {
+					send(session, event);
+				}
+			}
+			if(missed == null || session == awaited) {		// The movement of the player may have been lost with the connection
+				byte[] resync = encoder.resyncFrame();
+				if(resync != null) {
+					send(session, resync);
+				}
+			}
+			notifyAll();
+		}
+		startReader(session, input);
 	}
 	
-	private void notifyClients(SerializableConsumer<GameObserver> func) {
-		for(String client : outputs.keySet()) {
+	/**
+	 * Lets a client watch the game. It gets the events it missed from the history if they are still there,
+	 * or a snapshot of the game followed by the events after it otherwise.
+	 * They are queued like any other event, so a slow spectator doesn't hold the server.
+	 * If nothing has been encoded yet, the spectator just starts with the next event.
+	 * @param frame The SPECTATE message of the client.
+	 */
+	private void spectate(byte[] frame, Socket client, DataInputStream input, DataOutputStream output) throws IOException {
+		DataInputStream in = GameProtocol.checkVersion(frame);
+		String name = in.readUTF();
+		int sequence = GameSnapshot.readVarInt(in);
+		synchronized(this) {
+			spectators.removeIf((Session s) -> !s.connected());
+			if(spectators.size() >= MAX_SPECTATORS) {
+				throw new StreamCorruptedException("There are too many spectators!");
+			}
+		}
+		output.write(LobbyProtocol.frame(LobbyProtocol.WELCOME));
+		output.flush();
+		synchronized(this) {
+			Session session = new Session(name, encoder::resyncFrame);
+			session.attach(client, input, output);
+			List<byte[]> missed = history.since(sequence);
+			if(missed == null) {
+				byte[] snapshot = encoder.resyncFrame();
+				if(snapshot != null) {
+					send(session, snapshot);
+					missed = history.since(GameProtocol.encodedSequence(snapshot));		// Events that are being sent right now
+				}
+			}
+			if(missed != null) {
+				for(byte[] event : missed) {
+					send(session, event);
+				}
+			}
+			spectators.add(session);
+		}
+	}
+	
+	/**
+	 * Accepts the players that lost the connection and the spectators, once the game has started.
+	 */
+	private void acceptReconnections() {
+		while(!stopped) {
+			Socket client = null;
 			try {
-				outputs.get(client).writeObject(func);
-				outputs.get(client).reset();
+				client = serverSocket.accept();
+				client.setSoTimeout(HANDSHAKE_TIMEOUT);
+				DataInputStream input = new DataInputStream(client.getInputStream());
+				DataOutputStream output = new DataOutputStream(client.getOutputStream());
+				try {
+					byte[] frame = LobbyProtocol.readFrame(input);
+					client.setSoTimeout(0);
+					if(frame[0] == GameProtocol.SPECTATE) {
+						spectate(frame, client, input, output);
+						continue;
+					}
+					if(frame[0] != GameProtocol.RESUME) {
+						throw new StreamCorruptedException("The game has already started!");
+					}
+					resume(frame, client, input, output);
+				}
+				catch(StreamCorruptedException sce) {
+					output.write(LobbyProtocol.frame(LobbyProtocol.ERROR, (DataOutputStream out) -> out.writeUTF(sce.getMessage())));
+					client.close();
+				}
 			}
-			catch(Exception e) {		// The player has left the game or there is another connection problem.
-				closeSocket(client);
+			catch(IOException ioe) {
+				if(client != null) {
+					try {
+						client.close();
+					}
+					catch(IOException e) {}
+				}
 			}
 		}
 	}
 	
 	public Server() throws IOException {
-		this.serverSocket = new ServerSocket(DEFAULT_PORT, DEFAULT_QUEUE_SIZE, InetAddress.getLocalHost());
-		this.sockets = new HashMap<>();
-		this.outputs = new HashMap<>();
-		this.inputs = new HashMap<>();
+		this(DEFAULT_PORT);
+	}
+	
+	/**
+	 * @param port The port to listen on, or 0 to use any free port.
+	 */
+	public Server(int port) throws IOException {
+		this.serverSocket = new ServerSocket(port, DEFAULT_QUEUE_SIZE, InetAddress.getLocalHost());
+		this.sessions = new LinkedHashMap<>();
+		this.spectators = new ArrayList<>();
 		this.game = new Game();
+		this.history = new EventHistory(HISTORY_SIZE);
+		this.writers = Executors.newCachedThreadPool((Runnable r) -> {
+			Thread t = new Thread(r, "Server writer");
+			t.setDaemon(true);
+			return t;
+		});
+		this.stopped = false;
+		game.enableActorMode();
+		this.encoder = new GameProtocol.EventEncoder(game, this::notifyClients);
+		game.addObserver(encoder);
 		game.addObserver(this);
 	}
 	
@@ -97,62 +418,95 @@ public class Server implements GameObserver {
 			List<String> names = new ArrayList<>();
 			while(humanPlayerCount > 0) {					// Wait for everyone to connect before starting the game
 				Socket client = serverSocket.accept();
-				ObjectInputStream ois = new ObjectInputStream(client.getInputStream());
-				String name = (String) ois.readObject();
-				sockets.put(name, client);
-				inputs.put(name, ois);
-				outputs.put(name, new ObjectOutputStream(client.getOutputStream()));
+				DataInputStream input = new DataInputStream(client.getInputStream());
+				DataOutputStream output = new DataOutputStream(client.getOutputStream());
+				String name;
+				try {
+					byte[] frame = LobbyProtocol.readFrame(input);
+					if(frame[0] == GameProtocol.SPECTATE) {		// Spectators can come before the game starts
+						spectate(frame, client, input, output);
+						continue;
+					}
+					if(frame[0] != LobbyProtocol.HELLO) {
+						throw new StreamCorruptedException("The client didn't introduce itself!");
+					}
+					name = GameProtocol.readHello(frame);
+					if(names.contains(name)) {
+						throw new StreamCorruptedException("The name " + name + " is not available!");
+					}
+				}
+				catch(StreamCorruptedException sce) {		// Reject the client, but keep waiting for the others
+					output.write(LobbyProtocol.frame(LobbyProtocol.ERROR, (DataOutputStream out) -> out.writeUTF(sce.getMessage())));
+					client.close();
+					continue;
+				}
+				output.write(LobbyProtocol.frame(LobbyProtocol.WELCOME));
+				output.flush();
+				Session session = new Session(name, encoder::resyncFrame);
+				session.attach(client, input, output);
+				synchronized(this) {
+					sessions.put(name, session);
+				}
 				names.add(name);
 				--humanPlayerCount;
 			}
+			Thread acceptor = new Thread(this::acceptReconnections, "Server reconnections");
+			acceptor.setDaemon(true);
+			acceptor.start();
 			game.reset(names, AIPlayerCount, gameMode);
+			synchronized(this) {
+				for(Session s : sessions.values()) {
+					startReader(s, s.input);
+				}
+			}
 		}
 		catch(Exception e) {
-			onError(e);
+			encoder.onError(e);
 		}
 	}
 	
+	/**
+	 * Ends the game, even if it hasn't finished, and closes all the connections.
+	 */
+	public void close() {
+		abort(new ConnectException("The server has been closed!"));
+	}
+	
 	public InetAddress address() {
 		return serverSocket.getInetAddress();
 	}
-
+	
+	public int port() {
+		return serverSocket.getLocalPort();
+	}
+	
 	@Override
 	public void onTurnChange(GameStatus status, Snake board) {
-		notifyClients((GameObserver o) -> o.onTurnChange(status, board));
-		if(game.status().currentPlayer().dependsOnUser()) {
-			listenMovements();
-		}
+		await(status.currentPlayer());
 	}
-
+	
 	@Override
-	public void onPieceAdded(GameStatus status, Snake board) {
-		notifyClients((GameObserver o) -> o.onPieceAdded(status, board));
-	}
-
+	public void onPieceAdded(GameStatus status, Snake board) {}
+	
 	@Override
-	public void onRoundStart(GameStatus status, Snake board) {
-		notifyClients((GameObserver o) -> o.onRoundStart(status, board));
-	}
-
+	public void onRoundStart(GameStatus status, Snake board) {}
+	
 	@Override
-	public void onRoundEnd(GameStatus status, Snake board, List<Player> players, Player winner) {
-		notifyClients((GameObserver o) -> o.onRoundEnd(status, board, players, winner));
-	}
-
+	public void onRoundEnd(GameStatus status, Snake board, List<Player> players, Player winner) {}
+	
 	@Override
 	public void onGameEnd(Player winner) {
-		notifyClients((GameObserver o) -> o.onGameEnd(winner));
 		stop();
 	}
-
+	
 	@Override
 	public void onSpecificError(Player player, Exception e) {
-		notifyClients((GameObserver o) -> o.onSpecificError(player, e));
-	}
-
-	@Override
-	public void onError(Exception e) {
-		notifyClients((GameObserver o) -> o.onError(e));
+		if(player != null && player == game.status().currentPlayer()) {		// The player has to try again
+			await(player);
+		}
 	}
 	
+	@Override
+	public void onError(Exception e) {}
+
 }
@@ -0,0 +1,150 @@
+package controller.loadtest;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import controller.Client;
+import controller.Server;
+import logic.AIStrategy;
+import logic.gamemodes.GameMode;
+
+/**
+ * Plays many simultaneous network games on this machine, to find out how much load a server can take.
+ * Every game has its own Server on a free local port, and all its players are bots connected through a Client,
+ * so every movement goes through the whole network stack, encoding, queues and all.
+ */
+public class LoadTest {
+	
+	public static final long TIMEOUT = 600000;				// How long the games can take, in milliseconds
+	private static final long CLOSE_TIMEOUT = 5000;
+	
+	private final int gameCount;
+	private final int botsPerGame;
+	private final GameMode gameMode;
+	private final List<Server> servers;
+	private final List<LoadTestBot[]> games;		// The bots of each game, null if they couldn't connect
+	private int connectionFailures;
+	
+	/**
+	 * Starts a game and connects its bots. If any of them can't connect, the game is closed.
+	 * @param game The index of the game.
+	 * @param gameEnds Counted down once for every bot whose game has ended, or that couldn't connect.
+	 */
+	private void startGame(int game, CountDownLatch gameEnds) {
+		Server server;
+		try {
+			server = new Server(0);
+		}
+		catch(IOException ioe) {
+			connectionFailures += botsPerGame;
+			for(int i = 0; i < botsPerGame; i++) {
+				gameEnds.countDown();
+			}
+			return;
+		}
+		servers.add(server);
+		LoadTestBot[] bots = new LoadTestBot[botsPerGame];
+		games.add(bots);
+		Thread host = new Thread(() -> server.reset(botsPerGame, 0, gameMode), "Load test game " + (game + 1));
+		host.setDaemon(true);
+		host.start();
+		AIStrategy[] strategies = Arrays.stream(gameMode.viableStrategies())
+				.filter((AIStrategy s) -> s.decisionTime() == 0)		// Bots answer at once, to load the server as much as possible
+				.toArray(AIStrategy[]::new);
+		boolean failed = false;
+		for(int i = 0; i < botsPerGame; i++) {
+			String name = "Bot " + (i + 1);
+			try {
+				if(failed) {
+					throw new IOException("The game has been closed!");
+				}
+				Client client = new Client(name, server.address(), server.port(), false);
+				LoadTestBot bot = new LoadTestBot(client, name, strategies[(game + i) % strategies.length], gameEnds::countDown);
+				client.addObserver(bot);
+				client.startListening();
+				bots[i] = bot;
+			}
+			catch(IOException ioe) {
+				connectionFailures++;
+				gameEnds.countDown();
+				if(!failed) {			// The game would wait forever for the missing player
+					failed = true;
+					server.close();
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Creates a new load test.
+	 * @param gameCount The amount of games played at the same time.
+	 * @param botsPerGame The amount of players of each game.
+	 * @param gameMode The game mode. It must be already initialized.
+	 */
+	public LoadTest(int gameCount, int botsPerGame, GameMode gameMode) {
+		this.gameCount = gameCount;
+		this.botsPerGame = botsPerGame;
+		this.gameMode = gameMode;
+		this.servers = new ArrayList<>();
+		this.games = new ArrayList<>();
+		this.connectionFailures = 0;
+	}
+	
+	/**
+	 * Starts all the games and waits until they finish, or until the timeout expires.
+	 * Games that didn't finish in time are closed.
+	 * @return The result of the test.
+	 */
+	public LoadTestResult run() throws InterruptedException {
+		CountDownLatch gameEnds = new CountDownLatch(gameCount * botsPerGame);
+		long start = System.nanoTime();
+		for(int game = 0; game < gameCount; game++) {
+			startGame(game, gameEnds);
+		}
+		boolean completed = gameEnds.await(TIMEOUT, TimeUnit.MILLISECONDS);
+		long elapsed = System.nanoTime() - start;
+		if(!completed) {
+			for(Server s : servers) {
+				s.close();
+			}
+			gameEnds.await(CLOSE_TIMEOUT, TimeUnit.MILLISECONDS);
+		}
+		
+		int finishedGames = 0;
+		int players = 0;
+		int rejectedMovements = 0;
+		int failures = connectionFailures;
+		List<long[]> latencies = new ArrayList<>();
+		int movements = 0;
+		for(LoadTestBot[] bots : games) {
+			boolean finished = true;
+			for(LoadTestBot bot : bots) {
+				if(bot == null) {
+					finished = false;
+					continue;
+				}
+				finished &= bot.finished();
+				players++;
+				rejectedMovements += bot.rejectedMovements();
+				failures += bot.connectionErrors();
+				latencies.add(bot.latencies());
+				movements += bot.movements();
+			}
+			if(finished) {
+				finishedGames++;
+			}
+		}
+		long[] all = new long[movements];
+		int next = 0;
+		for(long[] l : latencies) {
+			System.arraycopy(l, 0, all, next, l.length);
+			next += l.length;
+		}
+		return new LoadTestResult(gameCount, finishedGames, players, rejectedMovements, failures, elapsed, all);
+	}
+
+}
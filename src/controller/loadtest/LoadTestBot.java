@@ -0,0 +1,144 @@
+package controller.loadtest;
+
+import java.net.ConnectException;
+import java.util.Arrays;
+import java.util.List;
+
+import controller.Client;
+import logic.AIStrategy;
+import logic.GameObserver;
+import logic.GameStatus;
+import logic.Player;
+import logic.RandomPlacementStrategy;
+import logic.Snake;
+
+/**
+ * Headless player of a load test. It plays through a Client, deciding its movements with an AI strategy
+ * on the copy of the game kept by the client, and measures how long the server takes to answer each of them.
+ * All its methods are called by the listener of the client, so it needs no locking.
+ */
+class LoadTestBot implements GameObserver {
+	
+	private static final long serialVersionUID = 1L;
+	
+	private static final AIStrategy FALLBACK_STRATEGY = new RandomPlacementStrategy();
+	
+	private final Client client;
+	private final String name;
+	private final AIStrategy strategy;
+	private final Runnable onGameEnd;
+	private long sentAt;					// When the last movement was sent, or 0 if it has been answered
+	private long[] latencies;
+	private int movements;
+	private int rejectedMovements;
+	private int connectionErrors;
+	private boolean finished;
+	private boolean ended;
+	
+	private void answered() {
+		if(sentAt != 0) {
+			if(movements == latencies.length) {
+				latencies = Arrays.copyOf(latencies, latencies.length * 2);
+			}
+			latencies[movements++] = System.nanoTime() - sentAt;
+			sentAt = 0;
+		}
+	}
+	
+	private void play(GameStatus status, AIStrategy strategy) {
+		Player player = status.currentPlayer();
+		if(player != null && player.name().equals(name)) {
+			sentAt = System.nanoTime();
+			client.execute(strategy.decideMovement(client.game(), player.hand()));
+		}
+	}
+	
+	/**
+	 * @param client The client, already connected to the server.
+	 * @param name The name of the player.
+	 * @param strategy The strategy that decides the movements.
+	 * @param onGameEnd Called once the game has finished.
+	 */
+	LoadTestBot(Client client, String name, AIStrategy strategy, Runnable onGameEnd) {
+		this.client = client;
+		this.name = name;
+		this.strategy = strategy;
+		this.onGameEnd = onGameEnd;
+		this.sentAt = 0;
+		this.latencies = new long[64];
+		this.movements = 0;
+		this.rejectedMovements = 0;
+		this.connectionErrors = 0;
+		this.finished = false;
+		this.ended = false;
+	}
+	
+	/**
+	 * Returns the time the server took to answer each movement, in nanoseconds.
+	 */
+	long[] latencies() {
+		return Arrays.copyOf(latencies, movements);
+	}
+	
+	int movements() {
+		return movements;
+	}
+	
+	int rejectedMovements() {
+		return rejectedMovements;
+	}
+	
+	int connectionErrors() {
+		return connectionErrors;
+	}
+	
+	boolean finished() {
+		return finished;
+	}
+	
+	@Override
+	public void onTurnChange(GameStatus status, Snake board) {
+		answered();
+		play(status, strategy);
+	}
+	
+	@Override
+	public void onPieceAdded(GameStatus status, Snake board) {
+		answered();
+	}
+	
+	@Override
+	public void onRoundStart(GameStatus status, Snake board) {}
+	
+	@Override
+	public void onRoundEnd(GameStatus status, Snake board, List<Player> players, Player winner) {
+		answered();
+	}
+	
+	@Override
+	public void onGameEnd(Player winner) {
+		answered();
+		if(!ended) {			// A client that fails after the end of the game notifies it again
+			ended = true;
+			finished = winner != null;
+			onGameEnd.run();
+		}
+	}
+	
+	@Override
+	public void onSpecificError(Player player, Exception e) {
+		if(player != null && player.name().equals(name)) {		// Try something else, or the game would never go on
+			answered();
+			rejectedMovements++;
+			play(client.game().status(), FALLBACK_STRATEGY);
+		}
+	}
+	
+	@Override
+	public void onError(Exception e) {
+		if(e instanceof ConnectException) {
+			connectionErrors++;
+		}
+	}
+
+}
@@ -0,0 +1,97 @@
+package controller.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Summary of a load test: how many games could be played, how fast, and how long the server took to answer.
+ */
+public class LoadTestResult {
+	
+	private final int games;
+	private final int finishedGames;
+	private final int players;
+	private final int rejectedMovements;
+	private final int connectionFailures;
+	private final long elapsed;
+	private final long[] latencies;
+	
+	/**
+	 * @param games The amount of games that were started.
+	 * @param finishedGames The amount of games that ended normally.
+	 * @param players The amount of players that connected.
+	 * @param rejectedMovements The amount of movements the server didn't allow.
+	 * @param connectionFailures The amount of clients that couldn't connect or lost the connection.
+	 * @param elapsed The duration of the test, in nanoseconds.
+	 * @param latencies The time the server took to answer each movement, in nanoseconds, in any order.
+	 */
+	public LoadTestResult(int games, int finishedGames, int players, int rejectedMovements, int connectionFailures, long elapsed, long[] latencies) {
+		this.games = games;
+		this.finishedGames = finishedGames;
+		this.players = players;
+		this.rejectedMovements = rejectedMovements;
+		this.connectionFailures = connectionFailures;
+		this.elapsed = elapsed;
+		this.latencies = latencies.clone();
+		Arrays.sort(this.latencies);
+	}
+	
+	public int games() {
+		return games;
+	}
+	
+	public int finishedGames() {
+		return finishedGames;
+	}
+	
+	public int players() {
+		return players;
+	}
+	
+	public int movements() {
+		return latencies.length;
+	}
+	
+	public int rejectedMovements() {
+		return rejectedMovements;
+	}
+	
+	public int connectionFailures() {
+		return connectionFailures;
+	}
+	
+	/**
+	 * Returns the duration of the test, in milliseconds.
+	 */
+	public long elapsed() {
+		return elapsed / 1000000;
+	}
+	
+	/**
+	 * Returns the amount of movements answered by the server every second, in all games together.
+	 */
+	public double movementsPerSecond() {
+		return elapsed == 0 ? 0 : latencies.length * 1e9 / elapsed;
+	}
+	
+	/**
+	 * Returns a percentile of the time the server took to answer the movements, using the nearest rank.
+	 * @param percentile The percentile, between 0 and 100.
+	 * @return The time, in milliseconds, or 0 if no movement was answered.
+	 */
+	public double latency(double percentile) {
+		if(latencies.length == 0) {
+			return 0;
+		}
+		int rank = (int) Math.ceil(percentile / 100 * latencies.length);
+		return latencies[Math.max(0, Math.min(rank, latencies.length) - 1)] / 1e6;
+	}
+	
+	@Override
+	public String toString() {
+		return String.format("Games: %d/%d finished, Players: %d, Movements: %d (%.1f/s, %d rejected), Connection failures: %d%n"
+				+ "Latency (ms): p50 %.2f, p90 %.2f, p99 %.2f, p99.9 %.2f, max %.2f",
+				finishedGames, games, players, movements(), movementsPerSecond(), rejectedMovements, connectionFailures,
+				latency(50), latency(90), latency(99), latency(99.9), latency(100));
+	}
+
+}
@@ -0,0 +1,148 @@
+package controller.net;
+
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Non-blocking connection between the table server and a client.
+ * Reading and writing are done by the selector thread, but frames can be sent from any thread.
+ * Pending frames are kept in a bounded queue, so a slow client gets a resync instead of delaying its table.
+ */
+class Connection {
+	
+	private static final int INITIAL_BUFFER_SIZE = 4096;
+	
+	private final TableServer server;
+	private final SocketChannel channel;
+	private final SelectionKey key;
+	private final OutboundQueue outgoing;
+	private ByteBuffer current;			// Frame being written, taken out of the queue
+	private ByteBuffer incoming;
+	private String name;
+	private volatile Table table;
+	private volatile boolean closed;
+	
+	public Connection(TableServer server, SocketChannel channel, SelectionKey key) {
+		this.server = server;
+		this.channel = channel;
+		this.key = key;
+		this.outgoing = new OutboundQueue(OutboundQueue.DEFAULT_CAPACITY, this::resyncFrame);
+		this.current = null;
+		this.incoming = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+		this.name = null;
+		this.table = null;
+		this.closed = false;
+	}
+	
+	/**
+	 * Reads all the available bytes and extracts the complete frames.
+	 * @return The frames, without their length prefix.
+	 * @throws IOException If the client has closed the connection or sent a malformed frame.
+	 */
+	List<byte[]> read() throws IOException {
+		if(channel.read(incoming) < 0) {
+			throw new IOException("The client has closed the connection!");
+		}
+		List<byte[]> frames = new ArrayList<>();
+		incoming.flip();
+		while(incoming.remaining() >= Integer.BYTES) {
+			int length = incoming.getInt(incoming.position());
+			if(length <= 0 || length > LobbyProtocol.MAX_FRAME_SIZE) {
+				throw new StreamCorruptedException("Invalid frame length: " + length);
+			}
+			if(incoming.remaining() < Integer.BYTES + length) {
+				if(incoming.capacity() < Integer.BYTES + length) {		// Make room for the whole frame
+					ByteBuffer bigger = ByteBuffer.allocate(Integer.BYTES + length);
+					bigger.put(incoming);
+					incoming = bigger;
+					return frames;
+				}
+				break;
+			}
+			incoming.getInt();
+			byte[] frame = new byte[length];
+			incoming.get(frame);
+			frames.add(frame);
+		}
+		incoming.compact();
+		return frames;
+	}
+	
+	private byte[] resyncFrame() {
+		Table t = table;
+		return t == null ? null : t.resyncFrame();
+	}
+	
+	/**
+	 * Writes as many pending frames as the socket accepts without blocking.
+	 * @return true if all the pending frames have been written.
+	 * @throws IOException If the connection fails, or the client is too slow to catch up.
+	 */
+	boolean flush() throws IOException {
+		if(outgoing.overflowed()) {
+			throw new IOException("The client is too slow!");
+		}
+		while(current != null || (current = next()) != null) {
+			channel.write(current);
+			if(current.hasRemaining()) {
+				return false;
+			}
+			current = null;
+		}
+		return true;
+	}
+	
+	private ByteBuffer next() {
+		byte[] frame = outgoing.take();
+		return frame == null ? null : ByteBuffer.wrap(frame);
+	}
+	
+	/**
+	 * Queues a complete frame to be sent to the client. It can be called from any thread.
+	 * @param frame The frame, including its length prefix.
+	 */
+	public void send(byte[] frame) {
+		if(!closed && (outgoing.offer(frame) || outgoing.overflowed())) {
+			server.requestWrite(this);
+		}
+	}
+	
+	void close() {
+		closed = true;
+		key.cancel();
+		try {
+			channel.close();
+		}
+		catch(IOException ioe) {}
+	}
+	
+	boolean closed() {
+		return closed;
+	}
+	
+	SelectionKey key() {
+		return key;
+	}
+	
+	public String name() {
+		return name;
+	}
+	
+	void setName(String name) {
+		this.name = name;
+	}
+	
+	public Table table() {
+		return table;
+	}
+	
+	void setTable(Table table) {
+		this.table = table;
+	}
+	
+}
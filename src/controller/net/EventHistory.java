@@ -0,0 +1,58 @@
+package controller.net;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The last encoded events of a game, kept in a ring buffer so clients can catch up with the ones they missed.
+ */
+public class EventHistory {
+	
+	private final byte[][] frames;
+	private final int[] sequences;
+	private int next;
+	private int size;
+	
+	/**
+	 * @param capacity The amount of events kept.
+	 */
+	public EventHistory(int capacity) {
+		this.frames = new byte[capacity][];
+		this.sequences = new int[capacity];
+		this.next = 0;
+		this.size = 0;
+	}
+	
+	/**
+	 * Keeps an event, forgetting the oldest one if the history is full.
+	 * @param frame The encoded event.
+	 */
+	public synchronized void add(byte[] frame) throws IOException {
+		sequences[next] = GameProtocol.encodedSequence(frame);
+		frames[next] = frame;
+		next = (next + 1) % frames.length;
+		size = Math.min(size + 1, frames.length);
+	}
+	
+	/**
+	 * Gets the events after a certain one, in order.
+	 * @param sequence The sequence number of the last event that is already known.
+	 * @return The events, or null if some of them have been forgotten.
+	 */
+	public synchronized List<byte[]> since(int sequence) {
+		List<byte[]> result = new ArrayList<>();
+		int first = (next - size + frames.length) % frames.length;
+		for(int i = 0; i < size; i++) {
+			int index = (first + i) % frames.length;
+			if(sequences[index] > sequence) {
+				result.add(frames[index]);
+			}
+		}
+		if(size > 0 && sequences[first] > sequence + 1 || size == 0 && sequence > 0) {
+			return null;
+		}
+		return result;
+	}
+	
+}
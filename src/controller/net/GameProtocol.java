@@ -0,0 +1,457 @@
+package controller.net;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.net.ConnectException;
+import java.util.List;
+import java.util.function.Consumer;
+
+import logic.Game;
+import logic.GameObserver;
+import logic.GameSnapshot;
+import logic.GameStatus;
+import logic.Player;
+import logic.Snake;
+import logic.exceptions.UnallowedMovementException;
+import logic.movements.Movement;
+import logic.movements.MovementParser;
+
+/**
+ * Binary encoding of the events of a game and of the movements of the players.
+ * Every event starts with its sequence number. Events that carry the state of the game include the changes
+ * since the previous one (or a whole snapshot, without the pieces of the deck, when there is no previous one),
+ * and players are referred to by their position in the game.
+ * Frames use the same layout as the lobby messages.
+ */
+public class GameProtocol {
+	
+	/**
+	 * Version of the protocol. Clients send it in their first message, and servers reject any other.
+	 */
+	public static final byte VERSION = 2;
+	
+	// Server to client
+	public static final byte TURN_CHANGE = 80;
+	public static final byte PIECE_ADDED = 81;
+	public static final byte ROUND_START = 82;
+	public static final byte ROUND_END = 83;
+	public static final byte GAME_END = 84;
+	public static final byte SPECIFIC_ERROR = 85;
+	public static final byte GAME_ERROR = 86;
+	public static final byte RESYNC = 87;
+	
+	// Client to server, instead of HELLO
+	public static final byte RESUME = 6;
+	public static final byte SPECTATE = 7;
+	
+	// How the state of the game is sent in an event
+	private static final byte FULL_STATE = 0;
+	private static final byte CHANGES = 1;
+	
+	// Kinds of errors
+	private static final byte GENERIC_ERROR = 0;
+	private static final byte CONNECTION_ERROR = 1;
+	private static final byte MOVEMENT_ERROR = 2;
+	
+	/**
+	 * Builds the frame that sends a movement.
+	 */
+	public static byte[] movementFrame(Movement movement) {
+		return LobbyProtocol.frame(LobbyProtocol.MOVEMENT, (DataOutputStream out) -> MovementParser.writeMovement(movement, out));
+	}
+	
+	/**
+	 * Reads the movement of a frame built by movementFrame.
+	 */
+	public static Movement readMovement(byte[] frame) throws IOException {
+		return MovementParser.readMovement(LobbyProtocol.body(frame));
+	}
+	
+	/**
+	 * Builds the first message of a client.
+	 * @param name The name of the player.
+	 */
+	public static byte[] helloFrame(String name) {
+		return LobbyProtocol.frame(LobbyProtocol.HELLO, (DataOutputStream out) -> {
+			out.writeByte(VERSION);
+			out.writeUTF(name);
+		});
+	}
+	
+	/**
+	 * Opens the body of a HELLO or RESUME message, checking the version of the protocol.
+	 * @return The body, positioned after the version.
+	 * @throws StreamCorruptedException If the client uses another version of the protocol.
+	 */
+	public static DataInputStream checkVersion(byte[] frame) throws IOException {
+		DataInputStream in = LobbyProtocol.body(frame);
+		byte version = in.readByte();
+		if(version != VERSION) {
+			throw new StreamCorruptedException("Unsupported protocol version " + version + ", expected " + VERSION + "!");
+		}
+		return in;
+	}
+	
+	/**
+	 * Reads the name of the player from the first message of a client.
+	 * @throws StreamCorruptedException If the client uses another version of the protocol.
+	 */
+	public static String readHello(byte[] frame) throws IOException {
+		return checkVersion(frame).readUTF();
+	}
+	
+	/**
+	 * Tells if a kind of message is a game event.
+	 */
+	public static boolean isEvent(byte type) {
+		return type >= TURN_CHANGE && type <= RESYNC;
+	}
+	
+	private static void writeError(DataOutputStream out, Exception e) throws IOException {
+		byte kind = GENERIC_ERROR;
+		if(e instanceof ConnectException) {
+			kind = CONNECTION_ERROR;
+		}
+		else if(e instanceof UnallowedMovementException) {
+			kind = MOVEMENT_ERROR;
+		}
+		out.writeByte(kind);
+		out.writeUTF(e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage());
+	}
+	
+	private static Exception readError(DataInputStream in) throws IOException {
+		byte kind = in.readByte();
+		String message = in.readUTF();
+		switch(kind) {
+			case CONNECTION_ERROR: return new ConnectException(message);
+			case MOVEMENT_ERROR: return new UnallowedMovementException(message);
+			default: return new Exception(message);
+		}
+	}
+	
+	/**
+	 * Reads the sequence number of a received event frame.
+	 */
+	public static int sequence(byte[] frame) throws IOException {
+		return GameSnapshot.readVarInt(LobbyProtocol.body(frame));
+	}
+	
+	/**
+	 * Reads the sequence number of an event frame built by the encoder, which still has its length prefix.
+	 */
+	public static int encodedSequence(byte[] frame) throws IOException {
+		int offset = Integer.BYTES + 1;
+		return GameSnapshot.readVarInt(new DataInputStream(new ByteArrayInputStream(frame, offset, frame.length - offset)));
+	}
+	
+	/**
+	 * Builds the message a client sends to take its seat back after losing the connection.
+	 * @param name The name of the player.
+	 * @param sequence The sequence number of the last event the client received.
+	 */
+	public static byte[] resumeFrame(String name, int sequence) {
+		return LobbyProtocol.frame(RESUME, (DataOutputStream out) -> {
+			out.writeByte(VERSION);
+			out.writeUTF(name);
+			GameSnapshot.writeVarInt(out, sequence);
+		});
+	}
+	
+	/**
+	 * Builds the message a client sends to watch a game without taking a seat.
+	 * @param name The name of the spectator.
+	 * @param sequence The sequence number of the last event the client received, or 0 if it's watching for the first time.
+	 */
+	public static byte[] spectateFrame(String name, int sequence) {
+		return LobbyProtocol.frame(SPECTATE, (DataOutputStream out) -> {
+			out.writeByte(VERSION);
+			out.writeUTF(name);
+			GameSnapshot.writeVarInt(out, sequence);
+		});
+	}
+	
+	/**
+	 * Observer that turns the events of a game into frames.
+	 * Every event gets a sequence number, and the ones that carry the state of the game
+	 * only include what changed since the previous one.
+	 */
+	public static class EventEncoder implements GameObserver {
+		
+		private static final long serialVersionUID = 1L;
+		
+		/**
+		 * State of the game after a certain event.
+		 */
+		private static class SentState {
+			
+			private final int sequence;
+			private final GameSnapshot state;
+			
+			private SentState(int sequence, GameSnapshot state) {
+				this.sequence = sequence;
+				this.state = state;
+			}
+			
+		}
+		
+		private final transient Game game;
+		private final transient Consumer<byte[]> sink;
+		private transient GameSnapshot last;		// State of the game, as the clients know it
+		private int sequence;
+		private volatile transient SentState sentState;	// Read by resyncFrame without taking the lock
+		
+		private int indexOf(Player player) {
+			if(player == null) {
+				return -1;
+			}
+			List<Player> players = game.players();
+			for(int i = 0; i < players.size(); i++) {
+				if(players.get(i) == player || players.get(i).name().equals(player.name())) {
+					return i;
+				}
+			}
+			return -1;
+		}
+		
+		/**
+		 * Builds the frame of an event and sends it. Events may come from several threads,
+		 * so they are sent while holding the lock, in the order of their sequence numbers.
+		 * @param type The kind of event.
+		 * @param withState Whether the event carries the state of the game.
+		 * @param body The writer of the rest of the event.
+		 */
+		private synchronized void event(byte type, boolean withState, LobbyProtocol.MessageWriter body) {
+			int seq = ++sequence;
+			GameSnapshot previous = last;
+			GameSnapshot current = withState ? GameSnapshot.of(game, false) : previous;
+			byte[] frame = LobbyProtocol.frame(type, (DataOutputStream out) -> {
+				GameSnapshot.writeVarInt(out, seq);
+				if(withState) {
+					writeState(out, previous, current);
+				}
+				body.write(out);
+			});
+			last = current;
+			sentState = new SentState(seq, current);
+			sink.accept(frame);
+		}
+		
+		private static void writeState(DataOutputStream out, GameSnapshot previous, GameSnapshot current) throws IOException {
+			ByteArrayOutputStream changes = new ByteArrayOutputStream();
+			if(current.writeChanges(previous, new DataOutputStream(changes))) {
+				out.writeByte(CHANGES);
+				changes.writeTo(out);
+			}
+			else {
+				out.writeByte(FULL_STATE);
+				current.write(out);
+			}
+		}
+		
+		/**
+		 * @param game The game whose events are encoded. The encoder must be one of its observers.
+		 * @param sink Receives every encoded frame.
+		 */
+		public EventEncoder(Game game, Consumer<byte[]> sink) {
+			this.game = game;
+			this.sink = sink;
+			this.last = null;
+			this.sequence = 0;
+			this.sentState = null;
+		}
+		
+		/**
+		 * Gets a frame with the whole state of the game, as of the last event.
+		 * It lets a client that missed some events catch up. It doesn't wait for the lock of the encoder,
+		 * so it can be called while sending an event.
+		 * @return The frame, or null if no state has been sent yet.
+		 */
+		public byte[] resyncFrame() {
+			SentState sent = sentState;
+			if(sent == null || sent.state == null) {
+				return null;
+			}
+			return LobbyProtocol.frame(RESYNC, (DataOutputStream out) -> {
+				GameSnapshot.writeVarInt(out, sent.sequence);
+				sent.state.write(out);
+			});
+		}
+		
+		/**
+		 * Returns the sequence number of the last event.
+		 */
+		public synchronized int sequence() {
+			return sequence;
+		}
+		
+		@Override
+		public void onTurnChange(GameStatus status, Snake board) {
+			event(TURN_CHANGE, true, (DataOutputStream out) -> {});
+		}
+		
+		@Override
+		public void onPieceAdded(GameStatus status, Snake board) {
+			event(PIECE_ADDED, true, (DataOutputStream out) -> {});
+		}
+		
+		@Override
+		public void onRoundStart(GameStatus status, Snake board) {
+			event(ROUND_START, true, (DataOutputStream out) -> {});
+		}
+		
+		@Override
+		public void onRoundEnd(GameStatus status, Snake board, List<Player> players, Player winner) {
+			event(ROUND_END, true, (DataOutputStream out) -> GameSnapshot.writeVarInt(out, indexOf(winner) + 1));
+		}
+		
+		@Override
+		public void onGameEnd(Player winner) {
+			event(GAME_END, false, (DataOutputStream out) -> GameSnapshot.writeVarInt(out, indexOf(winner) + 1));
+		}
+		
+		@Override
+		public void onSpecificError(Player player, Exception e) {
+			event(SPECIFIC_ERROR, false, (DataOutputStream out) -> {
+				GameSnapshot.writeVarInt(out, indexOf(player) + 1);
+				writeError(out, e);
+			});
+		}
+		
+		@Override
+		public void onError(Exception e) {
+			event(GAME_ERROR, false, (DataOutputStream out) -> writeError(out, e));
+		}
+	
+	}
+	
+	/**
+	 * Rebuilds the events encoded by an EventEncoder, keeping a copy of the game on the client side.
+	 */
+	public static class EventDecoder {
+		
+		private final Game replica;
+		private GameSnapshot state;
+		private int sequence;
+		
+		private Player player(int index) throws StreamCorruptedException {
+			if(index == 0) {
+				return null;
+			}
+			List<Player> players = replica.players();
+			if(players == null || index > players.size()) {
+				throw new StreamCorruptedException("Unknown player: " + (index - 1));
+			}
+			return players.get(index - 1);
+		}
+		
+		private void readState(DataInputStream in, int seq) throws IOException {
+			byte kind = in.readByte();
+			if(kind == FULL_STATE) {
+				state = GameSnapshot.read(in);
+			}
+			else if(kind == CHANGES && state != null && seq == sequence + 1) {
+				state = state.readChanges(in);
+			}
+			else {
+				throw new StreamCorruptedException("Missing events before event " + seq + "!");
+			}
+			state.restore(replica);
+		}
+		
+		public EventDecoder() {
+			this.replica = new Game();
+			this.state = null;
+			this.sequence = 0;
+		}
+		
+		/**
+		 * Returns the copy of the game, as of the last event that was decoded.
+		 */
+		public Game replica() {
+			return replica;
+		}
+		
+		/**
+		 * Returns the sequence number of the last event that was decoded.
+		 */
+		public int sequence() {
+			return sequence;
+		}
+		
+		/**
+		 * Decodes an event and notifies it. Events that were already decoded are ignored.
+		 * @param frame The frame, without the length prefix.
+		 * @param observers The observers to notify.
+		 */
+		public void dispatch(byte[] frame, Iterable<GameObserver> observers) throws IOException {
+			DataInputStream in = LobbyProtocol.body(frame);
+			int seq = GameSnapshot.readVarInt(in);
+			if(seq < sequence || seq == sequence && frame[0] != RESYNC) {		// A resync may repeat the last event
+				return;
+			}
+			Consumer<GameObserver> event;
+			switch(frame[0]) {
+				case TURN_CHANGE: {
+					readState(in, seq);
+					event = (GameObserver o) -> o.onTurnChange(replica.status(), replica.board());
+					break;
+				}
+				case PIECE_ADDED: {
+					readState(in, seq);
+					event = (GameObserver o) -> o.onPieceAdded(replica.status(), replica.board());
+					break;
+				}
+				case ROUND_START: {
+					readState(in, seq);
+					event = (GameObserver o) -> o.onRoundStart(replica.status(), replica.board());
+					break;
+				}
+				case ROUND_END: {
+					readState(in, seq);
+					Player winner = player(GameSnapshot.readVarInt(in));
+					List<Player> players = replica.players();
+					event = (GameObserver o) -> o.onRoundEnd(replica.status(), replica.board(), players, winner);
+					break;
+				}
+				case GAME_END: {
+					Player winner = player(GameSnapshot.readVarInt(in));
+					event = (GameObserver o) -> o.onGameEnd(winner);
+					break;
+				}
+				case SPECIFIC_ERROR: {
+					Player player = player(GameSnapshot.readVarInt(in));
+					Exception e = readError(in);
+					event = (GameObserver o) -> o.onSpecificError(player, e);
+					break;
+				}
+				case GAME_ERROR: {
+					Exception e = readError(in);
+					event = (GameObserver o) -> o.onError(e);
+					break;
+				}
+				case RESYNC: {		// Shown as a new turn, so the views redraw everything
+					state = GameSnapshot.read(in);
+					state.restore(replica);
+					event = (GameObserver o) -> o.onTurnChange(replica.status(), replica.board());
+					break;
+				}
+				default: {
+					throw new StreamCorruptedException("Unknown event: " + frame[0]);
+				}
+			}
+			sequence = seq;
+			for(GameObserver o : observers) {
+				event.accept(o);
+			}
+		}
+	
+	}
+	
+	// Prevent instantiation
+	private GameProtocol() {}
+
+}
@@ -0,0 +1,74 @@
+package controller.net;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import logic.Game;
+import logic.gamemodes.GameMode;
+
+/**
+ * Registry of the tables hosted by a server.
+ */
+public class Lobby {
+	
+	private final Map<Integer, Table> tables;
+	private final AtomicInteger nextId;
+	private volatile long aiThinkTime;
+	
+	public Lobby() {
+		this.tables = new ConcurrentHashMap<>();
+		this.nextId = new AtomicInteger(1);
+		this.aiThinkTime = Game.DEFAULT_AI_THINK_TIME;
+	}
+	
+	/**
+	 * Changes the time the AI players wait before each movement, in the tables created from now on.
+	 * @param aiThinkTime The time, in milliseconds. It can be zero.
+	 */
+	public void setAIThinkTime(long aiThinkTime) {
+		this.aiThinkTime = aiThinkTime;
+	}
+	
+	/**
+	 * Creates a new table, waiting for players.
+	 * @param name The name of the table.
+	 * @param gameMode The game mode, already initialized.
+	 * @param humanSeats The amount of human players needed to start.
+	 * @param aiPlayers The amount of AI players.
+	 * @return The new table.
+	 */
+	public Table create(String name, GameMode gameMode, int humanSeats, int aiPlayers) {
+		Table table = new Table(this, nextId.getAndIncrement(), name, gameMode, humanSeats, aiPlayers, aiThinkTime);
+		tables.put(table.id(), table);
+		return table;
+	}
+	
+	/**
+	 * Finds a table.
+	 * @param id The identifier of the table.
+	 * @return The table, or null if it doesn't exist.
+	 */
+	public Table find(int id) {
+		return tables.get(id);
+	}
+	
+	void remove(Table table) {
+		tables.remove(table.id());
+	}
+	
+	public List<TableInfo> list() {
+		List<TableInfo> result = new ArrayList<>();
+		for(Table t : tables.values()) {
+			result.add(t.info());
+		}
+		return result;
+	}
+	
+	public int size() {
+		return tables.size();
+	}
+	
+}
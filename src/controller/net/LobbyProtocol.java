@@ -0,0 +1,100 @@
+package controller.net;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+
+/**
+ * Messages exchanged between a table server and its clients.
+ * Every message travels in a frame: a 4 byte length followed by that many bytes,
+ * the first of which identifies the kind of message.
+ * Game events and movements are encoded by GameProtocol.
+ */
+public class LobbyProtocol {
+	
+	public static final int MAX_FRAME_SIZE = 1 << 20;
+	
+	// Client to server
+	public static final byte HELLO = 1;
+	public static final byte LIST_TABLES = 2;
+	public static final byte CREATE_TABLE = 3;
+	public static final byte JOIN_TABLE = 4;
+	public static final byte MOVEMENT = 5;
+	
+	// Server to client
+	public static final byte TABLE_LIST = 64;
+	public static final byte TABLE_CREATED = 65;
+	public static final byte JOINED = 66;
+	public static final byte ERROR = 67;
+	public static final byte WELCOME = 69;
+	
+	/**
+	 * Writes the body of a message.
+	 */
+	@FunctionalInterface
+	public interface MessageWriter {
+		public void write(DataOutputStream out) throws IOException;
+	}
+	
+	/**
+	 * Builds a complete frame, including the length prefix.
+	 * @param type The kind of message.
+	 * @param body The writer of the body.
+	 * @return The bytes of the frame.
+	 */
+	public static byte[] frame(byte type, MessageWriter body) {
+		try {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			DataOutputStream out = new DataOutputStream(bytes);
+			out.writeInt(0);
+			out.writeByte(type);
+			body.write(out);
+			out.flush();
+			byte[] result = bytes.toByteArray();
+			int length = result.length - Integer.BYTES;
+			result[0] = (byte) (length >>> 24);
+			result[1] = (byte) (length >>> 16);
+			result[2] = (byte) (length >>> 8);
+			result[3] = (byte) length;
+			return result;
+		}
+		catch(IOException ioe) {		// Writing to memory never fails
+			throw new IllegalStateException(ioe);
+		}
+	}
+	
+	/**
+	 * Builds a frame without body.
+	 */
+	public static byte[] frame(byte type) {
+		return frame(type, (DataOutputStream out) -> {});
+	}
+	
+	/**
+	 * Opens the body of a received frame (without the length prefix), positioned after its type.
+	 */
+	public static DataInputStream body(byte[] frame) {
+		return new DataInputStream(new ByteArrayInputStream(frame, 1, frame.length - 1));
+	}
+	
+	/**
+	 * Reads a whole frame from a blocking stream.
+	 * @return The frame, without the length prefix.
+	 */
+	public static byte[] readFrame(DataInputStream in) throws IOException {
+		int length = in.readInt();
+		if(length <= 0 || length > MAX_FRAME_SIZE) {
+			throw new StreamCorruptedException("Invalid frame length: " + length);
+		}
+		byte[] frame = new byte[length];
+		in.readFully(frame);
+		return frame;
+	}
+	
+	// Prevent instantiation
+	private LobbyProtocol() {}
+	
+}
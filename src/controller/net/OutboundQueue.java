@@ -0,0 +1,103 @@
+package controller.net;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.function.Supplier;
+
+/**
+ * Bounded queue of the frames waiting to be sent to a client, filled by the game and emptied by a writer.
+ * A slow client can't make it grow without limit: once it's full, the pending frames are dropped
+ * and replaced with a single frame that carries the whole state of the game (a resync).
+ * If no resync is available, the queue is marked as overflowed and the client should be disconnected.
+ */
+public class OutboundQueue {
+	
+	public static final int DEFAULT_CAPACITY = 64;
+	
+	private final Queue<byte[]> frames;
+	private final int capacity;
+	private final Supplier<byte[]> resync;
+	private boolean draining;
+	private boolean overflowed;
+	private int resyncs;
+	
+	/**
+	 * @param capacity The maximum amount of pending frames.
+	 * @param resync Builds the frame that replaces the pending ones. It may return null.
+	 */
+	public OutboundQueue(int capacity, Supplier<byte[]> resync) {
+		this.frames = new ArrayDeque<>();
+		this.capacity = capacity;
+		this.resync = resync;
+		this.draining = false;
+		this.overflowed = false;
+		this.resyncs = 0;
+	}
+	
+	/**
+	 * Queues a frame. The frame must have been encoded before the resync that may replace it.
+	 * @param frame The frame, including its length prefix.
+	 * @return True if the writer is idle and has to be woken up to send the frame.
+	 */
+	public synchronized boolean offer(byte[] frame) {
+		if(overflowed) {
+			return false;
+		}
+		if(frames.size() >= capacity) {
+			byte[] state = resync.get();
+			frames.clear();
+			if(state == null) {
+				overflowed = true;
+				return false;
+			}
+			frames.add(state);
+			resyncs++;
+			if(!GameProtocol.isEvent(frame[Integer.BYTES])) {		// Only events are covered by the resync
+				frames.add(frame);
+			}
+		}
+		else {
+			frames.add(frame);
+		}
+		if(!draining) {
+			draining = true;
+			return true;
+		}
+		return false;
+	}
+	
+	/**
+	 * Takes the next frame to send. Once there are none left, the writer becomes idle.
+	 * @return The frame, or null if the queue is empty.
+	 */
+	public synchronized byte[] take() {
+		byte[] frame = frames.poll();
+		if(frame == null) {
+			draining = false;
+		}
+		return frame;
+	}
+	
+	/**
+	 * Drops the pending frames, for example when they are sent in another way after a reconnection.
+	 */
+	public synchronized void clear() {
+		frames.clear();
+		overflowed = false;
+	}
+	
+	/**
+	 * Tells if the queue overflowed without a resync, so the client can't catch up.
+	 */
+	public synchronized boolean overflowed() {
+		return overflowed;
+	}
+	
+	/**
+	 * Returns how many times the pending frames have been replaced with a resync.
+	 */
+	public synchronized int resyncs() {
+		return resyncs;
+	}
+
+}
@@ -0,0 +1,169 @@
+package controller.net;
+
+import java.net.ConnectException;
+import java.util.ArrayList;
+import java.util.List;
+
+import logic.Game;
+import logic.GameObserver;
+import logic.GameStatus;
+import logic.Player;
+import logic.Snake;
+import logic.gamemodes.GameMode;
+import logic.movements.Movement;
+
+/**
+ * A game hosted by the table server, together with the connections of its players.
+ * The game runs in actor mode, so many tables can share the game scheduler.
+ */
+public class Table implements GameObserver {
+	
+	private static final long serialVersionUID = 1L;
+	
+	private final transient Lobby lobby;
+	private final int id;
+	private final String name;
+	private final GameMode gameMode;
+	private final int humanSeats;
+	private final int aiPlayers;
+	private final transient List<Connection> players;
+	private final transient Game game;
+	private final transient GameProtocol.EventEncoder encoder;
+	private boolean started;
+	
+	/**
+	 * Sends an encoded event to every player. It's encoded only once, whatever the amount of players.
+	 */
+	private void notifyPlayers(byte[] frame) {
+		for(Connection c : players()) {
+			c.send(frame);
+		}
+	}
+	
+	private synchronized List<Connection> players() {
+		return new ArrayList<>(players);
+	}
+	
+	Table(Lobby lobby, int id, String name, GameMode gameMode, int humanSeats, int aiPlayers, long aiThinkTime) {
+		this.lobby = lobby;
+		this.id = id;
+		this.name = name;
+		this.gameMode = gameMode;
+		this.humanSeats = humanSeats;
+		this.aiPlayers = aiPlayers;
+		this.players = new ArrayList<>();
+		this.game = new Game();
+		this.encoder = new GameProtocol.EventEncoder(game, this::notifyPlayers);
+		this.started = false;
+		game.enableActorMode();
+		game.setAIThinkTime(aiThinkTime);
+		game.addObserver(encoder);
+		game.addObserver(this);
+	}
+	
+	/**
+	 * Sits a player at the table.
+	 * @param connection The connection of the player.
+	 * @return An error message, or null if the player could sit.
+	 */
+	synchronized String seat(Connection connection) {
+		if(started || players.size() == humanSeats) {
+			return "The game has already started!";
+		}
+		for(Connection c : players) {
+			if(c.name().equals(connection.name())) {
+				return "There is already a player called " + connection.name() + " at the table!";
+			}
+		}
+		players.add(connection);
+		connection.setTable(this);
+		return null;
+	}
+	
+	/**
+	 * Starts the game if all the human seats are taken.
+	 */
+	synchronized void startIfFull() {
+		if(!started && players.size() == humanSeats) {
+			started = true;
+			List<String> names = new ArrayList<>();
+			for(Connection c : players) {
+				names.add(c.name());
+			}
+			game.reset(names, aiPlayers, gameMode);
+		}
+	}
+	
+	/**
+	 * Removes a player from the table. If the game had started, it is aborted.
+	 * The rest of the players are told outside the lock, as the encoder calls players() while holding its own.
+	 * @param connection The connection of the player.
+	 */
+	void leave(Connection connection) {
+		boolean aborted;
+		synchronized(this) {
+			players.remove(connection);
+			connection.setTable(null);
+			aborted = started;
+			if(!started && players.isEmpty()) {
+				lobby.remove(this);
+			}
+		}
+		if(aborted) {
+			encoder.onError(new ConnectException("One of the players has left the game!"));
+			game.abort();
+		}
+	}
+	
+	/**
+	 * Executes a movement sent by one of the players.
+	 */
+	void execute(Connection connection, Movement movement) {
+		game.execute(movement, connection.name());
+	}
+	
+	/**
+	 * Gets a frame with the whole state of the game, for players that can't keep up with the events.
+	 */
+	byte[] resyncFrame() {
+		return encoder.resyncFrame();
+	}
+	
+	public int id() {
+		return id;
+	}
+	
+	public synchronized TableInfo info() {
+		return new TableInfo(id, name, gameMode.toString(), players.size(), humanSeats, aiPlayers, started);
+	}
+	
+	@Override
+	public void onTurnChange(GameStatus status, Snake board) {}
+	
+	@Override
+	public void onPieceAdded(GameStatus status, Snake board) {}
+	
+	@Override
+	public void onRoundStart(GameStatus status, Snake board) {}
+	
+	@Override
+	public void onRoundEnd(GameStatus status, Snake board, List<Player> players, Player winner) {}
+	
+	@Override
+	public void onGameEnd(Player winner) {
+		synchronized(this) {
+			for(Connection c : players) {
+				c.setTable(null);		// Back to the lobby
+			}
+			players.clear();
+		}
+		lobby.remove(this);
+	}
+	
+	@Override
+	public void onSpecificError(Player player, Exception e) {}
+	
+	@Override
+	public void onError(Exception e) {}
+	
+}
@@ -0,0 +1,244 @@
+package controller.net;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import controller.Controller;
+import logic.GameObserver;
+import logic.GameStatus;
+import logic.Player;
+import logic.Snake;
+import logic.movements.Movement;
+
+/**
+ * Client of a table server. Before playing, it can browse the lobby and create or join tables.
+ */
+public class TableClient implements Controller, GameObserver {
+	
+	private static final long serialVersionUID = 1L;
+	
+	private static final int CONNECTION_TIMEOUT = 5000;
+	
+	private class ClientListener extends Thread {
+		
+		private volatile boolean listening;
+		
+		public ClientListener() {
+			super("Table client listener");
+			this.listening = true;
+		}
+		
+		@Override
+		public void run() {
+			while(listening) {
+				try {
+					byte[] frame = LobbyProtocol.readFrame(input);
+					if(GameProtocol.isEvent(frame[0])) {
+						decoder.dispatch(frame, observers);
+					}
+					else if(frame[0] == LobbyProtocol.ERROR) {
+						String message = LobbyProtocol.body(frame).readUTF();
+						observers.forEach((GameObserver o) -> o.onError(new Exception(message)));
+					}
+				}
+				catch(Exception e) {
+					if(listening) {
+						Exception error = e instanceof IOException ? new ConnectException("Disconnected from server!") : e;
+						observers.forEach((GameObserver o) -> o.onError(error));
+						observers.forEach((GameObserver o) -> o.onGameEnd(null));
+					}
+				}
+			}
+		}
+		
+	}
+	
+	private Socket socket;
+	private DataInputStream input;
+	private DataOutputStream output;
+	private String name;
+	private ClientListener listener;
+	private List<GameObserver> observers;
+	private GameProtocol.EventDecoder decoder;
+	
+	private void stop() {
+		listener.listening = false;
+		try {
+			socket.close();
+		}
+		catch(IOException ioe) {
+			for(GameObserver o : observers) {
+				o.onError(ioe);
+			}
+		}
+	}
+	
+	private synchronized void send(byte[] frame) throws IOException {
+		output.write(frame);
+		output.flush();
+	}
+	
+	/**
+	 * Sends a request to the server and waits for its answer. It can only be used before listening.
+	 * @param frame The request.
+	 * @param expectedType The kind of message that answers the request.
+	 * @return The answer.
+	 * @throws IOException If there is a connection problem, or the server answers with an error.
+	 */
+	private byte[] request(byte[] frame, byte expectedType) throws IOException {
+		send(frame);
+		byte[] answer = LobbyProtocol.readFrame(input);
+		if(answer[0] == LobbyProtocol.ERROR) {
+			throw new IOException(LobbyProtocol.body(answer).readUTF());
+		}
+		else if(answer[0] != expectedType) {
+			throw new IOException("Unexpected answer from the server!");
+		}
+		return answer;
+	}
+	
+	/**
+	 * Connects to a table server and enters the lobby.
+	 * @param name The name of the player. It must be unique in the server.
+	 * @param ip The address of the server.
+	 * @param port The port of the server.
+	 */
+	public TableClient(String name, InetAddress ip, int port) throws IOException {
+		this.socket = new Socket();
+		socket.connect(new InetSocketAddress(ip, port), CONNECTION_TIMEOUT);
+		socket.setTcpNoDelay(true);
+		this.input = new DataInputStream(socket.getInputStream());
+		this.output = new DataOutputStream(socket.getOutputStream());
+		this.name = name;
+		this.listener = new ClientListener();
+		this.observers = new CopyOnWriteArrayList<>();
+		this.decoder = new GameProtocol.EventDecoder();
+		try {
+			request(GameProtocol.helloFrame(name), LobbyProtocol.WELCOME);
+		}
+		catch(IOException ioe) {
+			socket.close();
+			throw ioe;
+		}
+		addObserver(this);
+	}
+	
+	/**
+	 * Asks the server for the tables in the lobby.
+	 * @return The tables.
+	 */
+	public List<TableInfo> listTables() throws IOException {
+		DataInputStream in = LobbyProtocol.body(request(LobbyProtocol.frame(LobbyProtocol.LIST_TABLES), LobbyProtocol.TABLE_LIST));
+		int count = in.readInt();
+		List<TableInfo> tables = new ArrayList<>(count);
+		for(int i = 0; i < count; i++) {
+			tables.add(new TableInfo(in.readInt(), in.readUTF(), in.readUTF(), in.readByte(), in.readByte(), in.readByte(), in.readBoolean()));
+		}
+		return tables;
+	}
+	
+	/**
+	 * Creates a new table in the server. The client doesn't sit at it automatically.
+	 * @param tableName The name of the table.
+	 * @param gameModeIndex The index of the game mode in Game.MODES.
+	 * @param parameters The parameters of the game mode.
+	 * @param humanSeats The amount of human players.
+	 * @param aiPlayers The amount of AI players.
+	 * @return The identifier of the new table.
+	 */
+	public int createTable(String tableName, int gameModeIndex, String[] parameters, int humanSeats, int aiPlayers) throws IOException {
+		byte[] answer = request(LobbyProtocol.frame(LobbyProtocol.CREATE_TABLE, (DataOutputStream out) -> {
+			out.writeUTF(tableName);
+			out.writeByte(gameModeIndex);
+			out.writeByte(parameters.length);
+			for(String p : parameters) {
+				out.writeUTF(p);
+			}
+			out.writeByte(humanSeats);
+			out.writeByte(aiPlayers);
+		}), LobbyProtocol.TABLE_CREATED);
+		return LobbyProtocol.body(answer).readInt();
+	}
+	
+	/**
+	 * Sits at a table. The game starts once all its seats are taken, so startListening should be called right after.
+	 * @param id The identifier of the table.
+	 */
+	public void joinTable(int id) throws IOException {
+		request(LobbyProtocol.frame(LobbyProtocol.JOIN_TABLE, (DataOutputStream out) -> out.writeInt(id)), LobbyProtocol.JOINED);
+	}
+	
+	public void startListening() {
+		listener.listening = true;
+		listener.start();
+	}
+	
+	@Override
+	public void execute(Movement movement) {
+		try {
+			send(GameProtocol.movementFrame(movement));
+		}
+		catch(IOException ioe) {
+			observers.forEach((GameObserver o) -> o.onError(ioe));
+		}
+	}
+
+	@Override
+	public void addObserver(GameObserver o) {
+		observers.add(o);
+	}
+
+	@Override
+	public void removeObserver(GameObserver o) {
+		observers.remove(o);
+	}
+	
+	@Override
+	public boolean usesThisController(Player player) {
+		return player.name().equals(name);
+	}
+	
+	@Override
+	public void loadGame(File file) {}
+
+	@Override
+	public void saveGame(File file) {}
+
+	@Override
+	public boolean allowsLoadingAndSaving() {
+		return false;
+	}
+
+	@Override
+	public void onTurnChange(GameStatus status, Snake board) {}
+
+	@Override
+	public void onPieceAdded(GameStatus status, Snake board) {}
+
+	@Override
+	public void onRoundStart(GameStatus status, Snake board) {}
+
+	@Override
+	public void onRoundEnd(GameStatus status, Snake board, List<Player> players, Player winner) {}
+
+	@Override
+	public void onGameEnd(Player winner) {
+		stop();
+	}
+
+	@Override
+	public void onSpecificError(Player player, Exception e) {}
+
+	@Override
+	public void onError(Exception e) {}
+	
+}
@@ -0,0 +1,59 @@
+package controller.net;
+
+/**
+ * Description of a table, as shown in the lobby.
+ */
+public class TableInfo {
+	
+	private final int id;
+	private final String name;
+	private final String gameMode;
+	private final int seatedPlayers;
+	private final int humanSeats;
+	private final int aiPlayers;
+	private final boolean started;
+	
+	public TableInfo(int id, String name, String gameMode, int seatedPlayers, int humanSeats, int aiPlayers, boolean started) {
+		this.id = id;
+		this.name = name;
+		this.gameMode = gameMode;
+		this.seatedPlayers = seatedPlayers;
+		this.humanSeats = humanSeats;
+		this.aiPlayers = aiPlayers;
+		this.started = started;
+	}
+	
+	public int id() {
+		return id;
+	}
+	
+	public String name() {
+		return name;
+	}
+	
+	public String gameMode() {
+		return gameMode;
+	}
+	
+	public int seatedPlayers() {
+		return seatedPlayers;
+	}
+	
+	public int humanSeats() {
+		return humanSeats;
+	}
+	
+	public int aiPlayers() {
+		return aiPlayers;
+	}
+	
+	public boolean started() {
+		return started;
+	}
+	
+	@Override
+	public String toString() {
+		return "#" + id + " " + name + " (" + gameMode + ", " + seatedPlayers + "/" + humanSeats + " players, " + aiPlayers + " AI" + (started ? ", started" : "") + ")";
+	}
+	
+}
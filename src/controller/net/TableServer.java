@@ -0,0 +1,306 @@
+package controller.net;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.net.InetSocketAddress;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import logic.Game;
+import logic.gamemodes.GameMode;
+import logic.movements.Movement;
+
+/**
+ * Server that hosts many tables at the same time in a single process.
+ * All the sockets are handled by one selector thread with non-blocking I/O, and the games run in actor mode
+ * on the shared game scheduler, so no thread is dedicated to a single player or table.
+ * Clients start in the lobby, where they can list, create and join tables.
+ */
+public class TableServer implements Runnable {
+	
+	public static final int DEFAULT_PORT = 7001;
+	public static final int MAX_PLAYERS = 4;
+	
+	private final Selector selector;
+	private final ServerSocketChannel serverChannel;
+	private final Lobby lobby;
+	private final Queue<Connection> pendingWrites;
+	private final Set<String> names;
+	private volatile boolean running;
+	
+	private void accept() throws IOException {
+		SocketChannel channel = serverChannel.accept();
+		if(channel != null) {
+			channel.configureBlocking(false);
+			channel.socket().setTcpNoDelay(true);
+			SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+			key.attach(new Connection(this, channel, key));
+		}
+	}
+	
+	private void read(Connection connection) {
+		try {
+			List<byte[]> frames = connection.read();
+			for(byte[] frame : frames) {
+				handle(connection, frame);
+			}
+		}
+		catch(IOException ioe) {
+			disconnect(connection);
+		}
+		catch(RuntimeException e) {		// A malformed frame only costs its sender the connection
+			System.err.println("Dropping " + connection.name() + " after a bad frame: " + e);
+			disconnect(connection);
+		}
+	}
+	
+	private void write(Connection connection) {
+		try {
+			if(connection.flush() && connection.key().isValid()) {
+				connection.key().interestOps(SelectionKey.OP_READ);
+			}
+		}
+		catch(IOException ioe) {
+			disconnect(connection);
+		}
+	}
+	
+	private void disconnect(Connection connection) {
+		if(!connection.closed()) {
+			connection.close();
+			Table table = connection.table();
+			if(table != null) {
+				table.leave(connection);
+			}
+			if(connection.name() != null) {
+				names.remove(connection.name());
+			}
+		}
+	}
+	
+	private void sendError(Connection connection, String message) {
+		connection.send(LobbyProtocol.frame(LobbyProtocol.ERROR, (DataOutputStream out) -> out.writeUTF(message)));
+	}
+	
+	/**
+	 * Processes a frame received from a client.
+	 */
+	private void handle(Connection connection, byte[] frame) throws IOException {
+		DataInputStream in = LobbyProtocol.body(frame);
+		if(connection.name() == null && frame[0] != LobbyProtocol.HELLO) {
+			throw new IOException("The client didn't introduce itself!");
+		}
+		switch(frame[0]) {
+			case LobbyProtocol.HELLO: {
+				String name;
+				try {
+					name = GameProtocol.readHello(frame);
+				}
+				catch(StreamCorruptedException sce) {
+					sendError(connection, sce.getMessage());
+					break;
+				}
+				if(connection.name() != null || name.isBlank() || !names.add(name)) {
+					sendError(connection, "The name " + name + " is not available!");
+				}
+				else {
+					connection.setName(name);
+					connection.send(LobbyProtocol.frame(LobbyProtocol.WELCOME));
+				}
+				break;
+			}
+			case LobbyProtocol.LIST_TABLES: {
+				List<TableInfo> tables = lobby.list();
+				connection.send(LobbyProtocol.frame(LobbyProtocol.TABLE_LIST, (DataOutputStream out) -> {
+					out.writeInt(tables.size());
+					for(TableInfo t : tables) {
+						out.writeInt(t.id());
+						out.writeUTF(t.name());
+						out.writeUTF(t.gameMode());
+						out.writeByte(t.seatedPlayers());
+						out.writeByte(t.humanSeats());
+						out.writeByte(t.aiPlayers());
+						out.writeBoolean(t.started());
+					}
+				}));
+				break;
+			}
+			case LobbyProtocol.CREATE_TABLE: {
+				String name = in.readUTF();
+				int modeIndex = in.readByte();
+				int parameterCount = in.readByte();
+				try {
+					if(modeIndex < 0 || modeIndex >= Game.MODES.length) {
+						throw new IllegalArgumentException("Unknown game mode!");
+					}
+					GameMode gameMode = Game.MODES[modeIndex].newInstance();
+					int maxParameters = gameMode.parameters().length;
+					if(parameterCount < 1 || parameterCount > maxParameters) {
+						throw new IllegalArgumentException("The game mode takes between 1 and " + maxParameters + " parameters!");
+					}
+					String[] parameters = new String[parameterCount];
+					for(int i = 0; i < parameters.length; i++) {
+						parameters[i] = in.readUTF();
+					}
+					int humanSeats = in.readByte();
+					int aiPlayers = in.readByte();
+					if(humanSeats < 1 || aiPlayers < 0 || humanSeats + aiPlayers < 2 || humanSeats + aiPlayers > MAX_PLAYERS) {
+						throw new IllegalArgumentException("A table must have between 2 and " + MAX_PLAYERS + " players, at least one of them human!");
+					}
+					gameMode.initialize(parameters);
+					Table table = lobby.create(name, gameMode, humanSeats, aiPlayers);
+					connection.send(LobbyProtocol.frame(LobbyProtocol.TABLE_CREATED, (DataOutputStream out) -> out.writeInt(table.id())));
+				}
+				catch(IllegalArgumentException iae) {
+					sendError(connection, iae.getMessage());
+				}
+				break;
+			}
+			case LobbyProtocol.JOIN_TABLE: {
+				Table table = lobby.find(in.readInt());
+				String error = null;
+				if(connection.table() != null) {
+					error = "You are already sitting at a table!";
+				}
+				else if(table == null) {
+					error = "The table doesn't exist!";
+				}
+				else {
+					error = table.seat(connection);
+				}
+				if(error != null) {
+					sendError(connection, error);
+				}
+				else {
+					// Confirm before starting, so the client is listening when the first events arrive
+					connection.send(LobbyProtocol.frame(LobbyProtocol.JOINED, (DataOutputStream out) -> out.writeInt(table.id())));
+					table.startIfFull();
+				}
+				break;
+			}
+			case LobbyProtocol.MOVEMENT: {
+				Table table = connection.table();
+				Movement movement = GameProtocol.readMovement(frame);
+				if(table != null) {
+					table.execute(connection, movement);
+				}
+				break;
+			}
+			default: {
+				throw new IOException("Unknown message type: " + frame[0]);
+			}
+		}
+	}
+	
+	/**
+	 * Creates a new table server, listening on all interfaces.
+	 * @param port The port.
+	 */
+	public TableServer(int port) throws IOException {
+		this.selector = Selector.open();
+		this.serverChannel = ServerSocketChannel.open();
+		serverChannel.configureBlocking(false);
+		serverChannel.bind(new InetSocketAddress(port));
+		serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+		this.lobby = new Lobby();
+		this.pendingWrites = new ConcurrentLinkedQueue<>();
+		this.names = new HashSet<>();
+		this.running = false;
+	}
+	
+	/**
+	 * Starts serving in a new thread.
+	 */
+	public void start() {
+		running = true;
+		new Thread(this, "Table server").start();
+	}
+	
+	/**
+	 * Stops the server, closing all the connections.
+	 */
+	public void stop() {
+		running = false;
+		selector.wakeup();
+	}
+	
+	/**
+	 * Asks the selector thread to write the pending frames of a connection. It can be called from any thread.
+	 */
+	void requestWrite(Connection connection) {
+		pendingWrites.add(connection);
+		selector.wakeup();
+	}
+	
+	public Lobby lobby() {
+		return lobby;
+	}
+	
+	public int port() {
+		return serverChannel.socket().getLocalPort();
+	}
+	
+	@Override
+	public void run() {
+		running = true;
+		try {
+			while(running) {
+				selector.select();
+				Connection pending;
+				while((pending = pendingWrites.poll()) != null) {
+					if(!pending.closed() && pending.key().isValid()) {
+						pending.key().interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+					}
+				}
+				Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+				while(keys.hasNext()) {
+					SelectionKey key = keys.next();
+					keys.remove();
+					if(!key.isValid()) {
+						continue;
+					}
+					if(key.isAcceptable()) {
+						accept();
+					}
+					else {
+						Connection connection = (Connection) key.attachment();
+						if(key.isReadable()) {
+							read(connection);
+						}
+						if(key.isValid() && key.isWritable()) {
+							write(connection);
+						}
+					}
+				}
+			}
+		}
+		catch(IOException | ClosedSelectorException e) {
+			System.err.println("The table server has stopped: " + e.getMessage());
+		}
+		finally {
+			for(SelectionKey key : new ArrayList<>(selector.keys())) {
+				if(key.attachment() instanceof Connection) {
+					disconnect((Connection) key.attachment());
+				}
+			}
+			try {
+				serverChannel.close();
+				selector.close();
+			}
+			catch(IOException ioe) {}
+		}
+	}
+	
+}
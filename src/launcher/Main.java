@@ -1,5 +1,9 @@
 package launcher;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import javax.swing.SwingUtilities;
@@ -12,25 +16,79 @@ import org.apache.commons.cli.Option;
 import org.apache.commons.cli.Options;
 
 import controller.LocalController;
+import controller.loadtest.LoadTest;
+import controller.loadtest.LoadTestResult;
+import controller.net.TableServer;
+import logic.AIStrategy;
+import logic.EndgameSolvingStrategy;
+import logic.ExpectiminimaxPlacementStrategy;
+import logic.Game;
+import logic.MonteCarloPlacementStrategy;
+import logic.Piece;
+import logic.RandomUtilities;
 import logic.gamemodes.ClassicGameMode;
+import logic.gamemodes.GameMode;
+import logic.gamemodes.ScoreGameMode;
+import logic.search.Tablebase;
+import logic.search.TablebaseGenerator;
+import logic.simulation.StrategyStatistics;
+import logic.simulation.Tournament;
 import view.ConsoleView;
 import view.MainMenu;
 import view.ViewMode;
 
 public class Main {
 	
+	private static final int TOURNAMENT_ROUND_COUNT = 5;
+	private static final int TOURNAMENT_WINNING_SCORE = 100;
+	private static final int LOAD_TEST_ROUND_COUNT = 3;
+	private static final int DEFAULT_LOAD_TEST_BOTS = 4;
+	
 	private static CommandLineParser commandLineParser;
 	private static Options commandLineOptions;
 	private static ViewMode viewMode;
 	private static boolean showHelp;
+	private static Integer tournamentGameCount;
+	private static Integer serverPort;
+	private static Integer loadTestGameCount;
+	private static int loadTestBotCount;
+	private static File journalFile;
+	private static Long seed;
+	private static Integer searchIterations;
+	private static Integer searchDepth;
+	private static File tablebaseFile;
+	private static boolean solveEndgames;
+	private static Long aiThinkTime;
 	
 	static {
 		commandLineParser = new DefaultParser();
 		commandLineOptions = new Options();
 		commandLineOptions.addOption(Option.builder("h").longOpt("help").desc("Show information about command line arguments.").hasArg(false).build());
 		commandLineOptions.addOption(Option.builder("m").longOpt("mode").desc("Choose view mode (command line or GUI).").hasArg().argName("console/GUI").build());
+		commandLineOptions.addOption(Option.builder("t").longOpt("tournament").desc("Play the given amount of games between all AI strategies, without any view, and print the statistics.").hasArg().argName("games").build());
+		commandLineOptions.addOption(Option.builder("l").longOpt("load-test").desc("Play the given amount of simultaneous network games on this machine, between bots, and print the latency of the server.").hasArg().argName("games").build());
+		commandLineOptions.addOption(Option.builder("b").longOpt("bots").desc("Amount of bots in each game of the load test (default: " + DEFAULT_LOAD_TEST_BOTS + ").").hasArg().argName("bots").build());
+		commandLineOptions.addOption(Option.builder("r").longOpt("seed").desc("Seed of the tournament, to play exactly the same games again (default: a random one, which is printed).").hasArg().argName("seed").build());
+		commandLineOptions.addOption(Option.builder("i").longOpt("search").desc("Add the Monte Carlo search strategy to the tournament, with the given amount of iterations per movement.").hasArg().argName("iterations").build());
+		commandLineOptions.addOption(Option.builder("d").longOpt("depth").desc("Add the expectiminimax search strategy to the tournament, with the given maximum depth, in turns.").hasArg().argName("turns").build());
+		commandLineOptions.addOption(Option.builder("e").longOpt("endgame").desc("Let every strategy of the tournament solve two-player endgames exactly once the deck is empty.").hasArg(false).build());
+		commandLineOptions.addOption(Option.builder("k").longOpt("tablebase").desc("Probe the endgame tablebase in the given file when solving two-player endgames, generating it first if the file doesn't exist.").hasArg().argName("file").build());
+		commandLineOptions.addOption(Option.builder("a").longOpt("think-time").desc("Time the AI players of the console game or the table server wait before each movement (default: " + Game.DEFAULT_AI_THINK_TIME + ").").hasArg().argName("milliseconds").build());
+		commandLineOptions.addOption(Option.builder("j").longOpt("journal").desc("Record the console game in a journal file, or resume the game recorded there if it already exists.").hasArg().argName("file").build());
+		commandLineOptions.addOption(Option.builder("s").longOpt("server").desc("Host a multi-table server with a lobby, without any view (default port: " + TableServer.DEFAULT_PORT + ").").hasArg().optionalArg(true).argName("port").build());
 		viewMode = null;
 		showHelp = false;
+		tournamentGameCount = null;
+		serverPort = null;
+		loadTestGameCount = null;
+		loadTestBotCount = DEFAULT_LOAD_TEST_BOTS;
+		journalFile = null;
+		seed = null;
+		searchIterations = null;
+		searchDepth = null;
+		tablebaseFile = null;
+		solveEndgames = false;
+		aiThinkTime = null;
 	}
 	
 	private static void showHelp() {
@@ -45,6 +103,40 @@ public class Main {
 				showHelp = true;
 			}
 			viewMode = ViewMode.fromString(commandLine.getOptionValue('m', "GUI"));
+			if(commandLine.hasOption('t')) {
+				tournamentGameCount = Integer.parseInt(commandLine.getOptionValue('t'));
+			}
+			if(commandLine.hasOption('r')) {
+				seed = Long.parseLong(commandLine.getOptionValue('r'));
+			}
+			if(commandLine.hasOption('i')) {
+				searchIterations = Integer.parseInt(commandLine.getOptionValue('i'));
+			}
+			if(commandLine.hasOption('d')) {
+				searchDepth = Integer.parseInt(commandLine.getOptionValue('d'));
+			}
+			if(commandLine.hasOption('e')) {
+				solveEndgames = true;
+			}
+			if(commandLine.hasOption('k')) {
+				tablebaseFile = new File(commandLine.getOptionValue('k'));
+			}
+			if(commandLine.hasOption('l')) {
+				loadTestGameCount = Integer.parseInt(commandLine.getOptionValue('l'));
+				loadTestBotCount = Integer.parseInt(commandLine.getOptionValue('b', String.valueOf(DEFAULT_LOAD_TEST_BOTS)));
+			}
+			if(commandLine.hasOption('a')) {
+				aiThinkTime = Long.parseLong(commandLine.getOptionValue('a'));
+				if(aiThinkTime < 0) {
+					throw new IllegalArgumentException("The think time can't be negative: " + aiThinkTime);
+				}
+			}
+			if(commandLine.hasOption('j')) {
+				journalFile = new File(commandLine.getOptionValue('j'));
+			}
+			if(commandLine.hasOption('s')) {
+				serverPort = Integer.parseInt(commandLine.getOptionValue('s', String.valueOf(TableServer.DEFAULT_PORT)));
+			}
 		}
 		catch(Exception e) {
 			System.err.println(e.getMessage());
@@ -54,15 +146,116 @@ public class Main {
 	private static void startConsoleMode() {
 		LocalController localController = new LocalController();
 		ConsoleView consoleView = new ConsoleView(localController);
+		if(aiThinkTime != null) {
+			localController.setAIThinkTime(aiThinkTime);
+		}
+		try {
+			if(journalFile != null && journalFile.exists()) {
+				localController.resumeJournal(journalFile);
+				return;
+			}
+			if(journalFile != null) {
+				localController.startJournal(journalFile);
+			}
+		}
+		catch(IOException ioe) {
+			System.err.println(ioe.getMessage());
+			return;
+		}
 		List<String> playerNames = consoleView.askHumanPlayers();
 		localController.reset(playerNames, consoleView.askAiPlayers(playerNames.size()), new ClassicGameMode(consoleView.askRoundCount()));
 	}
 	
+	private static void startTournament() {
+		GameMode[] modes = {
+			new ClassicGameMode(TOURNAMENT_ROUND_COUNT),
+			new ScoreGameMode(TOURNAMENT_WINNING_SCORE)
+		};
+		List<AIStrategy> strategies = new ArrayList<>(Arrays.asList(Tournament.STRATEGIES));
+		if(searchIterations != null) {
+			strategies.add(new MonteCarloPlacementStrategy(0, searchIterations, 1));		// The games already run in parallel
+		}
+		if(searchDepth != null) {
+			strategies.add(new ExpectiminimaxPlacementStrategy(0, searchDepth, ExpectiminimaxPlacementStrategy.DEFAULT_SAMPLES));
+		}
+		if(solveEndgames) {
+			strategies.replaceAll(EndgameSolvingStrategy::new);
+		}
+		long tournamentSeed = seed != null ? seed : RandomUtilities.newSeed();
+		for(GameMode mode : modes) {
+			long start = System.nanoTime();
+			Tournament tournament = new Tournament(strategies, mode, tournamentGameCount, tournamentSeed);
+			List<StrategyStatistics> statistics = tournament.run();
+			long elapsed = (System.nanoTime() - start) / 1000000;
+			System.out.println(mode + " (" + tournamentGameCount + " games, seed " + tournamentSeed + ", " + elapsed + " ms):");
+			for(StrategyStatistics s : statistics) {
+				System.out.println("  " + s);
+			}
+			System.out.println();
+		}
+	}
+	
+	private static void startLoadTest() {
+		try {
+			LoadTest loadTest = new LoadTest(loadTestGameCount, loadTestBotCount, new ClassicGameMode(LOAD_TEST_ROUND_COUNT));
+			LoadTestResult result = loadTest.run();
+			System.out.println("Load test (" + loadTestGameCount + " games of " + loadTestBotCount + " bots, " + result.elapsed() + " ms):");
+			System.out.println(result);
+		}
+		catch(InterruptedException ie) {
+			System.err.println("The load test has been interrupted!");
+		}
+	}
+	
+	private static void startServer() {
+		try {
+			TableServer server = new TableServer(serverPort);
+			if(aiThinkTime != null) {
+				server.lobby().setAIThinkTime(aiThinkTime);
+			}
+			System.out.println("Table server listening on port " + server.port());
+			server.run();
+		}
+		catch(Exception e) {
+			System.err.println(e.getMessage());
+		}
+	}
+	
+	/**
+	 * Opens the tablebase file, generating it first if it doesn't exist, and installs it for the endgame solver.
+	 */
+	private static void loadTablebase() {
+		try {
+			if(!tablebaseFile.exists()) {
+				System.out.println("Generating the endgame tablebase...");
+				long start = System.nanoTime();
+				TablebaseGenerator.generate(Piece.DEFAULT_HIGHEST_VALUE, Tablebase.DEFAULT_MAX_HAND_SIZE).write(tablebaseFile);
+				System.out.println("Endgame tablebase written to " + tablebaseFile + " in " + (System.nanoTime() - start) / 1000000 + " ms.");
+			}
+			Tablebase.install(Tablebase.open(tablebaseFile));
+		}
+		catch(IOException ioe) {
+			System.err.println("The endgame tablebase can't be loaded: " + ioe.getMessage());
+		}
+	}
+	
 	public static void main(String[] args) {
 		parseArguments(args);
+		if(tablebaseFile != null && !showHelp) {
+			loadTablebase();
+		}
 		if(showHelp) {
 			showHelp();
 		}
+		else if(tournamentGameCount != null) {
+			startTournament();
+		}
+		else if(loadTestGameCount != null) {
+			startLoadTest();
+		}
+		else if(serverPort != null) {
+			startServer();
+		}
 		else {
 			if(viewMode == ViewMode.CONSOLE) {
 				startConsoleMode();
@@ -2,14 +2,13 @@ package logic;
 
 import org.json.JSONException;
 import org.json.JSONObject;
+import logic.gamemodes.GameMode;
 import logic.movements.Movement;
 
 public class AIPlayer extends Player {
 	
 	private static final long serialVersionUID = 1L;
 
-	private static final int MOVEMENT_DELAY = 1000;
-	
 	private static int AICount = 0;
 	
 	private static String generateName() {
@@ -20,6 +19,14 @@ public class AIPlayer extends Player {
 		AICount = 0;
 	}
 	
+	/**
+	 * Picks a random strategy out of all that are viable for a game mode.
+	 */
+	private static AIStrategy randomStrategy(Game game, GameMode gameMode) {
+		AIStrategy[] viableStrategies = gameMode.viableStrategies();
+		return viableStrategies[game.random().nextInt(viableStrategies.length)];
+	}
+	
 	private transient AIStrategy strategy;
 	
 	/**
@@ -28,11 +35,29 @@ public class AIPlayer extends Player {
 	 */
 	public AIPlayer(Game game) {
 		super(game, generateName());
-		AIStrategy[] viableStrategies = game.status().gameMode().viableStrategies();
-		this.strategy = viableStrategies[RandomUtilities.getRandomInteger(viableStrategies.length)];
+		this.strategy = randomStrategy(game, game.status().gameMode());
+		AICount++;
+	}
+	
+	/**
+	 * Constructs a new AI player that always plays with the given strategy.
+	 * @param game The game.
+	 * @param strategy The strategy.
+	 */
+	public AIPlayer(Game game, AIStrategy strategy) {
+		super(game, generateName());
+		this.strategy = strategy;
 		AICount++;
 	}
 	
+	/**
+	 * Restores an AI player with a given state and a random strategy, viable for the given game mode.
+	 */
+	AIPlayer(Game game, String name, int roundScore, int globalScore, Hand hand, GameMode gameMode) {
+		super(game, name, roundScore, globalScore, hand);
+		this.strategy = randomStrategy(game, gameMode);
+	}
+	
 	public AIPlayer(Player.Memento memento) {
 		super(memento);
 		AICount++;
@@ -40,18 +65,23 @@ public class AIPlayer extends Player {
 	
 	/**
 	 * Generates a movement according to the state of the game and the chosen strategy.
+	 * It doesn't wait: the "thinking" delay is scheduled by the game.
 	 */
 	@Override
 	public Movement decideMovement() {
-		try {
-			Thread.sleep(MOVEMENT_DELAY);		// Let the AI "think"
-		}
-		catch(InterruptedException ie) {
-			// This should never happen
-		}
 		return strategy.decideMovement(game, hand);
 	}
 	
+	@Override
+	public long decisionTime() {
+		return strategy.decisionTime();
+	}
+	
+	@Override
+	public boolean usesBeliefs() {
+		return strategy.usesBeliefs();
+	}
+	
 	@Override
 	public boolean dependsOnUser() {
 		return false;
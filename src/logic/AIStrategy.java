@@ -4,4 +4,26 @@ import logic.movements.Movement;
 
 public interface AIStrategy {
 	public Movement decideMovement(Game game, Hand hand);
+	
+	/**
+	 * Returns how long decideMovement may take, in milliseconds, which the game takes out of the AI think time.
+	 */
+	public default long decisionTime() {
+		return 0;
+	}
+	
+	/**
+	 * Tells if decideMovement asks the game for the beliefs of the player (see Game.beliefs),
+	 * so the game starts tracking them at the beginning of every round.
+	 */
+	public default boolean usesBeliefs() {
+		return false;
+	}
+	
+	/**
+	 * Returns the name shown in the statistics of the strategy.
+	 */
+	public default String name() {
+		return getClass().getSimpleName();
+	}
 }
@@ -0,0 +1,249 @@
+package logic;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * What a player can tell about the hands of the others from what happens in the round, without looking at them:
+ * the pieces that player hasn't seen, the ones each of the others could still hold, and the values they are void in.
+ * A player who passes holds no piece matching either end. If the deck was empty, they can't get any more pieces,
+ * so they are ruled out for the rest of the round; otherwise they drew one, which could be any unseen piece.
+ * It's kept up to date from what each event of its game tells, in constant time, and only rebuilt from the state of the game
+ * whenever the events it missed (a restored game, for instance) make them disagree.
+ */
+public class BeliefTracker implements GameObserver {
+	
+	private static final long serialVersionUID = 1L;
+	
+	private final transient Game game;
+	private final transient Player owner;
+	private transient List<Player> players;
+	private transient Snake board;			// The board the state was built for
+	private int[] unseenCounts;				// Copies of each piece the owner hasn't seen, by code
+	private long[] unseen;					// Pieces with unseen copies
+	private long[][] possible;				// Pieces each seat could hold
+	private int[][] drawsSinceVoid;			// By seat and value: pieces drawn since passing on it, or -1
+	private int[] draws;					// Pieces drawn by each seat this round
+	private transient Player mover;			// Player in turn at the last turn change
+	private boolean placed;					// If the mover has placed a piece
+	private int boardSize;
+	private int deckSize;
+	
+	/**
+	 * Creates the tracker of a player, from the current state of the game.
+	 * It doesn't register itself; Game.beliefs should be used instead.
+	 */
+	BeliefTracker(Game game, Player owner) {
+		this.game = game;
+		this.owner = owner;
+		resync();
+	}
+	
+	/**
+	 * Rebuilds the whole state from the game. Only stalled players can be told to be void,
+	 * so it's exact at the start of a round, when Game registers the trackers, and loses the passes before otherwise.
+	 */
+	private void resync() {
+		this.players = new ArrayList<>(game.players());
+		this.board = game.board();
+		int highestValue = game.status().gameMode().highestValue();
+		this.unseenCounts = new int[Piece.CODE_COUNT];
+		Arrays.fill(unseenCounts, 0, Piece.codeCount(highestValue), game.deck().deckCount());
+		for(Piece p : owner.hand().pieces()) {
+			unseenCounts[p.code()]--;
+		}
+		for(Piece p : board.pieces()) {
+			unseenCounts[p.code()]--;
+		}
+		this.unseen = PieceMask.create();
+		for(int code = 0; code < unseenCounts.length; code++) {
+			if(unseenCounts[code] > 0) {
+				PieceMask.add(unseen, code);
+			}
+		}
+		this.possible = new long[players.size()][];
+		this.drawsSinceVoid = new int[players.size()][Piece.VALUE_COUNT];
+		this.draws = new int[players.size()];
+		for(int seat = 0; seat < players.size(); seat++) {
+			possible[seat] = unseen.clone();
+			Arrays.fill(drawsSinceVoid[seat], -1);
+		}
+		for(Player p : game.status().stalledPlayers()) {
+			int seat = players.indexOf(p);
+			if(seat >= 0) {
+				passed(seat, false);
+			}
+		}
+		this.mover = game.status().currentPlayer();
+		this.placed = false;
+		this.boardSize = board.size();
+		this.deckSize = game.deck().size();
+	}
+	
+	/**
+	 * Rebuilds the state if the game has changed in a way the events didn't tell.
+	 */
+	private void sync() {
+		if(game.board() != board || board.size() != boardSize || game.deck().size() != deckSize || !game.players().equals(players)) {
+			resync();
+		}
+	}
+	
+	private int seat(Player player) {
+		sync();
+		int seat = players.indexOf(player);
+		if(seat < 0) {
+			throw new IllegalArgumentException("The player isn't part of the game");
+		}
+		return seat;
+	}
+	
+	/**
+	 * Takes note that the owner has seen a copy of a piece, placed by someone else or drawn.
+	 */
+	private void seen(int code) {
+		if(unseenCounts[code] > 0 && --unseenCounts[code] == 0) {
+			PieceMask.remove(unseen, code);
+			for(long[] mask : possible) {
+				PieceMask.remove(mask, code);
+			}
+		}
+	}
+	
+	/**
+	 * Takes note that a seat has passed, holding no piece that matches the ends of the board.
+	 * @param drew If a piece was drawn from the deck; otherwise, the seat is stalled.
+	 */
+	private void passed(int seat, boolean drew) {
+		if(!board.isEmpty()) {
+			int left = board.end(Snake.Side.LEFT);
+			int right = board.end(Snake.Side.RIGHT);
+			drawsSinceVoid[seat][left - Piece.LOWER_BOUND] = 0;
+			drawsSinceVoid[seat][right - Piece.LOWER_BOUND] = 0;
+			if(!drew) {
+				long[] leftMask = Piece.valueMask(left);
+				long[] rightMask = Piece.valueMask(right);
+				for(int w = 0; w < PieceMask.WORDS; w++) {
+					possible[seat][w] &= ~(leftMask[w] | rightMask[w]);
+				}
+			}
+		}
+		if(drew) {
+			// The piece drawn could be any unseen one, even one matching the ends
+			draws[seat]++;
+			for(int value = 0; value < Piece.VALUE_COUNT; value++) {
+				if(drawsSinceVoid[seat][value] >= 0) {
+					drawsSinceVoid[seat][value]++;
+				}
+			}
+			System.arraycopy(unseen, 0, possible[seat], 0, PieceMask.WORDS);
+		}
+	}
+	
+	/**
+	 * Returns the pieces another player could hold. It must not be modified.
+	 */
+	public long[] possiblePieces(Player player) {
+		return possible[seat(player)];
+	}
+	
+	/**
+	 * Returns the pieces the owner hasn't seen: in the other hands or in the deck. It must not be modified.
+	 */
+	public long[] unseenPieces() {
+		sync();
+		return unseen;
+	}
+	
+	/**
+	 * Counts the pieces another player could hold that have any of two values.
+	 */
+	public int countPossibleWithValues(Player player, int a, int b) {
+		long[] mask = possible[seat(player)];
+		long[] aMask = Piece.valueMask(a);
+		long[] bMask = Piece.valueMask(b);
+		int count = 0;
+		for(int w = 0; w < PieceMask.WORDS; w++) {
+			count += Long.bitCount(mask[w] & (aMask[w] | bMask[w]));
+		}
+		return count;
+	}
+	
+	/**
+	 * Tells if another player surely holds no piece with a certain value: they passed on it and haven't drawn since.
+	 */
+	public boolean isVoid(Player player, int value) {
+		return drawsSinceVoid(player, value) == 0;
+	}
+	
+	/**
+	 * Returns how many pieces another player has drawn since passing on a certain value,
+	 * or -1 if they haven't passed on it this round.
+	 */
+	public int drawsSinceVoid(Player player, int value) {
+		return drawsSinceVoid[seat(player)][value - Piece.LOWER_BOUND];
+	}
+	
+	/**
+	 * Returns how many pieces a player has drawn this round.
+	 */
+	public int draws(Player player) {
+		return draws[seat(player)];
+	}
+	
+	/**
+	 * Returns the player whose knowledge this is.
+	 */
+	public Player owner() {
+		return owner;
+	}
+	
+	@Override
+	public void onTurnChange(GameStatus status, Snake board) {
+		Player current = status.currentPlayer();
+		if(!placed && mover != null && mover != current && this.board == board) {
+			int seat = players.indexOf(mover);
+			boolean drew = !status.stalledPlayers().contains(mover);		// Passing with an empty deck stalls
+			if(drew) {
+				deckSize--;
+				if(mover == owner) {
+					List<Piece> pieces = owner.hand().pieces();
+					seen(pieces.get(pieces.size() - 1).code());
+				}
+			}
+			if(seat >= 0) {
+				passed(seat, drew);
+			}
+		}
+		mover = current;
+		placed = false;
+	}
+	
+	@Override
+	public void onPieceAdded(GameStatus status, Snake board) {
+		if(mover != owner) {
+			seen(board.lastAdded());
+		}
+		placed = true;
+		boardSize++;
+	}
+	
+	@Override
+	public void onRoundStart(GameStatus status, Snake board) {
+		resync();
+	}
+	
+	@Override
+	public void onRoundEnd(GameStatus status, Snake board, List<Player> players, Player winner) {}
+	
+	@Override
+	public void onGameEnd(Player winner) {}
+	
+	@Override
+	public void onSpecificError(Player player, Exception e) {}
+	
+	@Override
+	public void onError(Exception e) {}
+
+}
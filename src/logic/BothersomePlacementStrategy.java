@@ -10,8 +10,8 @@ public class BothersomePlacementStrategy implements AIStrategy {
 
 	@Override
 	public Movement decideMovement(Game game, Hand hand) {
-		List<Integer> playablePieces = game.board().playablePieces(hand);
-		if(playablePieces.isEmpty()) {
+		long[] playablePieces = game.board().playableMask(hand);
+		if(PieceMask.isEmpty(playablePieces)) {
 			return new PassMovement();
 		}
 		
@@ -22,14 +22,21 @@ public class BothersomePlacementStrategy implements AIStrategy {
 			}
 		}
 		
+		// Only what the next player could hold is counted, as their hand can't be seen
+		BeliefTracker beliefs = game.beliefs(game.status().currentPlayer());
 		int index = -1;
 		int min = Integer.MAX_VALUE;
 		Snake.Side side = null;
-		for(Integer i : playablePieces) {
-			Piece p = hand.pieces().get(i);
+		List<Piece> pieces = hand.pieces();
+		for(int i = 0; i < pieces.size(); i++) {
+			Piece p = pieces.get(i);
+			if(!PieceMask.contains(playablePieces, p.code())) {
+				continue;
+			}
 			for(Snake.Side s : Snake.Side.values()) {
-				if(game.board().couldAdd(p, hand)) {
-					Integer l = game.board().piecesAddableAfter(p, s, nextPlayer.hand());
+				int ends = game.board().endsAfter(p.code(), s);
+				if(ends != Snake.NO_ENDS) {
+					int l = beliefs.countPossibleWithValues(nextPlayer, Snake.leftEnd(ends), Snake.rightEnd(ends));
 					if(l < min) {
 						min = l;
 						index = i;
@@ -42,4 +49,9 @@ public class BothersomePlacementStrategy implements AIStrategy {
 		return new PlaceMovement(index, side);
 	}
 	
+	@Override
+	public boolean usesBeliefs() {
+		return true;
+	}
+	
 }
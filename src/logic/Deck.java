@@ -3,6 +3,7 @@ package logic;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.SplittableRandom;
 import java.util.Stack;
 
 import org.json.JSONArray;
@@ -13,6 +14,7 @@ public class Deck {
 
     private Stack<Piece> pieces;
     private int deckCount;
+    private int hiddenPieces;		// Only used by copies of a deck whose pieces are unknown
 
     /**
      * Draws a domino piece from the deck
@@ -24,17 +26,20 @@ public class Deck {
     
     /**
      * Clears the deck and adds all the corresponding pieces to it.
+     * @param highestValue The highest value of the set, such as 6 for double-six or 12 for double-twelve.
+     * @param random The random source that shuffles them.
      */
-    public void initialize() {
+    public void initialize(int highestValue, SplittableRandom random) {
     	pieces.clear();
+    	pieces.ensureCapacity(deckCount * Piece.codeCount(highestValue));
     	for(int m = 0; m < deckCount; m++) {
-            for(int i = Piece.LOWER_BOUND; i <= Piece.UPPER_BOUND; i++) {
-                for(int j = i; j <= Piece.UPPER_BOUND; j++) {
+            for(int i = Piece.LOWER_BOUND; i <= highestValue; i++) {
+                for(int j = i; j <= highestValue; j++) {
                     pieces.add(new Piece(i,j));
                 }
             }
         }
-        Collections.shuffle(pieces);
+        RandomUtilities.shuffle(pieces, random);
     }
     
     /**
@@ -44,6 +49,17 @@ public class Deck {
     public Deck(int numberDecks) {
         this.pieces = new Stack<>();
         this.deckCount = numberDecks;
+        this.hiddenPieces = 0;
+    }
+    
+    /**
+     * Creates a copy of a deck whose pieces are unknown, so only its size can be checked.
+     * @param numberDecks Number of decks.
+     * @param hiddenPieces Amount of pieces left in the deck.
+     */
+    Deck(int numberDecks, int hiddenPieces) {
+    	this(numberDecks);
+    	this.hiddenPieces = hiddenPieces;
     }
 
     public Deck() {
@@ -53,6 +69,7 @@ public class Deck {
     public Deck(Memento memento) {
     	this.pieces = new Stack<>();
         this.deckCount = memento.deckCount;
+        this.hiddenPieces = 0;
         for(Piece.Memento p: memento.mementoDeck)
         	pieces.push(new Piece(p));
     }
@@ -84,7 +101,25 @@ public class Deck {
      * @return Size of the deck of pieces
      */
     public int size() {
-        return pieces.size();
+        return pieces.size() + hiddenPieces;
+    }
+    
+    public int deckCount() {
+    	return deckCount;
+    }
+    
+    /**
+     * Returns the pieces of the deck, from the bottom to the top (the next one to be drawn).
+     */
+    List<Piece> pieces() {
+    	return Collections.unmodifiableList(pieces);
+    }
+    
+    /**
+     * Puts a piece on top of the deck. Only meant to restore a deck that has been saved.
+     */
+    void push(Piece p) {
+    	pieces.push(p);
     }
     
     public Memento createMemento() throws JSONException {
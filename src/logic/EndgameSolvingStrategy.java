@@ -0,0 +1,55 @@
+package logic;
+
+import logic.movements.Movement;
+import logic.movements.PassMovement;
+import logic.movements.PlaceMovement;
+import logic.search.EndgameSolver;
+import logic.search.Position;
+
+/**
+ * Strategy that plays the best movement once the rest of the round can be solved exactly (see Player.solveEndgame),
+ * and leaves every other decision to another strategy. Nobody gets it unless they ask for it,
+ * so the other strategies can still be measured on their own.
+ */
+public class EndgameSolvingStrategy implements AIStrategy {
+	
+	private final AIStrategy fallback;
+	
+	/**
+	 * @param fallback The strategy that decides while the round can't be solved.
+	 */
+	public EndgameSolvingStrategy(AIStrategy fallback) {
+		this.fallback = fallback;
+	}
+	
+	@Override
+	public Movement decideMovement(Game game, Hand hand) {
+		Player player = game.status().currentPlayer();
+		EndgameSolver.Result endgame = player.hand() == hand ? player.solveEndgame() : null;
+		if(endgame == null) {
+			return fallback.decideMovement(game, hand);
+		}
+		int move = endgame.move();
+		if(move == Position.PASS) {
+			return new PassMovement();
+		}
+		Snake.Side side = Position.placesOnTheRight(move) ? Snake.Side.RIGHT : Snake.Side.LEFT;
+		return new PlaceMovement(hand.indexOf(Position.code(move)), side);
+	}
+	
+	@Override
+	public long decisionTime() {
+		return fallback.decisionTime();
+	}
+	
+	@Override
+	public boolean usesBeliefs() {
+		return fallback.usesBeliefs();
+	}
+	
+	@Override
+	public String name() {
+		return fallback.name() + "+Endgame";
+	}
+
+}
@@ -0,0 +1,81 @@
+package logic;
+
+import logic.movements.Movement;
+import logic.movements.PassMovement;
+import logic.movements.PlaceMovement;
+import logic.search.Determinizer;
+import logic.search.ExpectiminimaxSearch;
+import logic.search.Position;
+import logic.search.TranspositionTable;
+
+/**
+ * Strategy that searches its movement with depth-limited expectiminimax (see ExpectiminimaxSearch),
+ * on a few positions sampled from what the player knows, where drawing from the deck is left to chance.
+ * It's tuned with the maximum depth and the time it searches: with no time limit, it always searches to the maximum depth,
+ * and makes the same decisions for the same seed of the game.
+ * Like any other search, it's never picked at random, as it holds a thread of the shared game scheduler.
+ */
+public class ExpectiminimaxPlacementStrategy implements AIStrategy {
+	
+	/**
+	 * Default time it searches, in milliseconds: half of the default AI think time.
+	 */
+	public static final long DEFAULT_SEARCH_TIME = Game.DEFAULT_AI_THINK_TIME / 2;
+	public static final int DEFAULT_MAX_DEPTH = 32;
+	public static final int MAX_DEPTH = 256;
+	public static final int DEFAULT_SAMPLES = 8;
+	
+	private static final int TABLE_BITS = 18;
+	
+	private final long searchTime;
+	private final int maxDepth;
+	private final int samples;
+	private final ThreadLocal<TranspositionTable> tables;		// The same strategy plays in many games at once
+	
+	/**
+	 * Creates a strategy that searches for DEFAULT_SEARCH_TIME, up to DEFAULT_MAX_DEPTH, on DEFAULT_SAMPLES positions.
+	 */
+	public ExpectiminimaxPlacementStrategy() {
+		this(DEFAULT_SEARCH_TIME, DEFAULT_MAX_DEPTH, DEFAULT_SAMPLES);
+	}
+	
+	/**
+	 * @param searchTime Maximum time it searches, in milliseconds, or 0 for no limit.
+	 * @param maxDepth Maximum depth, in turns, between 1 and MAX_DEPTH.
+	 * @param samples Amount of positions sampled from what the player knows.
+	 */
+	public ExpectiminimaxPlacementStrategy(long searchTime, int maxDepth, int samples) {
+		if(maxDepth < 1 || maxDepth > MAX_DEPTH) {
+			throw new IllegalArgumentException("The maximum depth must be between 1 and " + MAX_DEPTH + "!");
+		}
+		if(samples < 1) {
+			throw new IllegalArgumentException("The search needs at least one sample!");
+		}
+		this.searchTime = Math.max(searchTime, 0);
+		this.maxDepth = maxDepth;
+		this.samples = samples;
+		this.tables = ThreadLocal.withInitial(() -> new TranspositionTable(TABLE_BITS));
+	}
+	
+	@Override
+	public Movement decideMovement(Game game, Hand hand) {
+		Determinizer determinizer = new Determinizer(game, hand);
+		int move = ExpectiminimaxSearch.search(determinizer, game.random().split(), tables.get(), samples, maxDepth, searchTime).move();
+		if(move == Position.PASS) {
+			return new PassMovement();
+		}
+		Snake.Side side = Position.placesOnTheRight(move) ? Snake.Side.RIGHT : Snake.Side.LEFT;
+		return new PlaceMovement(hand.indexOf(Position.code(move)), side);
+	}
+	
+	@Override
+	public long decisionTime() {
+		return searchTime;
+	}
+	
+	@Override
+	public boolean usesBeliefs() {
+		return true;
+	}
+
+}
@@ -1,9 +1,19 @@
 package logic;
 
+import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
+import java.util.function.Consumer;
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
@@ -21,11 +31,28 @@ public class Game implements Observable<GameObserver> {
 		new ScoreGameMode()
 	};
 	
+	/**
+	 * Default time the AI players "think" before moving, in milliseconds.
+	 */
+	public static final long DEFAULT_AI_THINK_TIME = 1000;
+	
 	private Deck deck;
 	private List<Player> players;
 	private List<GameObserver> observers;
 	private GameStatus status;
 	private Snake snake;
+	private boolean automaticAI;
+	private boolean finished;
+	private long aiThinkTime;
+	private volatile int generation;				// Increased on every reset, so stale AI turns can be discarded
+	private ScheduledFuture<?> pendingAIMovement;
+	private SerialExecutor inbox;					// Only used in actor mode
+	private List<Consumer<GameObserver>> pendingEvents;
+	private MoveJournal journal;					// Null if the game isn't being recorded
+	private final long seed;
+	private SplittableRandom random;				// Restarted from the seed with every new game
+	private boolean replaying;						// While replaying a journal, the observers aren't notified
+	private Map<Player, BeliefTracker> beliefs;		// Created on demand, for the current players
 	
 	/**
 	 * Recovers the initial player based on the biggest double piece.
@@ -36,10 +63,9 @@ public class Game implements Observable<GameObserver> {
 		int index  = 0;
 		int higher = -1;
 		for(int i = 0; i < players.size(); i++){
-			Hand h = players.get(i).hand();
-			Integer biggestIndex = h.biggestDoublePiece();
-			if(biggestIndex != null && h.pieces().get(biggestIndex).getLeft() > higher) {
-				higher = h.pieces().get(biggestIndex).getLeft();
+			int biggestDouble = players.get(i).hand().biggestDoubleValue();
+			if(biggestDouble > higher) {
+				higher = biggestDouble;
 				index = i;
 			}
 		}
@@ -47,45 +73,169 @@ public class Game implements Observable<GameObserver> {
 	}
 	
 	private void generateAIMovement() {
-		Thread t = new Thread(() -> {
-			Movement AIMovement = status.currentPlayer().decideMovement();
-			if(AIMovement != null) {
-				execute(AIMovement);
+		Player player = status.currentPlayer();
+		int expectedGeneration = generation;
+		pendingAIMovement = GameScheduler.schedule(() -> submit(() -> {
+			if(expectedGeneration == generation && player == status.currentPlayer()) {
+				Movement AIMovement = player.decideMovement();
+				if(AIMovement != null) {
+					apply(AIMovement, expectedGeneration);
+				}
 			}
-		});
-		t.start();
+		}), Math.max(aiThinkTime - player.decisionTime(), 0));		// Searching strategies think while they search
+	}
+	
+	/**
+	 * Cancels the AI turn that may be waiting to be played, and invalidates it if it's already running.
+	 */
+	private void cancelPendingAIMovement() {
+		generation++;
+		if(pendingAIMovement != null) {
+			pendingAIMovement.cancel(false);
+			pendingAIMovement = null;
+		}
+	}
+	
+	private void apply(Movement movement, int expectedGeneration) {
+		if(expectedGeneration == generation) {
+			apply(movement);
+		}
+	}
+	
+	@FunctionalInterface
+	private interface JournalEntry {
+		public void write(MoveJournal journal) throws IOException;
+	}
+	
+	/**
+	 * Writes an entry to the journal, if the game is being recorded.
+	 * If it fails, the journal would have a gap, so the recording stops.
+	 */
+	private void record(JournalEntry entry) {
+		if(journal != null) {
+			try {
+				entry.write(journal);
+			}
+			catch(IOException ioe) {
+				journal = null;
+				notifyObservers((GameObserver o) -> o.onError(ioe));
+			}
+		}
+	}
+	
+	private void apply(Movement movement) {
+		try {
+			movement.execute(this, status.currentPlayer());
+			record((MoveJournal j) -> j.moved(movement));
+			update();
+			if(!finished) {
+				record((MoveJournal j) -> j.checkpoint(this));
+			}
+		}
+		catch(UnallowedMovementException ume) {
+			Player player = status.currentPlayer();
+			notifyObservers((GameObserver o) -> o.onSpecificError(player, ume));
+		}
+	}
+	
+	/**
+	 * Runs a command that changes the state of the game.
+	 * In actor mode, the command is queued and run later by the game's own logical thread,
+	 * and the observers are notified once it has completely finished.
+	 * @param command The command.
+	 */
+	private void submit(Runnable command) {
+		if(inbox == null) {
+			command.run();
+		}
+		else {
+			inbox.execute(() -> {
+				try {
+					command.run();
+				}
+				catch(RuntimeException e) {
+					notifyObservers((GameObserver o) -> o.onError(e));
+				}
+				finally {
+					flushEvents();
+				}
+			});
+		}
+	}
+	
+	/**
+	 * Delivers the events generated by the last command run in actor mode.
+	 */
+	private void flushEvents() {
+		for(int i = 0; i < pendingEvents.size(); i++) {
+			for(GameObserver o : observers) {
+				pendingEvents.get(i).accept(o);
+			}
+		}
+		pendingEvents.clear();
+	}
+	
+	/**
+	 * In actor mode, delivers the events raised so far by the command in progress,
+	 * before it moves on to another turn or round and the state they refer to is gone.
+	 */
+	private void deliverPendingEvents() {
+		if(pendingEvents != null) {
+			flushEvents();
+		}
 	}
 	
 	private void startNextTurn(boolean updateStatus) {
 		if(updateStatus) {
+			deliverPendingEvents();
 			status.nextTurn();
 		}
-		if(!status.currentPlayer().dependsOnUser()) {
+		if(automaticAI && !status.currentPlayer().dependsOnUser()) {
 			generateAIMovement();
 		}
-		for(GameObserver o : observers) {
-			o.onTurnChange(status, snake);
-		}
+		notifyObservers((GameObserver o) -> o.onTurnChange(status, snake));
 	}
 	
 	private void startRound() {
-		for(GameObserver o : observers) {
-			o.onRoundStart(status, snake);
+		for(Player p : players) {
+			if(p.usesBeliefs()) {
+				beliefs(p);			// Before any event of the round, so no pass goes unnoticed
+			}
 		}
+		notifyObservers((GameObserver o) -> o.onRoundStart(status, snake));
 		startNextTurn(false);
 	}
 	
+	/**
+	 * Starts a round that has just been dealt or loaded, writing its state to the journal first.
+	 */
+	private void startRecordedRound() {
+		record((MoveJournal j) -> j.roundStarted(this));
+		startRound();
+	}
+	
 	/**
 	 * Resets all players, intial_score and board and snake, effectively starting a new round.
 	 */
 	private void nextRound() {
+		deliverPendingEvents();
 		snake.clear();
-		deck.initialize();
+		deck.initialize(status.gameMode().highestValue(), random);
 		for(Player p : players) {
 			p.reset(status.gameMode(), deck);
 		}
 		status.nextRound(initialPlayer());
-		startRound();
+		startRecordedRound();
+	}
+	
+	/**
+	 * Marks the game as finished and notifies the observers about the final winner.
+	 */
+	private void finishGame() {
+		finished = true;
+		record((MoveJournal j) -> j.sync());
+		Player winner = status.currentWinner();
+		notifyObservers((GameObserver o) -> o.onGameEnd(winner));
 	}
 	
 	/**
@@ -94,13 +244,10 @@ public class Game implements Observable<GameObserver> {
 	 */
 	private void finishRound(Player winner) {
 		status.gameMode().updateGlobalScore(this, winner);
-		for(GameObserver o : observers) {
-			o.onRoundEnd(status, snake, players(), winner);
-		}
+		List<Player> players = players();
+		notifyObservers((GameObserver o) -> o.onRoundEnd(status, snake, players, winner));
 		if(status.checkEnd()) {
-			for(GameObserver o : observers) {
-				o.onGameEnd(status.currentWinner());
-			}
+			finishGame();
 		}
 		else {
 			nextRound();
@@ -116,9 +263,7 @@ public class Game implements Observable<GameObserver> {
 			finishRound(winner);
 		}
 		else if(status.checkEnd()) {
-			for(GameObserver o : observers) {
-				o.onGameEnd(status.currentWinner());
-			}
+			finishGame();
 		}
 		else {
 			startNextTurn(true);
@@ -133,11 +278,32 @@ public class Game implements Observable<GameObserver> {
 	 */
 	
 	public Game() {
+		this(RandomUtilities.newSeed());
+	}
+	
+	/**
+	 * Creates a new game whose deals and random decisions are always the same for the same seed,
+	 * as long as the same movements are played.
+	 * @param seed The seed of its random source.
+	 */
+	public Game(long seed) {
 		this.deck = null;
 		this.snake = null;
 		this.players = null;
-		this.observers = new LinkedList<>();
+		this.observers = new CopyOnWriteArrayList<>();
 		this.status = null;
+		this.automaticAI = true;
+		this.finished = false;
+		this.aiThinkTime = DEFAULT_AI_THINK_TIME;
+		this.generation = 0;
+		this.pendingAIMovement = null;
+		this.inbox = null;
+		this.pendingEvents = null;
+		this.journal = null;
+		this.replaying = false;
+		this.beliefs = new ConcurrentHashMap<>();
+		this.seed = seed;
+		this.random = new SplittableRandom(seed);
 	}
 	
 	public JSONObject save() throws JSONException {
@@ -154,25 +320,211 @@ public class Game implements Observable<GameObserver> {
 		return json;
 	}
 	
+	/**
+	 * Loads a saved game, either in a tree or already read.
+	 */
+	@FunctionalInterface
+	private interface Loader {
+		public void load() throws JSONException;
+	}
+	
+	/**
+	 * Restores a saved game. In actor mode, it waits until the game's thread has loaded it.
+	 * @param obj The saved state.
+	 */
 	public void reset(JSONObject obj) throws JSONException {
+		load(() -> load(obj));
+	}
+	
+	/**
+	 * Restores a saved game that has already been read, and starts the saved round.
+	 * In actor mode, it waits until the game's thread has loaded it.
+	 */
+	void reset(Deck deck, Snake snake, List<Player> players, GameStatus status) {
+		reset(deck, snake, players, status, this::startRecordedRound);
+	}
+	
+	/**
+	 * Restores a saved game that has already been read, replays some movements from there,
+	 * and goes on from the resulting position. In actor mode, it waits until the game's thread has loaded it.
+	 * @param movements The movements, played in turn order from the saved position.
+	 * @throws IllegalArgumentException If a movement can't be played.
+	 */
+	void reset(Deck deck, Snake snake, List<Player> players, GameStatus status, List<Movement> movements) {
+		reset(deck, snake, players, status, () -> replay(movements));
+	}
+	
+	private void reset(Deck deck, Snake snake, List<Player> players, GameStatus status, Runnable start) {
+		try {
+			load(() -> {
+				restore(deck, snake, players, status);
+				AIPlayer.resetAICount();
+				start.run();
+			});
+		}
+		catch(JSONException je) {		// Nothing is parsed here
+			throw new IllegalStateException(je);
+		}
+	}
+	
+	/**
+	 * Plays a movement as the update after it would, but without finishing the round or notifying anything.
+	 * @param movement The movement.
+	 * @return True if the movement ended the round or the game, so the turn hasn't changed.
+	 */
+	boolean replay(Movement movement) throws UnallowedMovementException {
+		movement.execute(this, status.currentPlayer());
+		if(status.gameMode().checkRoundWinner(this) != null || status.checkEnd()) {
+			return true;
+		}
+		status.nextTurn();
+		return false;
+	}
+	
+	/**
+	 * Plays some movements without notifying the observers, and then starts the resulting round,
+	 * or finishes it if the last movement ended it.
+	 */
+	private void replay(List<Movement> movements) {
+		boolean ended = false;
+		replaying = true;
+		try {
+			for(int i = 0; i < movements.size(); i++) {
+				if(ended) {
+					throw new IllegalArgumentException("The round had already ended before movement " + (i + 1) + "!");
+				}
+				try {
+					ended = replay(movements.get(i));
+				}
+				catch(UnallowedMovementException ume) {
+					throw new IllegalArgumentException("Movement " + (i + 1) + " can't be replayed: " + ume.getMessage(), ume);
+				}
+			}
+		}
+		finally {
+			replaying = false;
+		}
+		if(ended) {
+			update();
+		}
+		else {
+			startRound();
+		}
+	}
+	
+	private void load(Loader loader) throws JSONException {
+		if(inbox == null) {
+			loader.load();
+			return;
+		}
+		CompletableFuture<Void> loaded = new CompletableFuture<>();
+		submit(() -> {
+			try {
+				loader.load();
+				loaded.complete(null);
+			}
+			catch(JSONException | RuntimeException e) {
+				loaded.completeExceptionally(e);
+			}
+		});
+		try {
+			loaded.get();
+		}
+		catch(ExecutionException ee) {
+			if(ee.getCause() instanceof JSONException) {
+				throw (JSONException) ee.getCause();
+			}
+			throw (RuntimeException) ee.getCause();
+		}
+		catch(InterruptedException ie) {
+			Thread.currentThread().interrupt();
+		}
+	}
+	
+	/**
+	 * Reads the state of a game, for example to save it.
+	 */
+	@FunctionalInterface
+	public interface StateReader<T> {
+		public T read(Game game) throws JSONException, IOException;
+	}
+	
+	/**
+	 * Reads the state of the game between two commands, so it's never seen with a movement half applied.
+	 * In actor mode, it runs on the game's thread and waits for it, so it must not be called from that thread.
+	 * The reader should only copy the state; anything slow, such as writing a file, is better done with the copy.
+	 * @param reader What reads the state.
+	 * @return What the reader returns.
+	 */
+	public <T> T snapshot(StateReader<T> reader) throws JSONException, IOException {
+		if(inbox == null) {
+			return reader.read(this);
+		}
+		CompletableFuture<T> result = new CompletableFuture<>();
+		submit(() -> {
+			try {
+				result.complete(reader.read(this));
+			}
+			catch(JSONException | IOException | RuntimeException e) {
+				result.completeExceptionally(e);
+			}
+		});
+		try {
+			return result.get();
+		}
+		catch(ExecutionException ee) {
+			if(ee.getCause() instanceof JSONException) {
+				throw (JSONException) ee.getCause();
+			}
+			if(ee.getCause() instanceof IOException) {
+				throw (IOException) ee.getCause();
+			}
+			throw (RuntimeException) ee.getCause();
+		}
+		catch(InterruptedException ie) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for the game");
+		}
+	}
+	
+	private void load(JSONObject obj) throws JSONException {
+		cancelPendingAIMovement();
 		this.deck = new Deck(new Deck.Memento(obj.getJSONObject("deck")));
 		this.snake = new Snake(new Snake.Memento(obj.getJSONArray("snake"),this));
 		this.players = new ArrayList<>();
-		this.status = new GameStatus(new GameStatus.Memento(obj.getJSONObject("status"), this));
+		forgetBeliefs();
+		this.finished = false;
+		GameStatus saved = new GameStatus(new GameStatus.Memento(obj.getJSONObject("status"), this));
 		AIPlayer.resetAICount();
 		JSONArray playerArray = obj.getJSONArray("players");
 		for(int i = 0; i < playerArray.length();i++) {
-			Player player = playerArray.getJSONObject(i).getBoolean("human") ? new HumanPlayer(new HumanPlayer.Memento(playerArray.getJSONObject(i), this)):
-				new AIPlayer(new AIPlayer.Memento(playerArray.getJSONObject(i), this));
+			Player.Memento memento = playerArray.getJSONObject(i).getBoolean("human") ? new HumanPlayer.Memento(playerArray.getJSONObject(i), this):
+				new AIPlayer.Memento(playerArray.getJSONObject(i), this);
+			Player player = memento.isHuman() ? new HumanPlayer(memento):
+				new AIPlayer(this, memento.name, memento.scoreRound, memento.scoreGlobal, new Hand(memento.hand), saved.gameMode());
 			players.add(player);
 		}
-		startRound();
+		// The saved status has its own copies of the players, so it's linked to the loaded ones
+		List<Player> stalledPlayers = new ArrayList<>();
+		for(Player p : saved.stalledPlayers()) {
+			stalledPlayers.add(player(p.name()));
+		}
+		this.status = new GameStatus(this, saved.gameMode(), player(saved.currentPlayer().name()), stalledPlayers, saved.round(), saved.turn());
+		startRecordedRound();
 	}
 	
 	public void reset(List<String> playerNames, int AIPlayerCount, GameMode gameMode) {
+		submit(() -> start(playerNames, AIPlayerCount, gameMode));
+	}
+	
+	private void start(List<String> playerNames, int AIPlayerCount, GameMode gameMode) {
+		cancelPendingAIMovement();
+		this.random = new SplittableRandom(seed);
 		this.deck = new Deck();
 		this.snake = new Snake(this);
 		this.players = new ArrayList<>();
+		forgetBeliefs();
+		this.finished = false;
 		this.status = new GameStatus(this, gameMode);
 		for(String name : playerNames) {
 			players.add(new HumanPlayer(this, name));
@@ -184,16 +536,72 @@ public class Game implements Observable<GameObserver> {
 		nextRound();
 	}
 	
-	public void execute(Movement movement) {
-		try {
-			movement.execute(this, status.currentPlayer());
-			update();
+	/**
+	 * Starts a new game only with AI players, each one using the given strategy.
+	 * @param strategies The strategy of each player, in turn order.
+	 * @param gameMode The game mode.
+	 */
+	public void reset(List<AIStrategy> strategies, GameMode gameMode) {
+		submit(() -> start(strategies, gameMode));
+	}
+	
+	private void start(List<AIStrategy> strategies, GameMode gameMode) {
+		cancelPendingAIMovement();
+		this.random = new SplittableRandom(seed);
+		this.deck = new Deck();
+		this.snake = new Snake(this);
+		this.players = new ArrayList<>();
+		forgetBeliefs();
+		this.finished = false;
+		this.status = new GameStatus(this, gameMode);
+		AIPlayer.resetAICount();
+		for(AIStrategy strategy : strategies) {
+			players.add(new AIPlayer(this, strategy));
 		}
-		catch(UnallowedMovementException ume) {
-			for(GameObserver o : observers) {
-				o.onSpecificError(status.currentPlayer(), ume);
+		nextRound();
+	}
+	
+	public void execute(Movement movement) {
+		submit(() -> apply(movement));
+	}
+	
+	/**
+	 * Executes a movement on behalf of a certain player.
+	 * If it isn't that player's turn, the movement is rejected.
+	 * @param movement The movement.
+	 * @param playerName The name of the player that sent it.
+	 */
+	public void execute(Movement movement, String playerName) {
+		submit(() -> {
+			if(status == null || finished) {
+				return;
 			}
-		}
+			if(status.currentPlayer().name().equals(playerName)) {
+				apply(movement);
+			}
+			else {
+				for(Player p : players) {
+					if(p.name().equals(playerName)) {
+						UnallowedMovementException ume = new UnallowedMovementException("It's not your turn!");
+						notifyObservers((GameObserver o) -> o.onSpecificError(p, ume));
+					}
+				}
+			}
+		});
+	}
+	
+	/**
+	 * Stops the game before it has finished, cancelling the pending AI turns.
+	 * The observers are notified as if the game had ended without a winner.
+	 */
+	public void abort() {
+		submit(() -> {
+			cancelPendingAIMovement();
+			if(!finished) {
+				finished = true;
+				notifyObservers((GameObserver o) -> o.onGameEnd(null));
+			}
+		});
 	}
 	
 	/**
@@ -203,9 +611,149 @@ public class Game implements Observable<GameObserver> {
 		return players.size() == 2 ? 7 : 5;
 	}
 	
+	/**
+	 * Returns the seed of the random source, which reproduces the game when it's started again with it.
+	 */
+	public long seed() {
+		return seed;
+	}
+	
+	/**
+	 * Returns the random source of the game, for the deals and the decisions of its AI players.
+	 * It isn't thread safe, so it must only be used by whoever drives the game (its own thread in actor mode).
+	 * Independent sources can be obtained from it with split.
+	 */
+	public SplittableRandom random() {
+		return random;
+	}
+	
+	/**
+	 * Records the game in a journal from now on: the state at the start of every round, and every movement played.
+	 * @param journal The journal, or null to stop recording. It isn't closed by the game.
+	 */
+	public void setJournal(MoveJournal journal) {
+		submit(() -> this.journal = journal);
+	}
+	
+	/**
+	 * Enables or disables the automatic generation of movements for the AI players.
+	 * When disabled, whoever drives the game must execute the AI movements by hand.
+	 * @param automaticAI Whether the AI players should move on their own.
+	 */
+	public void setAutomaticAI(boolean automaticAI) {
+		submit(() -> this.automaticAI = automaticAI);
+	}
+	
+	/**
+	 * Replaces the whole state of the game, without notifying the observers. Only meant to restore a saved game.
+	 */
+	void restore(Deck deck, Snake snake, List<Player> players, GameStatus status) {
+		cancelPendingAIMovement();
+		this.deck = deck;
+		this.snake = snake;
+		this.players = new ArrayList<>(players);
+		forgetBeliefs();
+		this.status = status;
+		this.finished = false;
+	}
+	
+	/**
+	 * Finds the position of a game mode in MODES.
+	 * @param gameMode The game mode.
+	 * @return The index, or -1 if it's not one of the available modes.
+	 */
+	public static int modeIndex(GameMode gameMode) {
+		for(int i = 0; i < MODES.length; i++) {
+			if(MODES[i].getClass() == gameMode.getClass()) {
+				return i;
+			}
+		}
+		return -1;
+	}
+	
+	/**
+	 * Switches the game to actor mode: from then on, every movement and reset is queued in the game's inbox
+	 * and applied one at a time by a single logical thread, borrowed from the given executor.
+	 * Observers are notified in that thread, once each command has finished or is about to change the turn or round,
+	 * so they see the state the events refer to without any locking, and many games can share a small pool.
+	 * It must be called before the game starts.
+	 * @param executor The executor that runs the commands.
+	 */
+	public void enableActorMode(Executor executor) {
+		this.inbox = new SerialExecutor(executor);
+		this.pendingEvents = new ArrayList<>();
+	}
+	
+	/**
+	 * Switches the game to actor mode, using the shared game scheduler.
+	 */
+	public void enableActorMode() {
+		enableActorMode(GameScheduler.executor());
+	}
+	
+	/**
+	 * Notifies an event to all the observers.
+	 * In actor mode, the event is delivered after the command in progress, or before it changes the turn or round.
+	 * @param event The event.
+	 */
+	void notifyObservers(Consumer<GameObserver> event) {
+		if(replaying) {
+			return;
+		}
+		if(pendingEvents == null) {
+			for(GameObserver o : observers) {
+				event.accept(o);
+			}
+		}
+		else {
+			pendingEvents.add(event);
+		}
+	}
+	
+	/**
+	 * Changes the time the AI players wait before each movement.
+	 * @param aiThinkTime The time, in milliseconds. It can be zero.
+	 */
+	public void setAIThinkTime(long aiThinkTime) {
+		submit(() -> this.aiThinkTime = aiThinkTime);
+	}
+	
+	/**
+	 * Checks if the game has already ended.
+	 * @return The result of the check.
+	 */
+	public boolean finished() {
+		return finished;
+	}
+	
 	public GameStatus status() {
 		return status;
 	}
+	
+	/**
+	 * Returns what a player can tell about the hands of the others.
+	 * It's created on the first call, or when a round starts if the player uses it (see Player.usesBeliefs),
+	 * and only then does it see every event of the round. It must be called from the game's thread.
+	 * @param player The player.
+	 * @return The tracker of the player, the same one every time.
+	 */
+	public BeliefTracker beliefs(Player player) {
+		return beliefs.computeIfAbsent(player, (Player p) -> {
+			BeliefTracker tracker = new BeliefTracker(this, p);
+			addObserver(tracker);
+			return tracker;
+		});
+	}
+	
+	/**
+	 * Drops the trackers of the players of the previous game.
+	 */
+	private void forgetBeliefs() {
+		for(BeliefTracker tracker : beliefs.values()) {
+			removeObserver(tracker);
+		}
+		beliefs.clear();
+	}
 
 	public List<Player> players() {
 		return Collections.unmodifiableList(players);
@@ -233,12 +781,42 @@ public class Game implements Observable<GameObserver> {
 		observers.remove(o);
 	}
 
-	public MementoGameMode initialise(JSONObject json) throws JSONException {   //TODO Como dijo de hacer la lista en game 
-		return new ClassicGameMode.Memento(json);                               //aquí para que inicie parecido a factoria
-	}                                                                           //FIXME ahora mismo esta mal implementado,
-	    																		//debe hacer uso de intialise de cada modo de juego
-	public GameMode initialise(MementoGameMode mode) throws JSONException {     //Si se ve conveniente se puede mover a GameStatus
-		return new ClassicGameMode(mode);                              
-	}   
+	public MementoGameMode initialise(JSONObject json) throws JSONException {
+		return initialiseGameMode(json).createMemento();
+	}
+	
+	public GameMode initialise(MementoGameMode mode) throws JSONException {
+		return initialiseGameMode(mode.getState());
+	}
+	
+	/**
+	 * Restores a saved game mode, whichever it is.
+	 * @param json The saved state of the game mode.
+	 * @return The game mode.
+	 * @throws JSONException If the game mode is unknown.
+	 */
+	public static GameMode initialiseGameMode(JSONObject json) throws JSONException {
+		GameMode gameMode = ClassicGameMode.initialiseGameMode(json);
+		if(gameMode == null) {
+			gameMode = ScoreGameMode.initialiseGameMode(json);
+		}
+		if(gameMode == null) {
+			throw new JSONException("Unknown game mode: " + json.opt("mode"));
+		}
+		return gameMode;
+	}
+	
+	/**
+	 * Finds a player by name.
+	 * @return The player, or null if there is none with that name.
+	 */
+	Player player(String name) {
+		for(Player p : players) {
+			if(p.name().equals(name)) {
+				return p;
+			}
+		}
+		return null;
+	}
 	
 }
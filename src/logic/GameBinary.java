@@ -0,0 +1,99 @@
+package logic;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StreamCorruptedException;
+import java.util.Arrays;
+
+import logic.gamemodes.GameMode;
+
+/**
+ * Saves and loads games in a compact binary format, a fraction of the size of the JSON one:
+ * a magic header and a version, followed by a GameSnapshot of the whole game, deck included,
+ * where integers and pieces are variable length quantities: a piece takes a single byte up to the double-nine set.
+ */
+public class GameBinary {
+	
+	public static final String EXTENSION = "domino";
+	public static final int VERSION = 2;
+	private static final byte[] MAGIC = {'D', 'O', 'M', 'S'};
+	
+	/**
+	 * Writes a game. The output is flushed, but not closed.
+	 * The parameters of its game mode must be valid for a new game, as they are checked again when it's loaded.
+	 * @param game The game. It must have been started.
+	 * @param output The output.
+	 */
+	public static void write(Game game, OutputStream output) throws IOException {
+		write(snapshot(game), output);
+	}
+	
+	/**
+	 * Copies what write saves of a game, so it can be written later, or from another thread.
+	 * @param game The game. It must have been started.
+	 * @return The snapshot.
+	 * @throws IOException If the game can't be saved in this format.
+	 */
+	public static GameSnapshot snapshot(Game game) throws IOException {
+		GameMode gameMode = game.status().gameMode();
+		try {
+			gameMode.newInstance().initialize(gameMode.parameterValues());		// Or it couldn't be loaded
+		}
+		catch(IllegalArgumentException iae) {
+			throw new IOException("The game can't be saved in the binary format: " + iae.getMessage());
+		}
+		return GameSnapshot.of(game, true);
+	}
+	
+	/**
+	 * Writes a game copied by snapshot. The output is flushed, but not closed.
+	 * @param snapshot The snapshot.
+	 * @param output The output.
+	 */
+	public static void write(GameSnapshot snapshot, OutputStream output) throws IOException {
+		DataOutputStream out = new DataOutputStream(output);
+		out.write(MAGIC);
+		GameSnapshot.writeVarInt(out, VERSION);
+		snapshot.write(out);
+		out.flush();
+	}
+	
+	/**
+	 * Reads a game written by write, and loads it into a game, starting the saved round.
+	 * In actor mode, it waits until the game's thread has loaded it.
+	 * @param input The input.
+	 * @param game The game.
+	 */
+	public static void read(InputStream input, Game game) throws IOException {
+		DataInputStream in = new DataInputStream(input);
+		byte[] magic = new byte[MAGIC.length];
+		in.readFully(magic);
+		if(!Arrays.equals(magic, MAGIC)) {
+			throw new StreamCorruptedException("Not a saved game");
+		}
+		int version = GameSnapshot.readVarInt(in);
+		if(version != VERSION) {
+			throw new StreamCorruptedException("Unsupported saved game version: " + version);
+		}
+		GameSnapshot.read(in).load(game);
+	}
+	
+	/**
+	 * Tells if a stream starts with the header of the binary format, without consuming it.
+	 * @param in The input. It must support mark and reset.
+	 */
+	public static boolean isBinary(InputStream in) throws IOException {
+		byte[] header = new byte[MAGIC.length];
+		in.mark(header.length);
+		int read = in.readNBytes(header, 0, header.length);
+		in.reset();
+		return read == header.length && Arrays.equals(header, MAGIC);
+	}
+	
+	// Prevent instantiation
+	private GameBinary() {}
+
+}
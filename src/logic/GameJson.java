@@ -0,0 +1,351 @@
+package logic;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+import org.json.JSONWriter;
+
+import logic.gamemodes.GameMode;
+
+/**
+ * Saves and loads games in the same JSON format as the mementos, but in a single pass:
+ * the live objects are written straight to the output, and read straight from the input,
+ * without building the whole document in memory.
+ * The keys of an object can come in any order, as in any JSON document.
+ */
+public class GameJson {
+	
+	private static final String PLAYERS = "players";
+	private static final String DECK = "deck";
+	private static final String SNAKE = "snake";
+	private static final String STATUS = "status";
+	private static final String DECK_PIECES = "deck";
+	private static final String DECK_COUNT = "count";
+	private static final String NAME = "name";
+	private static final String ROUND_SCORE = "score round";
+	private static final String GLOBAL_SCORE = "score global";
+	private static final String HAND = "hand";
+	private static final String HUMAN = "human";
+	private static final String LEFT = "left";
+	private static final String RIGHT = "right";
+	private static final String GAME_MODE = "game mode";
+	private static final String CURRENT_PLAYER = "current player";
+	private static final String STALLED_PLAYERS = "stalled players";
+	private static final String ROUND = "round";
+	private static final String TURN = "turn";
+	
+	/**
+	 * A player as it was read. Players can only be created once the game mode is known,
+	 * and it may come after them.
+	 */
+	private static class SavedPlayer {
+		private String name;
+		private boolean human;
+		private int roundScore;
+		private int globalScore;
+		private Hand hand = new Hand();
+	}
+	
+	private static void writePiece(JSONWriter out, Piece p) throws JSONException {
+		out.object().key(LEFT).value(p.getLeft()).key(RIGHT).value(p.getRight()).endObject();
+	}
+	
+	private static void writePieces(JSONWriter out, List<Piece> pieces) throws JSONException {
+		out.array();
+		for(Piece p : pieces) {
+			writePiece(out, p);
+		}
+		out.endArray();
+	}
+	
+	private static void writePlayer(JSONWriter out, Player player) throws JSONException {
+		out.object();
+		out.key(NAME).value(player.name());
+		out.key(ROUND_SCORE).value(player.roundScore());
+		out.key(GLOBAL_SCORE).value(player.globalScore());
+		out.key(HAND);
+		writePieces(out, player.hand().pieces());
+		out.key(HUMAN).value(player.dependsOnUser());
+		out.endObject();
+	}
+	
+	/**
+	 * Writes a game. The output is flushed, but not closed.
+	 * @param game The game. It must have been started.
+	 * @param writer The output.
+	 */
+	public static void write(Game game, Writer writer) throws JSONException, IOException {
+		JSONWriter out = new JSONWriter(writer);
+		out.object();
+		
+		out.key(PLAYERS).array();
+		for(Player p : game.players()) {
+			writePlayer(out, p);
+		}
+		out.endArray();
+		
+		out.key(DECK).object();
+		out.key(DECK_PIECES);
+		writePieces(out, game.deck().pieces());
+		out.key(DECK_COUNT).value(game.deck().deckCount());
+		out.endObject();
+		
+		out.key(SNAKE);
+		writePieces(out, game.board().pieces());
+		
+		GameStatus status = game.status();
+		out.key(STATUS).object();
+		out.key(GAME_MODE).value(status.gameMode().createMemento().getState());
+		out.key(CURRENT_PLAYER);
+		writePlayer(out, status.currentPlayer());
+		out.key(STALLED_PLAYERS).array();
+		for(Player p : status.stalledPlayers()) {
+			writePlayer(out, p);
+		}
+		out.endArray();
+		out.key(ROUND).value(status.round());
+		out.key(TURN).value(status.turn());
+		out.endObject();
+		
+		out.endObject();
+		writer.flush();
+	}
+	
+	private static void expect(JSONTokener in, char c) throws JSONException {
+		if(in.nextClean() != c) {
+			throw in.syntaxError("Expected '" + c + "'");
+		}
+	}
+	
+	/**
+	 * Reads the next key of an object, after its opening brace or a previous value.
+	 * @return The key, or null if the object has ended.
+	 */
+	private static String nextKey(JSONTokener in) throws JSONException {
+		char c = in.nextClean();
+		if(c == ',') {
+			c = in.nextClean();
+		}
+		if(c == '}') {
+			return null;
+		}
+		if(c != '"' && c != '\'') {
+			throw in.syntaxError("Expected a key");
+		}
+		String key = in.nextString(c);
+		expect(in, ':');
+		return key;
+	}
+	
+	/**
+	 * Checks if an array has more elements, after its opening bracket or a previous element.
+	 */
+	private static boolean nextElement(JSONTokener in) throws JSONException {
+		char c = in.nextClean();
+		if(c == ',') {
+			c = in.nextClean();
+		}
+		if(c == ']') {
+			return false;
+		}
+		in.back();
+		return true;
+	}
+	
+	private static int readInt(JSONTokener in) throws JSONException {
+		Object value = in.nextValue();
+		if(!(value instanceof Number)) {
+			throw in.syntaxError("Expected a number");
+		}
+		return ((Number) value).intValue();
+	}
+	
+	private static boolean readBoolean(JSONTokener in) throws JSONException {
+		Object value = in.nextValue();
+		if(!(value instanceof Boolean)) {
+			throw in.syntaxError("Expected true or false");
+		}
+		return (Boolean) value;
+	}
+	
+	private static String readString(JSONTokener in) throws JSONException {
+		Object value = in.nextValue();
+		if(!(value instanceof String)) {
+			throw in.syntaxError("Expected a string");
+		}
+		return (String) value;
+	}
+	
+	private static Piece readPiece(JSONTokener in) throws JSONException {
+		int left = -1;
+		int right = -1;
+		expect(in, '{');
+		String key;
+		while((key = nextKey(in)) != null) {
+			switch(key) {
+				case LEFT: left = readInt(in); break;
+				case RIGHT: right = readInt(in); break;
+				default: in.nextValue();
+			}
+		}
+		if(left < Piece.LOWER_BOUND || left > Piece.UPPER_BOUND || right < Piece.LOWER_BOUND || right > Piece.UPPER_BOUND) {
+			throw in.syntaxError("Invalid piece");
+		}
+		return new Piece(left, right);
+	}
+	
+	private static SavedPlayer readPlayer(JSONTokener in) throws JSONException {
+		SavedPlayer player = new SavedPlayer();
+		expect(in, '{');
+		String key;
+		while((key = nextKey(in)) != null) {
+			switch(key) {
+				case NAME: player.name = readString(in); break;
+				case HUMAN: player.human = readBoolean(in); break;
+				case ROUND_SCORE: player.roundScore = readInt(in); break;
+				case GLOBAL_SCORE: player.globalScore = readInt(in); break;
+				case HAND: {
+					expect(in, '[');
+					while(nextElement(in)) {
+						player.hand.receive(readPiece(in));
+					}
+					break;
+				}
+				default: in.nextValue();
+			}
+		}
+		if(player.name == null) {
+			throw in.syntaxError("Missing player name");
+		}
+		return player;
+	}
+	
+	private static Player findPlayer(JSONTokener in, List<Player> players, String name) throws JSONException {
+		for(Player p : players) {
+			if(p.name().equals(name)) {
+				return p;
+			}
+		}
+		throw in.syntaxError("Unknown player: " + name);
+	}
+	
+	/**
+	 * Reads a game written by write (or saved with the mementos), and loads it into a game,
+	 * starting the saved round. In actor mode, it waits until the game's thread has loaded it.
+	 * @param reader The input.
+	 * @param game The game.
+	 */
+	public static void read(Reader reader, Game game) throws JSONException {
+		JSONTokener in = new JSONTokener(reader);
+		List<SavedPlayer> savedPlayers = new ArrayList<>();
+		Deck deck = null;
+		Snake snake = null;
+		GameMode gameMode = null;
+		String currentPlayer = null;
+		List<String> stalledPlayers = new ArrayList<>();
+		int round = 0;
+		int turn = 0;
+		boolean hasStatus = false;
+		
+		expect(in, '{');
+		String key;
+		while((key = nextKey(in)) != null) {
+			switch(key) {
+				case PLAYERS: {
+					expect(in, '[');
+					while(nextElement(in)) {
+						savedPlayers.add(readPlayer(in));
+					}
+					break;
+				}
+				case DECK: {
+					List<Piece> pieces = new ArrayList<>();
+					int deckCount = 1;
+					expect(in, '{');
+					String deckKey;
+					while((deckKey = nextKey(in)) != null) {
+						switch(deckKey) {
+							case DECK_PIECES: {
+								expect(in, '[');
+								while(nextElement(in)) {
+									pieces.add(readPiece(in));
+								}
+								break;
+							}
+							case DECK_COUNT: deckCount = readInt(in); break;
+							default: in.nextValue();
+						}
+					}
+					deck = new Deck(deckCount);
+					for(Piece p : pieces) {
+						deck.push(p);
+					}
+					break;
+				}
+				case SNAKE: {
+					snake = new Snake(game);
+					expect(in, '[');
+					while(nextElement(in)) {
+						snake.append(readPiece(in).orientedCode());
+					}
+					break;
+				}
+				case STATUS: {
+					hasStatus = true;
+					expect(in, '{');
+					String statusKey;
+					while((statusKey = nextKey(in)) != null) {
+						switch(statusKey) {
+							case GAME_MODE: {
+								Object mode = in.nextValue();
+								if(!(mode instanceof JSONObject)) {
+									throw in.syntaxError("Expected a game mode");
+								}
+								gameMode = Game.initialiseGameMode((JSONObject) mode);
+								break;
+							}
+							case CURRENT_PLAYER: currentPlayer = readPlayer(in).name; break;
+							case STALLED_PLAYERS: {
+								expect(in, '[');
+								while(nextElement(in)) {
+									stalledPlayers.add(readPlayer(in).name);
+								}
+								break;
+							}
+							case ROUND: round = readInt(in); break;
+							case TURN: turn = readInt(in); break;
+							default: in.nextValue();
+						}
+					}
+					break;
+				}
+				default: in.nextValue();
+			}
+		}
+		if(deck == null || snake == null || !hasStatus || gameMode == null || currentPlayer == null) {
+			throw new JSONException("The saved game is incomplete!");
+		}
+		
+		List<Player> players = new ArrayList<>();
+		for(SavedPlayer p : savedPlayers) {
+			players.add(p.human ? new HumanPlayer(game, p.name, p.roundScore, p.globalScore, p.hand) :
+				new AIPlayer(game, p.name, p.roundScore, p.globalScore, p.hand, gameMode));
+		}
+		List<Player> stalled = new ArrayList<>();
+		for(String name : stalledPlayers) {
+			stalled.add(findPlayer(in, players, name));
+		}
+		GameStatus status = new GameStatus(game, gameMode, findPlayer(in, players, currentPlayer), stalled, round, turn);
+		game.reset(deck, snake, players, status);
+	}
+	
+	// Prevent instantiation
+	private GameJson() {}
+
+}
@@ -0,0 +1,47 @@
+package logic;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded pool shared by all the games of the process, used to run the AI turns and the games in actor mode.
+ * Delays are scheduled instead of slept, so waiting turns don't hold any thread.
+ */
+public class GameScheduler {
+	
+	private static final long KEEP_ALIVE_TIME = 5000;
+	
+	private static final AtomicInteger threadCount = new AtomicInteger(0);
+	
+	private static final ScheduledThreadPoolExecutor executor;
+	
+	static {
+		executor = new ScheduledThreadPoolExecutor(Runtime.getRuntime().availableProcessors(), 
+				(Runnable r) -> new Thread(r, "Game scheduler " + threadCount.incrementAndGet()));
+		executor.setRemoveOnCancelPolicy(true);
+		// Idle threads finish on their own, so the application can end once no game has pending work
+		executor.setKeepAliveTime(KEEP_ALIVE_TIME, TimeUnit.MILLISECONDS);
+		executor.allowCoreThreadTimeOut(true);
+	}
+	
+	/**
+	 * Runs a task in the shared pool after a certain delay.
+	 * @param task The task.
+	 * @param delay The delay, in milliseconds. It can be zero.
+	 * @return The handle of the task, which can be used to cancel it.
+	 */
+	public static ScheduledFuture<?> schedule(Runnable task, long delay) {
+		return executor.schedule(task, delay, TimeUnit.MILLISECONDS);
+	}
+	
+	public static ScheduledExecutorService executor() {
+		return executor;
+	}
+	
+	// Prevent instantiation
+	private GameScheduler() {}
+	
+}
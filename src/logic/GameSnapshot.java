@@ -0,0 +1,638 @@
+package logic;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import logic.gamemodes.GameMode;
+import logic.movements.Movement;
+
+/**
+ * Compact binary representation of the whole state of a game.
+ * Integers are written as variable length quantities (one byte for values under 128), and so are the pieces,
+ * as their oriented code: one byte each up to the double-nine set; from the double-twelve on, codes of 128 or more take two.
+ * A snapshot can also be written as the changes from a previous one, which usually takes a few bytes.
+ */
+public class GameSnapshot {
+	
+	private static final int MAX_PLAYERS = 16;
+	private static final int MAX_PIECES = 1 << 16;
+	
+	// What changed between two snapshots
+	private static final int ROUND_CHANGED = 1;
+	private static final int CURRENT_CHANGED = 1 << 1;
+	private static final int STALLED_CHANGED = 1 << 2;
+	private static final int DECK_CHANGED = 1 << 3;
+	private static final int BOARD_GROWN = 1 << 4;
+	private static final int BOARD_REPLACED = 1 << 5;
+	private static final int PLAYERS_CHANGED = 1 << 6;
+	
+	// What changed for a single player
+	private static final int SCORES_CHANGED = 1;
+	private static final int HAND_CHANGED = 1 << 1;
+	
+	private int modeIndex;
+	private String[] parameters;
+	private int round;
+	private int turn;
+	private String[] names;
+	private boolean[] human;
+	private int[] roundScores;
+	private int[] globalScores;
+	private int[][] hands;
+	private int currentPlayer;			// -1 if there is none
+	private int stalled;				// One bit per stalled player
+	private int deckCount;
+	private int deckSize;
+	private int[] deck;					// Null if the pieces of the deck are hidden
+	private int[] board;
+	
+	/**
+	 * Writes a non-negative integer using 7 bits per byte, the highest bit telling if more bytes follow.
+	 */
+	public static void writeVarInt(DataOutput out, int value) throws IOException {
+		while((value & ~0x7F) != 0) {
+			out.writeByte((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.writeByte(value);
+	}
+	
+	public static int readVarInt(DataInput in) throws IOException {
+		int value = 0;
+		for(int shift = 0; shift < 35; shift += 7) {
+			int b = in.readUnsignedByte();
+			value |= (b & 0x7F) << shift;
+			if((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new StreamCorruptedException("Malformed variable length integer!");
+	}
+	
+	/**
+	 * Writes an integer that may be negative, interleaving positive and negative values (zigzag encoding).
+	 */
+	public static void writeSignedVarInt(DataOutput out, int value) throws IOException {
+		writeVarInt(out, (value << 1) ^ (value >> 31));
+	}
+	
+	public static int readSignedVarInt(DataInput in) throws IOException {
+		int value = readVarInt(in);
+		return (value >>> 1) ^ -(value & 1);
+	}
+	
+	private static int readCount(DataInput in, int max) throws IOException {
+		int count = readVarInt(in);
+		if(count < 0 || count > max) {
+			throw new StreamCorruptedException("Invalid count: " + count);
+		}
+		return count;
+	}
+	
+	/**
+	 * @param codeCount The amount of distinct pieces in the set of the game.
+	 */
+	private static int readPiece(DataInput in, int codeCount) throws IOException {
+		int orientedCode = readVarInt(in);
+		if(orientedCode < 0 || orientedCode >>> 1 >= codeCount) {
+			throw new StreamCorruptedException("Invalid piece: " + orientedCode);
+		}
+		return orientedCode;
+	}
+	
+	/**
+	 * Writes part of an array, preceded by its length.
+	 */
+	private static void writeVarInts(DataOutput out, int[] values, int from, int to) throws IOException {
+		writeVarInt(out, to - from);
+		for(int i = from; i < to; i++) {
+			writeVarInt(out, values[i]);
+		}
+	}
+	
+	private static int[] readPieces(DataInput in, int codeCount) throws IOException {
+		int[] pieces = new int[readCount(in, MAX_PIECES)];
+		for(int i = 0; i < pieces.length; i++) {
+			pieces[i] = readPiece(in, codeCount);
+		}
+		return pieces;
+	}
+	
+	private static int[] orientedCodes(List<Piece> pieces) {
+		int[] result = new int[pieces.size()];
+		for(int i = 0; i < result.length; i++) {
+			result[i] = pieces.get(i).orientedCode();
+		}
+		return result;
+	}
+	
+	private static int[] concat(int[] left, int[] middle, int[] right) {
+		int[] result = new int[left.length + middle.length + right.length];
+		System.arraycopy(left, 0, result, 0, left.length);
+		System.arraycopy(middle, 0, result, left.length, middle.length);
+		System.arraycopy(right, 0, result, left.length + middle.length, right.length);
+		return result;
+	}
+	
+	/**
+	 * Finds where a board was before some pieces were added to its ends.
+	 * @return The amount of pieces added on the left, or -1 if the new board doesn't contain the old one.
+	 */
+	private static int offsetIn(int[] oldBoard, int[] newBoard) {
+		for(int offset = 0; offset <= newBoard.length - oldBoard.length; offset++) {
+			if(Arrays.equals(oldBoard, 0, oldBoard.length, newBoard, offset, offset + oldBoard.length)) {
+				return offset;
+			}
+		}
+		return -1;
+	}
+	
+	private static int indexOf(List<Player> players, Player player) {
+		if(player == null) {
+			return -1;
+		}
+		for(int i = 0; i < players.size(); i++) {
+			if(players.get(i) == player || players.get(i).name().equals(player.name())) {
+				return i;
+			}
+		}
+		return -1;
+	}
+	
+	/**
+	 * Finds the seat of a player who must be part of the game.
+	 * @throws IllegalStateException If the player isn't.
+	 */
+	private static int seatOf(List<Player> players, Player player) {
+		int seat = indexOf(players, player);
+		if(seat < 0) {
+			throw new IllegalStateException(player.name() + " isn't part of the game");
+		}
+		return seat;
+	}
+	
+	/**
+	 * Checks that the stalled mask only has bits for the seats of the game.
+	 */
+	private static int checkStalled(int stalled, int playerCount) throws StreamCorruptedException {
+		if(stalled >>> playerCount != 0) {
+			throw new StreamCorruptedException("Invalid stalled players: " + Integer.toBinaryString(stalled));
+		}
+		return stalled;
+	}
+	
+	private static GameMode newGameMode(int index, String[] parameters) throws StreamCorruptedException {
+		if(index < 0 || index >= Game.MODES.length) {
+			throw new StreamCorruptedException("Unknown game mode: " + index);
+		}
+		GameMode gameMode = Game.MODES[index].newInstance();
+		if(parameters.length == 0 || parameters.length > gameMode.parameters().length) {		// Only the last ones are optional
+			throw new StreamCorruptedException("Invalid amount of parameters for " + gameMode + ": " + parameters.length);
+		}
+		try {
+			gameMode.initialize(parameters);
+		}
+		catch(IllegalArgumentException iae) {
+			throw new StreamCorruptedException(iae.getMessage());
+		}
+		return gameMode;
+	}
+	
+	private static String[] readParameters(DataInput in) throws IOException {
+		String[] values = new String[readCount(in, MAX_PLAYERS)];
+		for(int i = 0; i < values.length; i++) {
+			values[i] = in.readUTF();
+		}
+		return values;
+	}
+	
+	private GameSnapshot() {}
+	
+	/**
+	 * Copies the state of a game.
+	 * @param game The game. It must have been started.
+	 * @param includeDeck Whether to copy the pieces of the deck, or only how many there are.
+	 * @return The snapshot.
+	 */
+	public static GameSnapshot of(Game game, boolean includeDeck) {
+		GameSnapshot s = new GameSnapshot();
+		GameStatus status = game.status();
+		List<Player> players = game.players();
+		s.modeIndex = Game.modeIndex(status.gameMode());
+		s.parameters = status.gameMode().parameterValues();
+		s.round = status.round();
+		s.turn = status.turn();
+		int n = players.size();
+		s.names = new String[n];
+		s.human = new boolean[n];
+		s.roundScores = new int[n];
+		s.globalScores = new int[n];
+		s.hands = new int[n][];
+		for(int i = 0; i < n; i++) {
+			Player p = players.get(i);
+			s.names[i] = p.name();
+			s.human[i] = p.dependsOnUser();
+			s.roundScores[i] = p.roundScore();
+			s.globalScores[i] = p.globalScore();
+			s.hands[i] = orientedCodes(p.hand().pieces());
+		}
+		s.currentPlayer = status.currentPlayer() == null ? -1 : seatOf(players, status.currentPlayer());
+		for(Player p : status.stalledPlayers()) {
+			s.stalled |= 1 << seatOf(players, p);
+		}
+		Deck deck = game.deck();
+		s.deckCount = deck.deckCount();
+		s.deckSize = deck.size();
+		s.deck = includeDeck ? orientedCodes(deck.pieces()) : null;
+		Snake board = game.board();
+		s.board = new int[board.size()];
+		for(int i = 0; i < s.board.length; i++) {
+			s.board[i] = board.orientedCode(i);
+		}
+		return s;
+	}
+	
+	/**
+	 * Writes the whole snapshot.
+	 * @param out The output.
+	 */
+	public void write(DataOutput out) throws IOException {
+		writeVarInt(out, modeIndex);
+		writeVarInt(out, parameters.length);
+		for(String v : parameters) {
+			out.writeUTF(v);
+		}
+		writeVarInt(out, round);
+		writeVarInt(out, turn);
+		
+		writeVarInt(out, names.length);
+		for(int i = 0; i < names.length; i++) {
+			out.writeUTF(names[i]);
+			out.writeBoolean(human[i]);
+			writeSignedVarInt(out, roundScores[i]);
+			writeSignedVarInt(out, globalScores[i]);
+			writeVarInts(out, hands[i], 0, hands[i].length);
+		}
+		writeVarInt(out, currentPlayer + 1);
+		writeVarInt(out, stalled);
+		
+		writeVarInt(out, deckCount);
+		out.writeBoolean(deck != null);
+		if(deck != null) {
+			writeVarInts(out, deck, 0, deck.length);
+		}
+		else {
+			writeVarInt(out, deckSize);
+		}
+		writeVarInts(out, board, 0, board.length);
+	}
+	
+	/**
+	 * Reads a snapshot written by write.
+	 * @param in The input.
+	 * @return The snapshot.
+	 */
+	public static GameSnapshot read(DataInput in) throws IOException {
+		GameSnapshot s = new GameSnapshot();
+		s.modeIndex = readVarInt(in);
+		s.parameters = readParameters(in);
+		int codeCount = Piece.codeCount(newGameMode(s.modeIndex, s.parameters).highestValue());		// Fails early with invalid modes
+		s.round = readVarInt(in);
+		s.turn = readVarInt(in);
+		
+		int n = readCount(in, MAX_PLAYERS);
+		s.names = new String[n];
+		s.human = new boolean[n];
+		s.roundScores = new int[n];
+		s.globalScores = new int[n];
+		s.hands = new int[n][];
+		for(int i = 0; i < n; i++) {
+			s.names[i] = in.readUTF();
+			s.human[i] = in.readBoolean();
+			s.roundScores[i] = readSignedVarInt(in);
+			s.globalScores[i] = readSignedVarInt(in);
+			s.hands[i] = readPieces(in, codeCount);
+		}
+		s.currentPlayer = readVarInt(in) - 1;
+		if(s.currentPlayer < -1 || s.currentPlayer >= n) {
+			throw new StreamCorruptedException("Invalid current player: " + s.currentPlayer);
+		}
+		s.stalled = checkStalled(readVarInt(in), n);
+		
+		s.deckCount = readVarInt(in);
+		if(in.readBoolean()) {
+			s.deck = readPieces(in, codeCount);
+			s.deckSize = s.deck.length;
+		}
+		else {
+			s.deckSize = readCount(in, MAX_PIECES);
+		}
+		s.board = readPieces(in, codeCount);
+		return s;
+	}
+	
+	/**
+	 * Tells if a snapshot belongs to the same game, so the changes from it can be written.
+	 */
+	private boolean sameGame(GameSnapshot previous) {
+		return previous != null && modeIndex == previous.modeIndex && Arrays.equals(parameters, previous.parameters)
+				&& Arrays.equals(names, previous.names) && deckCount == previous.deckCount
+				&& deck == null && previous.deck == null;
+	}
+	
+	/**
+	 * Writes the changes from a previous snapshot of the same game.
+	 * Pieces added to the ends of the board, or to the end of a hand, are the only ones written.
+	 * @param previous The previous snapshot.
+	 * @param out The output.
+	 * @return False, without writing anything, if the snapshots can't be compared and the whole snapshot must be written.
+	 */
+	public boolean writeChanges(GameSnapshot previous, DataOutput out) throws IOException {
+		if(!sameGame(previous)) {
+			return false;
+		}
+		int offset = offsetIn(previous.board, board);
+		int changed = 0;
+		if(round != previous.round || turn != previous.turn) {
+			changed |= ROUND_CHANGED;
+		}
+		if(currentPlayer != previous.currentPlayer) {
+			changed |= CURRENT_CHANGED;
+		}
+		if(stalled != previous.stalled) {
+			changed |= STALLED_CHANGED;
+		}
+		if(deckSize != previous.deckSize) {
+			changed |= DECK_CHANGED;
+		}
+		if(offset < 0) {
+			changed |= BOARD_REPLACED;
+		}
+		else if(board.length != previous.board.length) {
+			changed |= BOARD_GROWN;
+		}
+		int changedPlayers = 0;
+		for(int i = 0; i < names.length; i++) {
+			if(roundScores[i] != previous.roundScores[i] || globalScores[i] != previous.globalScores[i] || !Arrays.equals(hands[i], previous.hands[i])) {
+				changedPlayers++;
+			}
+		}
+		if(changedPlayers > 0) {
+			changed |= PLAYERS_CHANGED;
+		}
+		
+		writeVarInt(out, changed);
+		if((changed & ROUND_CHANGED) != 0) {
+			writeVarInt(out, round);
+			writeVarInt(out, turn);
+		}
+		if((changed & CURRENT_CHANGED) != 0) {
+			writeVarInt(out, currentPlayer + 1);
+		}
+		if((changed & STALLED_CHANGED) != 0) {
+			writeVarInt(out, stalled);
+		}
+		if((changed & DECK_CHANGED) != 0) {
+			writeVarInt(out, deckSize);
+		}
+		if((changed & BOARD_REPLACED) != 0) {
+			writeVarInts(out, board, 0, board.length);
+		}
+		if((changed & BOARD_GROWN) != 0) {
+			writeVarInts(out, board, 0, offset);
+			writeVarInts(out, board, offset + previous.board.length, board.length);
+		}
+		if((changed & PLAYERS_CHANGED) != 0) {
+			writeVarInt(out, changedPlayers);
+			for(int i = 0; i < names.length; i++) {
+				boolean scores = roundScores[i] != previous.roundScores[i] || globalScores[i] != previous.globalScores[i];
+				boolean hand = !Arrays.equals(hands[i], previous.hands[i]);
+				if(scores || hand) {
+					writeVarInt(out, i);
+					writeVarInt(out, (scores ? SCORES_CHANGED : 0) | (hand ? HAND_CHANGED : 0));
+					if(scores) {
+						writeSignedVarInt(out, roundScores[i]);
+						writeSignedVarInt(out, globalScores[i]);
+					}
+					if(hand) {
+						writeHandChanges(out, previous.hands[i], hands[i]);
+					}
+				}
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Writes how a hand changed: the positions of the removed pieces, and the pieces received afterwards.
+	 * Pieces are only removed from a hand or added to its end, so that is always enough.
+	 */
+	private static void writeHandChanges(DataOutput out, int[] oldHand, int[] newHand) throws IOException {
+		int[] removed = new int[oldHand.length];
+		int removedCount = 0;
+		int j = 0;
+		for(int i = 0; i < oldHand.length; i++) {
+			if(j < newHand.length && oldHand[i] == newHand[j]) {
+				j++;
+			}
+			else {
+				removed[removedCount++] = i;
+			}
+		}
+		writeVarInts(out, removed, 0, removedCount);
+		writeVarInts(out, newHand, j, newHand.length);
+	}
+	
+	private static int[] readHandChanges(DataInput in, int[] oldHand, int codeCount) throws IOException {
+		int removedCount = readCount(in, oldHand.length);
+		boolean[] removed = new boolean[oldHand.length];
+		for(int i = 0; i < removedCount; i++) {
+			int index = readVarInt(in);
+			if(index < 0 || index >= oldHand.length) {
+				throw new StreamCorruptedException("Invalid piece index: " + index);
+			}
+			removed[index] = true;
+		}
+		int[] added = readPieces(in, codeCount);
+		int[] result = new int[oldHand.length - removedCount + added.length];
+		int j = 0;
+		for(int i = 0; i < oldHand.length; i++) {
+			if(!removed[i]) {
+				result[j++] = oldHand[i];
+			}
+		}
+		System.arraycopy(added, 0, result, j, added.length);
+		return result;
+	}
+	
+	/**
+	 * Reads the changes written by writeChanges, applying them to a copy of this snapshot.
+	 * @param in The input.
+	 * @return The new snapshot.
+	 */
+	public GameSnapshot readChanges(DataInput in) throws IOException {
+		GameSnapshot s = new GameSnapshot();
+		s.modeIndex = modeIndex;
+		s.parameters = parameters;
+		s.names = names;
+		s.human = human;
+		s.deckCount = deckCount;
+		s.round = round;
+		s.turn = turn;
+		s.currentPlayer = currentPlayer;
+		s.stalled = stalled;
+		s.deckSize = deckSize;
+		s.board = board;
+		s.roundScores = roundScores.clone();
+		s.globalScores = globalScores.clone();
+		s.hands = hands.clone();
+		int codeCount = Piece.codeCount(newGameMode(modeIndex, parameters).highestValue());
+		
+		int changed = readVarInt(in);
+		if((changed & ROUND_CHANGED) != 0) {
+			s.round = readVarInt(in);
+			s.turn = readVarInt(in);
+		}
+		if((changed & CURRENT_CHANGED) != 0) {
+			s.currentPlayer = readVarInt(in) - 1;
+			if(s.currentPlayer < -1 || s.currentPlayer >= names.length) {
+				throw new StreamCorruptedException("Invalid current player: " + s.currentPlayer);
+			}
+		}
+		if((changed & STALLED_CHANGED) != 0) {
+			s.stalled = checkStalled(readVarInt(in), names.length);
+		}
+		if((changed & DECK_CHANGED) != 0) {
+			s.deckSize = readCount(in, MAX_PIECES);
+		}
+		if((changed & BOARD_REPLACED) != 0) {
+			s.board = readPieces(in, codeCount);
+		}
+		if((changed & BOARD_GROWN) != 0) {
+			int[] left = readPieces(in, codeCount);
+			s.board = concat(left, board, readPieces(in, codeCount));
+		}
+		if((changed & PLAYERS_CHANGED) != 0) {
+			int changedPlayers = readCount(in, names.length);
+			for(int k = 0; k < changedPlayers; k++) {
+				int i = readVarInt(in);
+				if(i < 0 || i >= names.length) {
+					throw new StreamCorruptedException("Invalid player: " + i);
+				}
+				int playerChanges = readVarInt(in);
+				if((playerChanges & SCORES_CHANGED) != 0) {
+					s.roundScores[i] = readSignedVarInt(in);
+					s.globalScores[i] = readSignedVarInt(in);
+				}
+				if((playerChanges & HAND_CHANGED) != 0) {
+					s.hands[i] = readHandChanges(in, hands[i], codeCount);
+				}
+			}
+		}
+		return s;
+	}
+	
+	/**
+	 * Replaces the state of a game with the one of the snapshot. The observers of that game are not notified.
+	 * @param game The game.
+	 */
+	public void restore(Game game) throws StreamCorruptedException {
+		restore(game, null);
+	}
+	
+	/**
+	 * Loads the snapshot into a game, starting the saved round as when a saved game is loaded.
+	 * In actor mode, it waits until the game's thread has loaded it.
+	 * @param game The game.
+	 */
+	public void load(Game game) throws StreamCorruptedException {
+		load(game, Collections.emptyList());
+	}
+	
+	/**
+	 * Loads the snapshot into a game and replays some movements from there, going on from the resulting position.
+	 * In actor mode, it waits until the game's thread has loaded it.
+	 * @param game The game.
+	 * @param movements The movements, played in turn order.
+	 * @throws IllegalArgumentException If a movement can't be played.
+	 */
+	public void load(Game game, List<Movement> movements) throws StreamCorruptedException {
+		if(deck == null || currentPlayer < 0) {
+			throw new StreamCorruptedException("The snapshot can't be loaded as a saved game");
+		}
+		restore(game, movements);
+	}
+	
+	/**
+	 * @param movements The movements to replay once restored, or null not to start the game.
+	 */
+	private void restore(Game game, List<Movement> movements) throws StreamCorruptedException {
+		GameMode gameMode = newGameMode(modeIndex, parameters);
+		List<Player> players = new ArrayList<>();
+		for(int i = 0; i < names.length; i++) {
+			Hand hand = new Hand();
+			for(int p : hands[i]) {
+				hand.receive(Piece.fromOrientedCode(p));
+			}
+			players.add(human[i] ? new HumanPlayer(game, names[i], roundScores[i], globalScores[i], hand) :
+				new AIPlayer(game, names[i], roundScores[i], globalScores[i], hand, gameMode));
+		}
+		List<Player> stalledPlayers = new ArrayList<>();
+		for(int i = 0; i < players.size(); i++) {
+			if((stalled >>> i & 1) != 0) {
+				stalledPlayers.add(players.get(i));
+			}
+		}
+		
+		Deck restoredDeck;
+		if(deck != null) {
+			restoredDeck = new Deck(deckCount);
+			for(int p : deck) {
+				restoredDeck.push(Piece.fromOrientedCode(p));
+			}
+		}
+		else {
+			restoredDeck = new Deck(deckCount, deckSize);
+		}
+		
+		Snake restoredBoard = new Snake(game);
+		for(int p : board) {
+			restoredBoard.append(p);
+		}
+		
+		GameStatus status = new GameStatus(game, gameMode, currentPlayer < 0 ? null : players.get(currentPlayer), stalledPlayers, round, turn);
+		if(movements != null) {
+			game.reset(restoredDeck, restoredBoard, players, status, movements);
+		}
+		else {
+			game.restore(restoredDeck, restoredBoard, players, status);
+		}
+	}
+	
+	/**
+	 * Writes the state of a game.
+	 * @param game The game. It must have been started.
+	 * @param out The output.
+	 * @param includeDeck Whether to write the pieces of the deck, or only how many there are.
+	 */
+	public static void write(Game game, DataOutput out, boolean includeDeck) throws IOException {
+		of(game, includeDeck).write(out);
+	}
+	
+	/**
+	 * Reads the state of a game written by write, replacing the state of a certain game.
+	 * The observers of that game are not notified.
+	 * @param in The input.
+	 * @param game The game.
+	 */
+	public static void read(DataInput in, Game game) throws IOException {
+		read(in).restore(game);
+	}
+
+}
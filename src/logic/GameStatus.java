@@ -32,6 +32,18 @@ public class GameStatus implements Serializable {
 		this.stalledPlayers = new ArrayList<>();		
 	}
 	
+	/**
+	 * Restores a status with a given state.
+	 */
+	GameStatus(Game game, GameMode gameMode, Player currentPlayer, List<Player> stalledPlayers, int round, int turn) {
+		this.game = game;
+		this.gameMode = gameMode;
+		this.currentPlayer = currentPlayer;
+		this.stalledPlayers = new ArrayList<>(stalledPlayers);
+		this.round = round;
+		this.turn = turn;
+	}
+	
 	public GameStatus(Memento memento)throws JSONException {
 		this.game = memento.mementoGame;
 		this.gameMode = game.initialise(memento.gameMode);                 
@@ -117,6 +129,10 @@ public class GameStatus implements Serializable {
 		return round;
 	}
 	
+	public int turn() {
+		return turn;
+	}
+	
 	public Player currentPlayer() {
 		return currentPlayer;
 	}
@@ -2,6 +2,7 @@ package logic;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.function.Predicate;
@@ -14,15 +15,36 @@ public class Hand implements Serializable {
 	private static final long serialVersionUID = 1L;
 	
 	private List<Piece> pieces;
+	private long[] mask;			// One bit per distinct piece in the hand, indexed by its code (see PieceMask)
+	private int[] counts;			// Copies of each piece, only greater than one when playing with several decks
+	private int[] valueCounts;		// Pieces with each value on any side, so the ones matching an end are counted at once
+	private int pipCount;
+	
+	private void remove(Piece p) {
+		pieces.remove(p);
+		int code = p.code();
+		if(--counts[code] == 0) {
+			PieceMask.remove(mask, code);
+		}
+		valueCounts[p.getLeft() - Piece.LOWER_BOUND]--;
+		if(!p.isDouble()) {
+			valueCounts[p.getRight() - Piece.LOWER_BOUND]--;
+		}
+		pipCount -= p.score();
+	}
 	
 	public Hand() {
 		this.pieces = new ArrayList<>();
+		this.mask = PieceMask.create();
+		this.counts = new int[Piece.CODE_COUNT];
+		this.valueCounts = new int[Piece.VALUE_COUNT];
+		this.pipCount = 0;
 	}
 	
 	public Hand(Memento memento) {
-		this.pieces = new ArrayList<>();
+		this();
 		for(Piece.Memento p: memento.getHand())
-			pieces.add(new Piece(p));			
+			receive(new Piece(p));
 	}
 	
 	/**
@@ -30,16 +52,23 @@ public class Hand implements Serializable {
 	 * @return The index of the piece.
 	 */
 	public Integer biggestDoublePiece() {
-		Integer result = null;
-		int higher = -1;
-		for(int i = 0; i < pieces.size(); i++) {
-			Piece p = pieces.get(i);
-			if(p.isDouble() && p.getLeft() > higher) {
-				higher = p.getLeft();
-				result = i;
-			}
+		int code = PieceMask.highestInBoth(mask, Piece.DOUBLES_MASK);
+		if(code < 0) {
+			return null;
 		}
-		return result;
+		return indexOf(code);
+	}
+	
+	/**
+	 * Gets the value of the biggest double piece of a hand.
+	 * @return The value, or -1 if there are no doubles.
+	 */
+	public int biggestDoubleValue() {
+		int code = PieceMask.highestInBoth(mask, Piece.DOUBLES_MASK);
+		if(code < 0) {
+			return -1;
+		}
+		return Piece.lowValue(code);
 	}
 	
 	/**
@@ -48,6 +77,14 @@ public class Hand implements Serializable {
 	 */
 	public void receive(Piece p) {
 		pieces.add(p);
+		int code = p.code();
+		counts[code]++;
+		PieceMask.add(mask, code);
+		valueCounts[p.getLeft() - Piece.LOWER_BOUND]++;
+		if(!p.isDouble()) {
+			valueCounts[p.getRight() - Piece.LOWER_BOUND]++;
+		}
+		pipCount += p.score();
 	}
 	
 	/**
@@ -59,7 +96,7 @@ public class Hand implements Serializable {
 	 */
 	public boolean place(Piece piece, Snake.Side side, Snake snake) {
 		if(snake.couldAdd(piece, this)) {
-			pieces.remove(piece);
+			remove(piece);
 			snake.add(piece, side);
 			return true;
 		}
@@ -79,6 +116,10 @@ public class Hand implements Serializable {
 	 */
 	public void clear() {
 		pieces.clear();
+		PieceMask.clear(mask);
+		Arrays.fill(counts, 0);
+		Arrays.fill(valueCounts, 0);
+		pipCount = 0;
 	}
 	
 	/**
@@ -96,6 +137,85 @@ public class Hand implements Serializable {
 		return result;
 	}
 	
+	/**
+	 * Finds the position of a piece in the hand.
+	 * @param code The code of the piece.
+	 * @return The index of the first piece with that code, or -1 if there is none.
+	 */
+	public int indexOf(int code) {
+		for(int i = 0; i < pieces.size(); i++) {
+			if(pieces.get(i).code() == code) {
+				return i;
+			}
+		}
+		return -1;
+	}
+	
+	/**
+	 * Finds the positions of the pieces whose codes are part of a mask.
+	 * @param filter The mask.
+	 * @return The indexes of the pieces, in ascending order.
+	 */
+	public int[] indexes(long[] filter) {
+		int[] result = new int[count(filter)];
+		int j = 0;
+		for(int i = 0; i < pieces.size() && j < result.length; i++) {
+			if(PieceMask.contains(filter, pieces.get(i).code())) {
+				result[j++] = i;
+			}
+		}
+		return result;
+	}
+	
+	/**
+	 * Counts the pieces in the hand whose codes are part of a mask.
+	 * @param filter The mask.
+	 * @return The amount of pieces.
+	 */
+	public int count(long[] filter) {
+		int result = 0;
+		for(int i = 0; i < PieceMask.WORDS; i++) {
+			long matching = mask[i] & filter[i];
+			while(matching != 0) {
+				result += counts[i << 6 | Long.numberOfTrailingZeros(matching)];
+				matching &= matching - 1;
+			}
+		}
+		return result;
+	}
+	
+	/**
+	 * Counts the pieces in the hand that have any of two values on any of their sides, without checking them.
+	 * @param a A value.
+	 * @param b The other value. It may be the same one.
+	 * @return The amount of pieces.
+	 */
+	public int countWithValues(int a, int b) {
+		int result = valueCounts[a - Piece.LOWER_BOUND];
+		if(a != b) {
+			result += valueCounts[b - Piece.LOWER_BOUND] - counts[Piece.code(a, b)];
+		}
+		return result;
+	}
+	
+	/**
+	 * Returns a mask with one bit for every distinct piece in the hand, indexed by its code. It must not be modified.
+	 */
+	public long[] mask() {
+		return mask;
+	}
+	
+	/**
+	 * Returns the sum of the values of all the pieces in the hand.
+	 */
+	public int pipCount() {
+		return pipCount;
+	}
+	
+	public int size() {
+		return pieces.size();
+	}
+	
 	public List<Piece> pieces() {
 		return Collections.unmodifiableList(pieces);
 	}
@@ -10,17 +10,19 @@ public class HighestScorePlacementStrategy implements AIStrategy {
 
 	@Override
 	public Movement decideMovement(Game game, Hand hand) {
-		List<Integer> playablePieces = game.board().playablePieces(hand);
-		if(playablePieces.isEmpty()) {
+		long[] playablePieces = game.board().playableMask(hand);
+		if(PieceMask.isEmpty(playablePieces)) {
 			return new PassMovement();
 		}
 		
-		Integer result = -1;
-		Integer max = Integer.MIN_VALUE;
-		for(Integer index : playablePieces) {
-			if(hand.pieces().get(index).score() > max) {
-				max = hand.pieces().get(index).score();
-				result = index;
+		int result = -1;
+		int max = Integer.MIN_VALUE;
+		List<Piece> pieces = hand.pieces();
+		for(int i = 0; i < pieces.size(); i++) {
+			Piece p = pieces.get(i);
+			if(PieceMask.contains(playablePieces, p.code()) && p.score() > max) {
+				max = p.score();
+				result = i;
 			}
 		}
 		
@@ -13,6 +13,10 @@ public class HumanPlayer extends Player {
 		super(game, name);
 	}
 	
+	HumanPlayer(Game game, String name, int roundScore, int globalScore, Hand hand) {
+		super(game, name, roundScore, globalScore, hand);
+	}
+	
 	public HumanPlayer(Player.Memento memento) {
 		super(memento);
 	}
@@ -0,0 +1,73 @@
+package logic;
+
+import logic.movements.Movement;
+import logic.movements.PassMovement;
+import logic.movements.PlaceMovement;
+import logic.search.Determinizer;
+import logic.search.InformationSetSearch;
+import logic.search.Position;
+
+/**
+ * Strategy that searches its movement with information set Monte Carlo tree search (see InformationSetSearch),
+ * sampling the hidden hands and the deck from what the player knows, and playing the rest of the round many times.
+ * The search is limited by time, by iterations, or by both. With an iteration limit alone,
+ * it always makes the same decisions for the same seed of the game.
+ * As a search holds a thread of the shared game scheduler, it's never picked at random: it has to be asked for.
+ */
+public class MonteCarloPlacementStrategy implements AIStrategy {
+	
+	/**
+	 * Default time it searches, in milliseconds: half of the default AI think time.
+	 */
+	public static final long DEFAULT_SEARCH_TIME = Game.DEFAULT_AI_THINK_TIME / 2;
+	
+	private final long searchTime;
+	private final int iterations;
+	private final int threads;
+	
+	/**
+	 * Creates a strategy that searches for DEFAULT_SEARCH_TIME in every core.
+	 */
+	public MonteCarloPlacementStrategy() {
+		this(DEFAULT_SEARCH_TIME, 0, Runtime.getRuntime().availableProcessors());
+	}
+	
+	/**
+	 * @param searchTime Maximum time it searches, in milliseconds, or 0 for no limit.
+	 * @param iterations Maximum amount of iterations per movement, or 0 for no limit.
+	 * @param threads Amount of threads that search in parallel.
+	 */
+	public MonteCarloPlacementStrategy(long searchTime, int iterations, int threads) {
+		if(searchTime <= 0 && iterations <= 0) {
+			throw new IllegalArgumentException("The search must be limited by time or by iterations!");
+		}
+		if(threads < 1) {
+			throw new IllegalArgumentException("The search needs at least one thread!");
+		}
+		this.searchTime = Math.max(searchTime, 0);
+		this.iterations = Math.max(iterations, 0);
+		this.threads = threads;
+	}
+	
+	@Override
+	public Movement decideMovement(Game game, Hand hand) {
+		Determinizer determinizer = new Determinizer(game, hand);
+		int move = InformationSetSearch.search(determinizer, game.random().split(), iterations, searchTime, threads).move();
+		if(move == Position.PASS) {
+			return new PassMovement();
+		}
+		Snake.Side side = Position.placesOnTheRight(move) ? Snake.Side.RIGHT : Snake.Side.LEFT;
+		return new PlaceMovement(hand.indexOf(Position.code(move)), side);
+	}
+	
+	@Override
+	public long decisionTime() {
+		return searchTime;
+	}
+	
+	@Override
+	public boolean usesBeliefs() {
+		return true;
+	}
+
+}
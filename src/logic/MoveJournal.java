@@ -0,0 +1,249 @@
+package logic;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import logic.movements.Movement;
+import logic.movements.MovementParser;
+
+/**
+ * Append-only record of a game: the whole state (deck included) at the start of every round,
+ * and every movement played since, which only takes a few bytes each.
+ * Every CHECKPOINT_INTERVAL movements, the state is written again as a checkpoint,
+ * so any position can be rebuilt by replaying a few movements.
+ * Movements reach the file as soon as they are played, so it survives a crash of the process,
+ * and the file is synced with the disk at the start of every round and at the end of the game.
+ * A game can be rebuilt from the last state by replaying the movements after it, and the whole journal
+ * is a complete record of the game.
+ */
+public class MoveJournal implements Closeable {
+	
+	public static final int VERSION = 2;
+	public static final int CHECKPOINT_INTERVAL = 16;
+	private static final byte[] MAGIC = {'D', 'O', 'M', 'J'};
+	
+	// Types of record
+	private static final int ROUND = 0;
+	private static final int MOVEMENT = 1;
+	private static final int CHECKPOINT = 2;
+	
+	/**
+	 * An entry of the journal: either the state of the game, or a movement played from the previous entries.
+	 * The state is written when a round starts, or as a checkpoint of the position after the previous movement.
+	 */
+	public static class Record {
+		
+		private final GameSnapshot snapshot;
+		private final Movement movement;
+		private final boolean roundStart;
+		
+		private Record(GameSnapshot snapshot, Movement movement, boolean roundStart) {
+			this.snapshot = snapshot;
+			this.movement = movement;
+			this.roundStart = roundStart;
+		}
+		
+		public boolean isSnapshot() {
+			return snapshot != null;
+		}
+		
+		/**
+		 * Tells if the record is the state of the game at the start of a round, rather than a checkpoint.
+		 */
+		public boolean startsRound() {
+			return roundStart;
+		}
+		
+		/**
+		 * Returns the state of the game, or null if the record is a movement.
+		 */
+		public GameSnapshot snapshot() {
+			return snapshot;
+		}
+		
+		/**
+		 * Returns the movement, or null if the record is a state of the game.
+		 */
+		public Movement movement() {
+			return movement;
+		}
+	
+	}
+	
+	private final FileOutputStream file;
+	private final DataOutputStream out;
+	private int movementsSinceSnapshot;
+	
+	private MoveJournal(FileOutputStream file) {
+		this.file = file;
+		this.out = new DataOutputStream(new BufferedOutputStream(file));
+		this.movementsSinceSnapshot = 0;
+	}
+	
+	/**
+	 * Creates a new journal, replacing the file if it already exists.
+	 * @param file The file.
+	 * @return The journal, ready to be given to a game.
+	 */
+	public static MoveJournal create(File file) throws IOException {
+		MoveJournal journal = new MoveJournal(new FileOutputStream(file));
+		journal.out.write(MAGIC);
+		GameSnapshot.writeVarInt(journal.out, VERSION);
+		journal.sync();
+		return journal;
+	}
+	
+	/**
+	 * Reads all the records of a journal. A record left incomplete by a crash is ignored.
+	 * @param file The file.
+	 * @return The records, in the order they were written.
+	 */
+	public static List<Record> read(File file) throws IOException {
+		List<Record> records = new ArrayList<>();
+		read(Files.readAllBytes(file.toPath()), records);
+		return records;
+	}
+	
+	/**
+	 * Reads the complete records of a journal.
+	 * @return The length of the journal up to the last complete record.
+	 */
+	private static long read(byte[] data, List<Record> records) throws IOException {
+		ByteArrayInputStream bytes = new ByteArrayInputStream(data);
+		DataInputStream in = new DataInputStream(bytes);
+		byte[] magic = new byte[MAGIC.length];
+		try {
+			in.readFully(magic);
+			if(!Arrays.equals(magic, MAGIC)) {
+				throw new StreamCorruptedException("Not a game journal");
+			}
+			int version = GameSnapshot.readVarInt(in);
+			if(version != VERSION) {
+				throw new StreamCorruptedException("Unsupported journal version: " + version);
+			}
+		}
+		catch(EOFException eofe) {
+			throw new StreamCorruptedException("Not a game journal");
+		}
+		long length = data.length - bytes.available();
+		try {
+			while(bytes.available() > 0) {
+				int type = in.readUnsignedByte();
+				switch(type) {
+					case ROUND: records.add(new Record(GameSnapshot.read(in), null, true)); break;
+					case MOVEMENT: records.add(new Record(null, MovementParser.readMovement(in), false)); break;
+					case CHECKPOINT: records.add(new Record(GameSnapshot.read(in), null, false)); break;
+					default: throw new StreamCorruptedException("Unknown journal record: " + type);
+				}
+				length = data.length - bytes.available();
+			}
+		}
+		catch(EOFException eofe) {}			// The process stopped while writing the last record
+		return length;
+	}
+	
+	/**
+	 * Rebuilds a game from a journal, and goes on recording it in the same file.
+	 * The last state of the game is loaded, and the movements played after it are replayed.
+	 * A record left incomplete by a crash is removed. In actor mode, it waits until the game has been rebuilt.
+	 * @param file The file.
+	 * @param game The game.
+	 * @return The journal, already given to the game.
+	 */
+	public static MoveJournal recover(File file, Game game) throws IOException {
+		List<Record> records = new ArrayList<>();
+		long length = read(Files.readAllBytes(file.toPath()), records);
+		int last = records.size() - 1;
+		while(last >= 0 && !records.get(last).isSnapshot()) {
+			last--;
+		}
+		if(last < 0) {
+			throw new StreamCorruptedException("The journal doesn't contain any game");
+		}
+		List<Movement> movements = new ArrayList<>();
+		for(Record r : records.subList(last + 1, records.size())) {
+			movements.add(r.movement());
+		}
+		
+		FileOutputStream output = new FileOutputStream(file, true);
+		output.getChannel().truncate(length);
+		MoveJournal journal = new MoveJournal(output);
+		journal.movementsSinceSnapshot = movements.size();
+		game.setJournal(journal);
+		try {
+			records.get(last).snapshot().load(game, movements);
+		}
+		catch(IllegalArgumentException | StreamCorruptedException e) {
+			game.setJournal(null);
+			journal.close();
+			throw new StreamCorruptedException("The journal can't be replayed: " + e.getMessage());
+		}
+		return journal;
+	}
+	
+	/**
+	 * Records the state of a game at the start of a round, syncing the previous ones with the disk.
+	 * @param game The game.
+	 */
+	void roundStarted(Game game) throws IOException {
+		out.writeByte(ROUND);
+		GameSnapshot.of(game, true).write(out);
+		movementsSinceSnapshot = 0;
+		sync();
+	}
+	
+	/**
+	 * Records the state of a game as a checkpoint, if enough movements have been played since the last one.
+	 * @param game The game, already updated after the last movement.
+	 */
+	void checkpoint(Game game) throws IOException {
+		if(movementsSinceSnapshot >= CHECKPOINT_INTERVAL) {
+			out.writeByte(CHECKPOINT);
+			GameSnapshot.of(game, true).write(out);
+			out.flush();
+			movementsSinceSnapshot = 0;
+		}
+	}
+	
+	/**
+	 * Records a movement that has just been played.
+	 * @param movement The movement.
+	 */
+	void moved(Movement movement) throws IOException {
+		out.writeByte(MOVEMENT);
+		MovementParser.writeMovement(movement, out);
+		out.flush();
+		movementsSinceSnapshot++;
+	}
+	
+	/**
+	 * Writes everything recorded so far, and waits until it's on the disk.
+	 */
+	public void sync() throws IOException {
+		out.flush();
+		file.getFD().sync();
+	}
+	
+	@Override
+	public void close() throws IOException {
+		try {
+			sync();
+		}
+		finally {
+			out.close();
+		}
+	}
+
+}
@@ -14,7 +14,112 @@ public class Piece implements Serializable {
 	private static final long serialVersionUID = 1L;
 	
 	public static final int LOWER_BOUND = 0;
-	public static final int UPPER_BOUND = 6;
+	
+	/**
+	 * Highest value of the biggest set that can be played, double-fifteen.
+	 */
+	public static final int UPPER_BOUND = 15;
+	
+	/**
+	 * Highest value of the usual set, double-six.
+	 */
+	public static final int DEFAULT_HIGHEST_VALUE = 6;
+	
+	public static final int VALUE_COUNT = UPPER_BOUND - LOWER_BOUND + 1;
+	
+	/**
+	 * Amount of distinct pieces in the biggest set.
+	 */
+	public static final int CODE_COUNT = VALUE_COUNT * (VALUE_COUNT + 1) / 2;
+	
+	private static final int[] CODES;
+	private static final int[] LOW_VALUES;
+	private static final int[] HIGH_VALUES;
+	private static final long[][] VALUE_MASKS;
+	
+	/**
+	 * Mask with the bits of all the double pieces. It must not be modified.
+	 */
+	public static final long[] DOUBLES_MASK;
+	
+	// Every distinct piece gets a code in [0, CODE_COUNT), ordered by its highest and then its lowest value.
+	// That way, bigger doubles always have bigger codes, and the pieces of a smaller set are the first codes of a bigger one.
+	static {
+		CODES = new int[VALUE_COUNT * VALUE_COUNT];
+		LOW_VALUES = new int[CODE_COUNT];
+		HIGH_VALUES = new int[CODE_COUNT];
+		VALUE_MASKS = new long[VALUE_COUNT][PieceMask.WORDS];
+		DOUBLES_MASK = PieceMask.create();
+		int code = 0;
+		for(int j = LOWER_BOUND; j <= UPPER_BOUND; j++) {
+			for(int i = LOWER_BOUND; i <= j; i++) {
+				CODES[(i - LOWER_BOUND) * VALUE_COUNT + j - LOWER_BOUND] = code;
+				CODES[(j - LOWER_BOUND) * VALUE_COUNT + i - LOWER_BOUND] = code;
+				LOW_VALUES[code] = i;
+				HIGH_VALUES[code] = j;
+				PieceMask.add(VALUE_MASKS[i - LOWER_BOUND], code);
+				PieceMask.add(VALUE_MASKS[j - LOWER_BOUND], code);
+				if(i == j) {
+					PieceMask.add(DOUBLES_MASK, code);
+				}
+				code++;
+			}
+		}
+	}
+	
+	/**
+	 * Finds the code of the piece with the given values, regardless of their order.
+	 */
+	public static int code(int a, int b) {
+		return CODES[(a - LOWER_BOUND) * VALUE_COUNT + b - LOWER_BOUND];
+	}
+	
+	public static int lowValue(int code) {
+		return LOW_VALUES[code];
+	}
+	
+	public static int highValue(int code) {
+		return HIGH_VALUES[code];
+	}
+	
+	/**
+	 * Finds the amount of distinct pieces in a set, whose codes go from 0 to that amount.
+	 * @param highestValue The highest value of the set.
+	 */
+	public static int codeCount(int highestValue) {
+		int valueCount = highestValue - LOWER_BOUND + 1;
+		return valueCount * (valueCount + 1) / 2;
+	}
+	
+	/**
+	 * Returns a mask with the bits of all the pieces that have a certain value on any of their sides.
+	 * It must not be modified.
+	 * @param value The value.
+	 */
+	public static long[] valueMask(int value) {
+		return VALUE_MASKS[value - LOWER_BOUND];
+	}
+	
+	/**
+	 * Combines the code of a piece with its orientation: the lowest bit is set if its left value is the highest one.
+	 * @param code The code of the piece.
+	 * @param leftValue The value on the left side.
+	 */
+	public static int orientedCode(int code, int leftValue) {
+		return code << 1 | (leftValue == LOW_VALUES[code] ? 0 : 1);
+	}
+	
+	public static int leftValue(int orientedCode) {
+		return (orientedCode & 1) == 0 ? LOW_VALUES[orientedCode >>> 1] : HIGH_VALUES[orientedCode >>> 1];
+	}
+	
+	public static int rightValue(int orientedCode) {
+		return (orientedCode & 1) == 0 ? HIGH_VALUES[orientedCode >>> 1] : LOW_VALUES[orientedCode >>> 1];
+	}
+	
+	public static Piece fromOrientedCode(int orientedCode) {
+		return new Piece(leftValue(orientedCode), rightValue(orientedCode));
+	}
 	
     private int left;
     private int right;
@@ -71,6 +176,20 @@ public class Piece implements Serializable {
     	return left + right;
     }
     
+    /**
+     * Returns the code of the piece, which doesn't depend on its orientation.
+     */
+    public int code() {
+    	return code(left, right);
+    }
+    
+    /**
+     * Returns the code of the piece together with its current orientation.
+     */
+    public int orientedCode() {
+    	return orientedCode(code(), left);
+    }
+    
     public Memento createMemento() throws JSONException {
     	return new Memento(this);
     }
@@ -0,0 +1,62 @@
+package logic;
+
+import java.util.Arrays;
+
+/**
+ * Operations on masks of distinct pieces: arrays of words with one bit per piece, indexed by its code (see Piece.code).
+ * Every mask has WORDS words, enough for the biggest set, so it costs the same to use them with any set.
+ */
+public class PieceMask {
+	
+	public static final int WORDS = (Piece.CODE_COUNT + Long.SIZE - 1) / Long.SIZE;
+	
+	/**
+	 * Creates an empty mask.
+	 */
+	public static long[] create() {
+		return new long[WORDS];
+	}
+	
+	public static boolean contains(long[] mask, int code) {
+		return (mask[code >>> 6] >>> code & 1) != 0;
+	}
+	
+	public static void add(long[] mask, int code) {
+		mask[code >>> 6] |= 1L << code;
+	}
+	
+	public static void remove(long[] mask, int code) {
+		mask[code >>> 6] &= ~(1L << code);
+	}
+	
+	public static void clear(long[] mask) {
+		Arrays.fill(mask, 0);
+	}
+	
+	public static boolean isEmpty(long[] mask) {
+		for(long word : mask) {
+			if(word != 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Finds the biggest code that is part of two masks.
+	 * @return The code, or -1 if they have none in common.
+	 */
+	public static int highestInBoth(long[] a, long[] b) {
+		for(int i = WORDS - 1; i >= 0; i--) {
+			long common = a[i] & b[i];
+			if(common != 0) {
+				return i << 6 | 63 - Long.numberOfLeadingZeros(common);
+			}
+		}
+		return -1;
+	}
+	
+	// Prevent instantiation
+	private PieceMask() {}
+
+}
@@ -6,6 +6,9 @@ import org.json.JSONObject;
 
 import logic.gamemodes.GameMode;
 import logic.movements.Movement;
+import logic.search.Determinizer;
+import logic.search.EndgameSolver;
+import logic.search.Position;
 
 public abstract class Player implements Serializable {
 	
@@ -26,6 +29,17 @@ public abstract class Player implements Serializable {
  		
 	}
 	
+	/**
+	 * Restores a player with a given state.
+	 */
+	protected Player(Game game, String name, int roundScore, int globalScore, Hand hand) {
+		this.game = game;
+		this.name = name;
+		this.hand = hand;
+		this.roundScore = roundScore;
+		this.globalScore = globalScore;
+	}
+	
 	public Player(Memento memento) {
 		this.name = memento.name;
 		this.roundScore = memento.scoreRound;
@@ -41,6 +55,40 @@ public abstract class Player implements Serializable {
 	 */
 	public abstract Movement decideMovement();
 	
+	/**
+	 * Returns how long decideMovement may take, in milliseconds.
+	 */
+	public long decisionTime() {
+		return 0;
+	}
+	
+	/**
+	 * Tells if decideMovement uses the beliefs of the player (see Game.beliefs).
+	 */
+	public boolean usesBeliefs() {
+		return false;
+	}
+	
+	/**
+	 * Solves the rest of the round exactly (see EndgameSolver), when it's this player's turn and the round is fully known
+	 * from what the player sees: in two-player games, once the deck is empty. It must be called from the game's thread.
+	 * @return The best move and the value of the round for this player, or null if it can't be solved.
+	 */
+	public EndgameSolver.Result solveEndgame() {
+		if(game.status().currentPlayer() != this || game.deck().size() > 0) {
+			return null;
+		}
+		Determinizer determinizer = new Determinizer(game, hand);
+		if(!determinizer.isDetermined()) {
+			return null;
+		}
+		Position position = determinizer.determine(determinizer.newPosition());
+		if(!EndgameSolver.canSolve(position)) {
+			return null;
+		}
+		return EndgameSolver.solve(position, determinizer.observer());
+	}
+	
 	/**
 	 * Resets a player's state after ending a round, clearing the corresponding hand and updating their total score.
 	 */
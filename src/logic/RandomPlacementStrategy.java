@@ -10,13 +10,14 @@ public class RandomPlacementStrategy implements AIStrategy {
 
 	@Override
 	public Movement decideMovement(Game game, Hand hand) {
-		List<Integer> playablePieces = game.board().playablePieces(hand);
-		if(playablePieces.isEmpty()) {
+		long[] playablePieces = game.board().playableMask(hand);
+		if(PieceMask.isEmpty(playablePieces)) {
 			return new PassMovement();
 		}
-		Integer index = playablePieces.get(RandomUtilities.getRandomInteger(playablePieces.size()));
+		int[] indexes = hand.indexes(playablePieces);
+		int index = indexes[game.random().nextInt(indexes.length)];
 		List<Character> allowedCharacters = Snake.Side.allowedCharacters();
-		Integer chosenCharacter = RandomUtilities.getRandomInteger(allowedCharacters.size());
+		Integer chosenCharacter = game.random().nextInt(allowedCharacters.size());
 		Character randomSide = allowedCharacters.get(chosenCharacter);
 		return new PlaceMovement(index, randomSide);
 	}
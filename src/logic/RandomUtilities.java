@@ -1,18 +1,35 @@
 package logic;
 
-import java.util.Random;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
 
+/**
+ * Helpers for the random sources of the games. There is no shared generator:
+ * every game has its own SplittableRandom, created from a seed that can be recorded to reproduce it.
+ */
 public class RandomUtilities {
 	
-	private static Random randomGenerator = new Random(System.currentTimeMillis());
-
 	/**
-	 * Provides a random number between 0 (inclusive) and a given bound (exclusive).
-	 * @param bound The upper bound.
-	 * @return The random number.
+	 * Provides a seed for a new random source, statistically independent of the ones provided before.
+	 * @return The seed.
+	 */
+	public static long newSeed() {
+		return new SplittableRandom().nextLong();
+	}
+	
+	/**
+	 * Shuffles a list, so that every permutation is equally likely.
+	 * @param list The list.
+	 * @param random The random source.
 	 */
-	public static int getRandomInteger(int bound) {
-		return (int) (bound * randomGenerator.nextDouble());
+	public static void shuffle(List<?> list, SplittableRandom random) {
+		for(int i = list.size() - 1; i > 0; i--) {
+			Collections.swap(list, i, random.nextInt(i + 1));
+		}
 	}
 	
+	// Prevent instantiation
+	private RandomUtilities() {}
+	
 }
@@ -0,0 +1,109 @@
+package logic;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.util.Arrays;
+import java.util.List;
+
+import logic.exceptions.UnallowedMovementException;
+
+/**
+ * A game recorded in a MoveJournal, which can be seen at any position: the start of every round,
+ * and the board after every movement.
+ * Each position is rebuilt from the closest state written in the journal before it, round start or checkpoint,
+ * so at most MoveJournal.CHECKPOINT_INTERVAL movements are replayed to reach any of them.
+ */
+public class Replay {
+	
+	private final List<MoveJournal.Record> records;
+	private int[] bases;				// The record with the state each position is rebuilt from
+	private int[] movements;			// How many movements are replayed after that state
+	private int size;
+	
+	private void addPosition(int base, int movementCount) {
+		if(size == bases.length) {
+			bases = Arrays.copyOf(bases, size * 2);
+			movements = Arrays.copyOf(movements, size * 2);
+		}
+		bases[size] = base;
+		movements[size] = movementCount;
+		size++;
+	}
+	
+	/**
+	 * Creates a replay from the records of a journal.
+	 * @param records The records, as read by MoveJournal.read.
+	 */
+	public Replay(List<MoveJournal.Record> records) throws StreamCorruptedException {
+		this.records = records;
+		this.bases = new int[64];
+		this.movements = new int[64];
+		this.size = 0;
+		int base = -1;
+		int movementCount = 0;
+		for(int i = 0; i < records.size(); i++) {
+			MoveJournal.Record r = records.get(i);
+			if(r.isSnapshot()) {
+				if(!r.startsRound() && size > 0) {		// A checkpoint of the position after the previous movement
+					bases[size - 1] = i;
+					movements[size - 1] = 0;
+				}
+				else {
+					addPosition(i, 0);
+				}
+				base = i;
+				movementCount = 0;
+			}
+			else if(base < 0) {
+				throw new StreamCorruptedException("The journal doesn't start with the state of the game");
+			}
+			else {
+				addPosition(base, ++movementCount);
+			}
+		}
+		if(size == 0) {
+			throw new StreamCorruptedException("The journal doesn't contain any game");
+		}
+	}
+	
+	/**
+	 * Opens the game recorded in a journal.
+	 * @param file The file of the journal.
+	 * @return The replay.
+	 */
+	public static Replay open(File file) throws IOException {
+		return new Replay(MoveJournal.read(file));
+	}
+	
+	/**
+	 * Returns the amount of positions of the game.
+	 */
+	public int size() {
+		return size;
+	}
+	
+	/**
+	 * Rebuilds the game at a certain position, without notifying anything.
+	 * @param position The index of the position, from 0 to size() - 1.
+	 * @return A new game with that state. It hasn't been started, so it won't move on its own.
+	 */
+	public Game position(int position) throws StreamCorruptedException {
+		if(position < 0 || position >= size) {
+			throw new IndexOutOfBoundsException("Invalid position: " + position);
+		}
+		Game game = new Game();
+		game.setAutomaticAI(false);
+		records.get(bases[position]).snapshot().restore(game);
+		for(int i = 1; i <= movements[position]; i++) {
+			try {
+				game.replay(records.get(bases[position] + i).movement());
+			}
+			catch(UnallowedMovementException ume) {
+				throw new StreamCorruptedException("Movement " + (bases[position] + i) + " can't be replayed: " + ume.getMessage());
+			}
+		}
+		return game;
+	}
+
+}
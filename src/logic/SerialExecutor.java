@@ -0,0 +1,50 @@
+package logic;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executor that runs the submitted tasks one at a time, in submission order, on top of another executor.
+ * At most one task is running at any moment, so the tasks behave as if they were run by a single thread,
+ * but no thread is held while the queue is empty.
+ */
+public class SerialExecutor implements Executor {
+	
+	private final Queue<Runnable> tasks;
+	private final AtomicInteger pendingTasks;
+	private final Executor executor;
+	
+	private void drain() {
+		do {
+			Runnable task = tasks.poll();
+			try {
+				task.run();
+			}
+			catch(RuntimeException e) {		// A failing task must not stop the following ones
+				Thread t = Thread.currentThread();
+				t.getUncaughtExceptionHandler().uncaughtException(t, e);
+			}
+		} while(pendingTasks.decrementAndGet() > 0);
+	}
+	
+	/**
+	 * Creates a new serial executor.
+	 * @param executor The executor that actually runs the tasks.
+	 */
+	public SerialExecutor(Executor executor) {
+		this.tasks = new ConcurrentLinkedQueue<>();
+		this.pendingTasks = new AtomicInteger(0);
+		this.executor = executor;
+	}
+	
+	@Override
+	public void execute(Runnable task) {
+		tasks.add(task);
+		if(pendingTasks.getAndIncrement() == 0) {
+			executor.execute(this::drain);
+		}
+	}
+	
+}
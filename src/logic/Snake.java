@@ -1,13 +1,13 @@
 package logic;
 
 import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.function.Predicate;
-import java.util.stream.Collectors;
 import org.json.JSONArray;
 import org.json.JSONException;
 
@@ -39,55 +39,101 @@ public class Snake implements Serializable {
 		
 	}
 	
+	private static final int INITIAL_CAPACITY = 64;
+	
+	/**
+	 * Returned by endsAfter when the piece can't be placed.
+	 */
+	public static final int NO_ENDS = -1;
+	
 	private transient Game game;
-	private LinkedList<Piece> snake;
+	private int[] cells;			// Oriented codes of the pieces (see Piece.orientedCode)
+	private int first;				// Index of the leftmost cell
+	private int last;				// Index after the rightmost cell
+	private int leftEnd;			// -1 if the board is empty
+	private int rightEnd;			// -1 if the board is empty
+	private transient int lastAdded;	// Code of the last piece placed with add
+	
+	/**
+	 * Doubles the capacity of the board, leaving the pieces in the middle of the new array.
+	 */
+	private void grow() {
+		int size = last - first;
+		int[] newCells = new int[cells.length * 2];
+		int newFirst = (newCells.length - size) / 2;
+		System.arraycopy(cells, first, newCells, newFirst, size);
+		cells = newCells;
+		first = newFirst;
+		last = newFirst + size;
+	}
+	
+	private void addFirst(int cell) {
+		if(first == 0) {
+			grow();
+		}
+		cells[--first] = cell;
+		leftEnd = Piece.leftValue(cell);
+		if(last - first == 1) {
+			rightEnd = Piece.rightValue(cell);
+		}
+	}
+	
+	private void addLast(int cell) {
+		if(last == cells.length) {
+			grow();
+		}
+		cells[last++] = cell;
+		rightEnd = Piece.rightValue(cell);
+		if(last - first == 1) {
+			leftEnd = Piece.leftValue(cell);
+		}
+	}
 	
 	private int sidesMatched(Piece p) {
-		if(snake.isEmpty()) {
+		if(isEmpty()) {
 			return 0;
 		}
-		int result = 0;
-		for(Side side : Side.values()) {
-			if(p.hasValue(end(side))) {
-				++result;
-			}
-		}
-		return result;
+		return (p.hasValue(leftEnd) ? 1 : 0) + (p.hasValue(rightEnd) ? 1 : 0);
 	}
 	
 	private boolean matchesASide(Piece p) {
-		return sidesMatched(p) >= 1;
+		return !isEmpty() && (p.hasValue(leftEnd) || p.hasValue(rightEnd));
 	}
 	
-	private void insert(Piece p, Side side) {
-		if(snake.size() == 0) {
-			snake.addFirst(p);
+	/**
+	 * Places a piece on the board, choosing the end it matches.
+	 * The given piece is not modified; its orientation on the board is stored in the corresponding cell.
+	 * @return The side where it was placed, or null if it couldn't be placed.
+	 */
+	private Side insert(Piece p, Side side) {
+		int code = p.code();
+		if(isEmpty()) {
+			addFirst(Piece.orientedCode(code, p.getLeft()));
+			return Side.LEFT;
 		}
-		else if(p.hasValue(end(Side.LEFT)) && !(matchesMultipleSides(p) && side == Side.RIGHT)) {
-			if(p.getRight() != end(Side.LEFT)) {
-				p.flip();
-			}
-			snake.addFirst(p);
+		else if(p.hasValue(leftEnd) && !(matchesMultipleSides(p) && side == Side.RIGHT)) {
+			int otherValue = p.getLeft() == leftEnd ? p.getRight() : p.getLeft();
+			addFirst(Piece.orientedCode(code, otherValue));
+			return Side.LEFT;
 		}
-		else if(p.hasValue(end(Side.RIGHT))) {
-			if(p.getLeft() != end(Side.RIGHT)) {
-				p.flip();
-			}
-			snake.addLast(p);
+		else if(p.hasValue(rightEnd)) {
+			addLast(Piece.orientedCode(code, rightEnd));
+			return Side.RIGHT;
 		}
+		return null;
 	}
 	
 	public Snake(Game game) {
 		this.game = game;
-		this.snake = new LinkedList<>();
+		this.cells = new int[INITIAL_CAPACITY];
+		clear();
 	}
 	
 	public Snake(Memento memento) {
-		game = memento.mementoGame;
-		this.snake = new LinkedList<>();
-		
-		for(Piece.Memento p: memento.mementoSnake)
-			snake.add(new Piece(p));
+		this(memento.mementoGame);
+		for(Piece.Memento p: memento.mementoSnake) {
+			addLast(new Piece(p).orientedCode());
+		}
 	}
 	
 	/**
@@ -96,20 +142,10 @@ public class Snake implements Serializable {
 	 * @return The value, or null if the board is empty.
 	 */
 	public Integer end(Side side) {
-		if(snake.isEmpty()) {
+		if(isEmpty()) {
 			return null;
 		}
-		switch(side) {
-			case LEFT: {
-				return snake.getFirst().getLeft();
-			}
-			case RIGHT: {
-				return snake.getLast().getRight();
-			}
-			default: {
-				return null;
-			}
-		}
+		return side == Side.LEFT ? leftEnd : rightEnd;
 	}
 	
 	/**
@@ -129,23 +165,69 @@ public class Snake implements Serializable {
 	
 	public void add(Piece p, Side side) {
 		insert(p, side);
-		for(GameObserver o : game.observers()) {
-			o.onPieceAdded(game.status(), this);
-		}
+		lastAdded = p.code();
+		game.notifyObservers((GameObserver o) -> o.onPieceAdded(game.status(), this));
 	}
 	
 	/**
-	 * Finds the number of elements in a hand that could be placed after a certain piece is played
+	 * Finds the number of elements in a hand that could be placed after a certain piece is played.
+	 * The board is not modified.
 	 * @param piece The piece to be played.
 	 * @param side The side of the snake where the piece will be placed.
 	 * @param hand The hand.
 	 * @return A number representing the result.
 	 */
 	public Integer piecesAddableAfter(Piece piece, Side side, Hand hand) {
-		insert(piece, side);
-		int result = playablePieces(hand).size();
-		snake.remove(piece);
-		return result;
+		int ends = endsAfter(piece.code(), side);
+		if(ends == NO_ENDS) {
+			return hand.count(playableMask(hand));
+		}
+		return hand.countWithValues(leftEnd(ends), rightEnd(ends));
+	}
+	
+	/**
+	 * Computes the ends that the board would have after placing a piece, following the same rules as add.
+	 * The board is not modified, so it can be called concurrently while nobody is placing pieces.
+	 * @param code The code of the piece.
+	 * @param side The preferred side of the board. It is only used if necessary, to disambiguate.
+	 * @return Both ends packed in an integer (see leftEnd and rightEnd), or NO_ENDS if the piece can't be placed.
+	 */
+	public int endsAfter(int code, Side side) {
+		int low = Piece.lowValue(code);
+		int high = Piece.highValue(code);
+		if(isEmpty()) {
+			return ends(low, high);
+		}
+		boolean matchesLeft = low == leftEnd || high == leftEnd;
+		boolean matchesRight = low == rightEnd || high == rightEnd;
+		if(matchesLeft && !(matchesRight && side == Side.RIGHT)) {
+			return ends(low == leftEnd ? high : low, rightEnd);
+		}
+		else if(matchesRight) {
+			return ends(leftEnd, low == rightEnd ? high : low);
+		}
+		return NO_ENDS;
+	}
+	
+	/**
+	 * Packs the values of both ends of a board in an integer.
+	 */
+	public static int ends(int left, int right) {
+		return left << 8 | right;
+	}
+	
+	/**
+	 * Unpacks the left end from the result of endsAfter.
+	 */
+	public static int leftEnd(int ends) {
+		return ends >>> 8;
+	}
+	
+	/**
+	 * Unpacks the right end from the result of endsAfter.
+	 */
+	public static int rightEnd(int ends) {
+		return ends & 0xFF;
 	}
 	
 	/**
@@ -155,7 +237,7 @@ public class Snake implements Serializable {
 	 * @return The result of the check.
 	 */
 	public boolean couldAdd(Piece piece, Hand hand) {
-		if(snake.isEmpty()) {
+		if(isEmpty()) {
 			Integer biggestDoublePieceIndex = hand.biggestDoublePiece();
 			return biggestDoublePieceIndex == null || piece == hand.pieces().get(biggestDoublePieceIndex);
 		}
@@ -169,33 +251,130 @@ public class Snake implements Serializable {
 	 * @return The indexes of the pieces.
 	 */
 	public List<Integer> playablePieces(Hand hand) {
-		Predicate<Piece> filteringCriteria = (Piece p) -> matchesASide(p);
-		if(snake.isEmpty()) {
+		if(isEmpty()) {
 			Integer index = hand.biggestDoublePiece();
 			if(index != null) {
 				return Collections.singletonList(index);
 			}
 		}
-		return hand.filter(filteringCriteria);
+		int[] indexes = hand.indexes(playableMask(hand));
+		List<Integer> result = new ArrayList<>(indexes.length);
+		for(int i : indexes) {
+			result.add(i);
+		}
+		return result;
+	}
+	
+	/**
+	 * Finds the pieces of a hand that can be placed in the current turn, following the same rules as playablePieces.
+	 * @param hand The hand.
+	 * @return A mask with the codes of the pieces.
+	 */
+	public long[] playableMask(Hand hand) {
+		long[] result = PieceMask.create();
+		long[] handMask = hand.mask();
+		if(isEmpty()) {
+			int biggestDouble = PieceMask.highestInBoth(handMask, Piece.DOUBLES_MASK);
+			if(biggestDouble >= 0) {
+				PieceMask.add(result, biggestDouble);
+			}
+			else {
+				System.arraycopy(handMask, 0, result, 0, PieceMask.WORDS);
+			}
+			return result;
+		}
+		long[] left = Piece.valueMask(leftEnd);
+		long[] right = Piece.valueMask(rightEnd);
+		for(int i = 0; i < PieceMask.WORDS; i++) {
+			result[i] = handMask[i] & (left[i] | right[i]);
+		}
+		return result;
+	}
+	
+	/**
+	 * Checks if any piece of a hand can be placed in the current turn.
+	 * @param hand The hand.
+	 * @return The result of the check.
+	 */
+	public boolean canPlay(Hand hand) {
+		if(isEmpty()) {
+			return !hand.empty();
+		}
+		return hand.countWithValues(leftEnd, rightEnd) > 0;
 	}
 	
 	/**
 	 * Removes all pieces in the board.
 	 */
 	public void clear() {
-		snake.clear();
+		first = cells.length / 2;
+		last = first;
+		leftEnd = -1;
+		rightEnd = -1;
 	}
 	
-	public List<Piece> pieces() {
-		return Collections.unmodifiableList(snake);
+	/**
+	 * Appends a piece to the right end of the board, as it is, without checking if it matches.
+	 * Only meant to restore a board that has been saved or received.
+	 * @param orientedCode The oriented code of the piece.
+	 */
+	void append(int orientedCode) {
+		addLast(orientedCode);
+	}
+	
+	/**
+	 * Returns the code of the last piece placed with add, for the observers of onPieceAdded.
+	 */
+	int lastAdded() {
+		return lastAdded;
+	}
+	
+	/**
+	 * Returns the oriented code of the piece in a certain position, from left to right.
+	 */
+	int orientedCode(int index) {
+		return cells[first + index];
 	}
 	
+	public boolean isEmpty() {
+		return first == last;
+	}
+	
+	public int size() {
+		return last - first;
+	}
+	
+	/**
+	 * Returns a read-only view of the board, from left to right.
+	 * The pieces are built on demand, so they shouldn't be kept between turns.
+	 */
+	public List<Piece> pieces() {
+		return new AbstractList<Piece>() {
+			@Override
+			public Piece get(int index) {
+				if(index < 0 || index >= size()) {
+					throw new IndexOutOfBoundsException(index);
+				}
+				return Piece.fromOrientedCode(cells[first + index]);
+			}
+			
+			@Override
+			public int size() {
+				return Snake.this.size();
+			}
+		};
+	}
 
  	@Override
  	public String toString() {
- 		return snake.stream()
- 					.map((Piece p) -> p.toString())
- 					.collect(Collectors.joining(" "));
+ 		StringBuilder s = new StringBuilder();
+ 		for(int i = first; i < last; i++) {
+ 			if(i > first) {
+ 				s.append(' ');
+ 			}
+ 			s.append('(').append(Piece.leftValue(cells[i])).append('|').append(Piece.rightValue(cells[i])).append(')');
+ 		}
+ 		return s.toString();
  	}
 	
 	public Memento createMemento() throws JSONException {
@@ -209,7 +388,7 @@ public class Snake implements Serializable {
 		
 		public Memento(Snake snake) throws JSONException {
 			mementoSnake = new LinkedList<>();
-			for(Piece p: snake.snake)
+			for(Piece p: snake.pieces())
 				mementoSnake.add(p.createMemento());
 			
 			state = new JSONArray();
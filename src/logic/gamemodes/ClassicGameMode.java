@@ -12,6 +12,7 @@ import logic.Piece;
 import logic.Player;
 import logic.RandomPlacementStrategy;
 import logic.movements.Movement;
+import logic.search.SearchRules;
 import logic.Hand;
 
 public class ClassicGameMode implements GameMode {
@@ -19,7 +20,8 @@ public class ClassicGameMode implements GameMode {
 	private static final long serialVersionUID = 1L;
 
 	private static final String[] PARAMETERS = {
-		"Max. number of rounds"
+		"Max. number of rounds",
+		PieceSets.PARAMETER
 	};
 	
 	private static final AIStrategy[] VIABLE_STRATEGIES = {
@@ -28,23 +30,29 @@ public class ClassicGameMode implements GameMode {
 	};
 	
 	private Integer nRounds;
+	private int highestValue;
 
 	private int handScore(Hand h) {
-		return h.pieces().stream()
-						 .map((Piece p) -> pieceScore(p))
-						 .reduce(0, (Integer a, Integer b) -> a + b);
+		return h.pipCount();		// Same as adding the pieceScore of every piece
 	}
 	
 	public ClassicGameMode() {
 		this.nRounds = null;
+		this.highestValue = Piece.DEFAULT_HIGHEST_VALUE;
 	}
 	
 	public ClassicGameMode(int maxRounds) {
+		this(maxRounds, Piece.DEFAULT_HIGHEST_VALUE);
+	}
+	
+	public ClassicGameMode(int maxRounds, int highestValue) {
 		this.nRounds = maxRounds;
+		this.highestValue = highestValue;
 	}
 	
 	public ClassicGameMode(MementoGameMode memento) throws JSONException {
 		this.nRounds = memento.getState().getInt("number rounds");
+		this.highestValue = memento.getState().optInt(PieceSets.MEMENTO_KEY, Piece.DEFAULT_HIGHEST_VALUE);
 	}
 	
 	public int pieceScore(Piece p) {
@@ -66,6 +74,7 @@ public class ClassicGameMode implements GameMode {
 			else if(rounds % 2 == 0) {
 				throw new IllegalArgumentException("The maximum number of rounds must be odd!");
 			}
+			highestValue = PieceSets.parse(params, 1);
 			nRounds = rounds;
 		}
 		catch(NumberFormatException nfe) {
@@ -73,6 +82,16 @@ public class ClassicGameMode implements GameMode {
 		}		
 	}
 
+	@Override
+	public String[] parameterValues() {
+		return new String[] {String.valueOf(nRounds), String.valueOf(highestValue)};
+	}
+	
+	@Override
+	public int highestValue() {
+		return highestValue;
+	}
+
 	@Override
 	public boolean checkGameEnd(Game game){
 		return game.players().stream().anyMatch((Player p) -> p.globalScore() > nRounds / 2);
@@ -129,6 +148,16 @@ public class ClassicGameMode implements GameMode {
 	public AIStrategy[] viableStrategies() {
 		return VIABLE_STRATEGIES;
 	}
+	
+	@Override
+	public SearchRules searchRules() {
+		return SearchRules.roundsWon();
+	}
+	
+	@Override
+	public GameMode newInstance() {
+		return new ClassicGameMode();
+	}
 
 	@Override
 	public MementoGameMode createMemento() throws JSONException {
@@ -142,18 +171,22 @@ public class ClassicGameMode implements GameMode {
 	public static class Memento implements MementoGameMode{
 		protected static final int gameModeIndex = 0;           //Indice lista de modos de juego
 		protected int nRounds;
+		protected int highestValue;
 		protected JSONObject state;
 		
 		public Memento(ClassicGameMode mode) throws JSONException {
 			nRounds = mode.nRounds;
+			highestValue = mode.highestValue;
 			state = new JSONObject();
 			state.put("mode", gameModeIndex);
 			state.put("number rounds", nRounds);
+			state.put(PieceSets.MEMENTO_KEY, highestValue);
 		}
 		
 		public Memento(JSONObject json) throws JSONException {
 			state = json;
 			nRounds = json.getInt("number rounds");
+			highestValue = json.optInt(PieceSets.MEMENTO_KEY, Piece.DEFAULT_HIGHEST_VALUE);
 		}
 
 		@Override
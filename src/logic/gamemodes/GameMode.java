@@ -8,12 +8,15 @@ import org.json.JSONException;
 import logic.AIStrategy;
 import logic.Game;
 import logic.Player;
+import logic.search.SearchRules;
 import logic.movements.Movement;
 
 public interface GameMode extends Serializable {
 	public String[] parameters();
 	public String globalScoreName();
 	public void initialize(String[] params) throws IllegalArgumentException;
+	public String[] parameterValues();
+	public int highestValue();
 	public void updateScore(Movement m);
 	public Function<Player, Integer> initialScoreFunction();
 	public Player checkRoundWinner(Game game);
@@ -21,6 +24,8 @@ public interface GameMode extends Serializable {
 	public Player currentWinner(Game game);
 	public void updateGlobalScore(Game game, Player roundWinner);
 	public AIStrategy[] viableStrategies();
+	public SearchRules searchRules();
+	public GameMode newInstance();
 	MementoGameMode createMemento() throws JSONException;
 }
 
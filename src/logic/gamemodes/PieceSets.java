@@ -0,0 +1,41 @@
+package logic.gamemodes;
+
+import logic.Piece;
+
+/**
+ * The sets of pieces a game can be played with, named after their highest value, which every game mode takes as a parameter.
+ * It's optional, so games saved or created before it existed use the double-six set.
+ */
+class PieceSets {
+	
+	static final String PARAMETER = "Highest value (6, 9, 12 or 15)";
+	static final String MEMENTO_KEY = "highest value";
+	
+	private static final int[] HIGHEST_VALUES = {6, 9, 12, 15};
+	
+	/**
+	 * Reads the highest value of the set from the parameters of a game mode.
+	 * @param params The parameters.
+	 * @param index The position of the highest value, which may be missing or blank.
+	 * @return The highest value.
+	 */
+	static int parse(String[] params, int index) throws IllegalArgumentException {
+		if(params.length <= index || params[index].isBlank()) {
+			return Piece.DEFAULT_HIGHEST_VALUE;
+		}
+		try {
+			int value = Integer.parseInt(params[index].trim());
+			for(int v : HIGHEST_VALUES) {
+				if(v == value) {
+					return value;
+				}
+			}
+		}
+		catch(NumberFormatException nfe) {}
+		throw new IllegalArgumentException("The highest value must be 6, 9, 12 or 15!");
+	}
+	
+	// Prevent instantiation
+	private PieceSets() {}
+
+}
@@ -11,6 +11,7 @@ import logic.Piece;
 import logic.Player;
 import logic.RandomPlacementStrategy;
 import logic.movements.Movement;
+import logic.search.SearchRules;
 import logic.HighestScorePlacementStrategy;
 
 public class ScoreGameMode implements GameMode {
@@ -20,7 +21,8 @@ public class ScoreGameMode implements GameMode {
 	private static final int MINIMUM_WINNING_SCORE = 50;
 	
 	private static final String[] PARAMETERS = {
-		"Winning score"
+		"Winning score",
+		PieceSets.PARAMETER
 	};
 	
 	private static final AIStrategy[] VIABLE_STRATEGIES = {
@@ -29,13 +31,25 @@ public class ScoreGameMode implements GameMode {
 	};
 	
 	private Integer scoreEnd;
+	private int highestValue;
 	
 	public ScoreGameMode() {
 		this.scoreEnd = null;
+		this.highestValue = Piece.DEFAULT_HIGHEST_VALUE;
+	}
+	
+	public ScoreGameMode(int winningScore) {
+		this(winningScore, Piece.DEFAULT_HIGHEST_VALUE);
+	}
+	
+	public ScoreGameMode(int winningScore, int highestValue) {
+		this.scoreEnd = winningScore;
+		this.highestValue = highestValue;
 	}
 	
 	public ScoreGameMode(MementoGameMode memento) throws JSONException {
 		this.scoreEnd = memento.getState().getInt("score end");
+		this.highestValue = memento.getState().optInt(PieceSets.MEMENTO_KEY, Piece.DEFAULT_HIGHEST_VALUE);
 	}
 	
 	public int pieceScore(Piece p) {
@@ -54,6 +68,7 @@ public class ScoreGameMode implements GameMode {
 			if(score < MINIMUM_WINNING_SCORE) {
 				throw new IllegalArgumentException("The winning score must be " + MINIMUM_WINNING_SCORE + " or more!");
 			}
+			highestValue = PieceSets.parse(params, 1);
 			scoreEnd = score;
 		}
 		catch(NumberFormatException nfe) {
@@ -61,6 +76,16 @@ public class ScoreGameMode implements GameMode {
 		}		
 	}
 
+	@Override
+	public String[] parameterValues() {
+		return new String[] {String.valueOf(scoreEnd), String.valueOf(highestValue)};
+	}
+	
+	@Override
+	public int highestValue() {
+		return highestValue;
+	}
+
 	@Override
 	public boolean checkGameEnd(Game game) {
 		return game.players().stream().anyMatch((Player p) -> p.globalScore() > scoreEnd);
@@ -118,6 +143,16 @@ public class ScoreGameMode implements GameMode {
 		return VIABLE_STRATEGIES;
 	}
 	
+	@Override
+	public SearchRules searchRules() {
+		return SearchRules.pointsScored(scoreEnd);
+	}
+	
+	@Override
+	public GameMode newInstance() {
+		return new ScoreGameMode();
+	}
+	
 	@Override
 	public MementoGameMode createMemento() throws JSONException {
 		return new Memento(this);
@@ -130,18 +165,22 @@ public class ScoreGameMode implements GameMode {
 	public static class Memento implements MementoGameMode{
 		protected static final int gameModeIndex = 1;           //Indice lista de modos de juego
 		protected int scoreEnd;
+		protected int highestValue;
 		protected JSONObject state;
 		
 		public Memento(ScoreGameMode mode) throws JSONException {
 			scoreEnd = mode.scoreEnd;
+			highestValue = mode.highestValue;
 			state = new JSONObject();
 			state.put("mode", gameModeIndex);
 			state.put("score end", scoreEnd);
+			state.put(PieceSets.MEMENTO_KEY, highestValue);
 		}
 		
 		public Memento(JSONObject json) throws JSONException {
 			state = json;
 			scoreEnd = json.getInt("score end");
+			highestValue = json.optInt(PieceSets.MEMENTO_KEY, Piece.DEFAULT_HIGHEST_VALUE);
 		}
 
 		@Override
@@ -1,5 +1,8 @@
 package logic.movements;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.io.Serializable;
 
 import logic.Game;
@@ -26,6 +29,21 @@ public abstract class Movement implements Serializable, ScoreUpdater {
 		return null;
 	}
 	
+	/**
+	 * Writes the arguments of the movement in binary form.
+	 * @param out The output.
+	 */
+	void writeArguments(DataOutput out) throws IOException {}
+	
+	/**
+	 * Reads the arguments written by writeArguments.
+	 * @param in The input.
+	 * @return A movement with those arguments.
+	 */
+	Movement readArguments(DataInput in) throws IOException {
+		return this;
+	}
+	
 	public abstract void execute(Game game, Player player) throws UnallowedMovementException;
 	
 	@Override
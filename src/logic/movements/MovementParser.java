@@ -1,5 +1,10 @@
 package logic.movements;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+
 import logic.exceptions.MovementFormatException;
 import logic.exceptions.UnrecognizedMovementException;
 
@@ -22,6 +27,35 @@ public class MovementParser {
 		throw new UnrecognizedMovementException("The given input doesn't match any command!"); 
 	}
 	
+	/**
+	 * Writes a movement in binary form: its position in the list of available movements, followed by its arguments.
+	 * @param m The movement.
+	 * @param out The output.
+	 */
+	public static void writeMovement(Movement m, DataOutput out) throws IOException {
+		for(int i = 0; i < AVAILABLE_MOVEMENTS.length; i++) {
+			if(AVAILABLE_MOVEMENTS[i].getClass() == m.getClass()) {
+				out.writeByte(i);
+				m.writeArguments(out);
+				return;
+			}
+		}
+		throw new IllegalArgumentException("Unknown movement: " + m.getClass().getSimpleName());
+	}
+	
+	/**
+	 * Reads a movement written by writeMovement.
+	 * @param in The input.
+	 * @return The movement.
+	 */
+	public static Movement readMovement(DataInput in) throws IOException {
+		int type = in.readUnsignedByte();
+		if(type >= AVAILABLE_MOVEMENTS.length) {
+			throw new StreamCorruptedException("Unknown movement: " + type);
+		}
+		return AVAILABLE_MOVEMENTS[type].readArguments(in);
+	}
+	
 	// Prevent instantiation
 	private MovementParser() {}
 	
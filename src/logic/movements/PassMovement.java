@@ -1,5 +1,7 @@
 package logic.movements;
 
+import java.io.DataInput;
+
 import logic.Game;
 import logic.Player;
 import logic.Piece;
@@ -21,12 +23,17 @@ public class PassMovement extends Movement {
 		this.player = null;
 	}
 	
+	@Override
+	Movement readArguments(DataInput in) {
+		return new PassMovement();		// It keeps track of its execution, so it can't be shared
+	}
+	
 	@Override
 	public void execute(Game game, Player player) throws UnallowedMovementException {
 		
 		this.player = player;
 		
-		if(game.board().playablePieces(player.hand()).isEmpty()) {
+		if(!game.board().canPlay(player.hand())) {
 			if(game.deck().size() == 0) {
 				drawn = null;
 				game.status().stall(player);
@@ -1,6 +1,12 @@
 package logic.movements;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+
 import logic.Game;
+import logic.GameSnapshot;
 import logic.Piece;
 import logic.Player;
 import logic.Snake;
@@ -71,6 +77,22 @@ public class PlaceMovement extends Movement {
 		return null;
 	}
 	
+	@Override
+	void writeArguments(DataOutput out) throws IOException {
+		GameSnapshot.writeVarInt(out, index);
+		out.writeByte(side == null ? -1 : side.ordinal());
+	}
+	
+	@Override
+	Movement readArguments(DataInput in) throws IOException {
+		int ind = GameSnapshot.readVarInt(in);
+		int sideIndex = in.readByte();
+		if(sideIndex < -1 || sideIndex >= Snake.Side.values().length) {
+			throw new StreamCorruptedException("Invalid side: " + sideIndex);
+		}
+		return new PlaceMovement(ind, sideIndex < 0 ? null : Snake.Side.values()[sideIndex]);
+	}
+	
 	@Override
 	public void execute(Game game, Player player) throws UnallowedMovementException {
 		if(index < 0 || index >= player.hand().pieces().size()) {
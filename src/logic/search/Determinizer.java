@@ -0,0 +1,235 @@
+package logic.search;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import logic.BeliefTracker;
+import logic.Game;
+import logic.Hand;
+import logic.Piece;
+import logic.PieceMask;
+import logic.Player;
+import logic.Snake;
+
+/**
+ * What a player knows about a round, from which positions consistent with it are sampled:
+ * the pieces that player hasn't seen are dealt at random to the other hands and the deck, keeping their sizes.
+ * The other players only get pieces they could hold according to the player's BeliefTracker.
+ * Each thread needs its own copy, as sampling uses scratch space.
+ */
+public class Determinizer {
+	
+	private static final int MAX_ATTEMPTS = 8;
+	
+	private final Position known;			// Everything the player knows, with the other hands and the deck empty
+	private final int observer;
+	private final int[] unknown;			// Codes of the pieces the player hasn't seen, with repetitions
+	private final int[] handSizes;
+	private final int deckSize;
+	private final long[][] excluded;		// Pieces each seat can't hold, or null
+	private final int capacity;
+	private final SearchRules rules;
+	private final int[] pool;				// Scratch copy of unknown, shuffled on every sample
+	
+	private Determinizer(Determinizer other) {
+		this.known = other.known;
+		this.observer = other.observer;
+		this.unknown = other.unknown;
+		this.handSizes = other.handSizes;
+		this.deckSize = other.deckSize;
+		this.excluded = other.excluded;
+		this.capacity = other.capacity;
+		this.rules = other.rules;
+		this.pool = new int[unknown.length];
+	}
+	
+	/**
+	 * Gathers what a player knows about the current round of a game. It must be called from the game's thread.
+	 * @param game The game.
+	 * @param hand The hand of the player.
+	 */
+	public Determinizer(Game game, Hand hand) {
+		List<Player> players = game.players();
+		int highestValue = game.status().gameMode().highestValue();
+		int deckCount = game.deck().deckCount();
+		this.rules = game.status().gameMode().searchRules();
+		this.capacity = Piece.codeCount(highestValue) * deckCount;
+		this.known = new Position(rules, players.size(), capacity);
+		this.handSizes = new int[players.size()];
+		this.excluded = new long[players.size()][];
+		this.deckSize = game.deck().size();
+		
+		int seat = -1;
+		for(int i = 0; i < players.size(); i++) {
+			Player p = players.get(i);
+			handSizes[i] = p.hand().size();
+			known.setScores(i, p.roundScore(), p.globalScore());
+			if(p.hand() == hand) {
+				seat = i;
+			}
+			if(p == game.status().currentPlayer()) {
+				known.setCurrent(i);
+			}
+		}
+		if(seat < 0) {
+			throw new IllegalArgumentException("The hand doesn't belong to any player of the game");
+		}
+		this.observer = seat;
+		
+		int[] counts = new int[Piece.codeCount(highestValue)];
+		Arrays.fill(counts, deckCount);
+		for(Piece p : hand.pieces()) {
+			known.addToHand(observer, p.code());
+			counts[p.code()]--;
+		}
+		Snake board = game.board();
+		for(Piece p : board.pieces()) {
+			counts[p.code()]--;
+		}
+		if(!board.isEmpty()) {
+			known.setEnds(board.end(Snake.Side.LEFT), board.end(Snake.Side.RIGHT));
+		}
+		int unknownCount = 0;
+		for(int c : counts) {
+			unknownCount += Math.max(c, 0);
+		}
+		this.unknown = new int[unknownCount];
+		int j = 0;
+		for(int code = 0; code < counts.length; code++) {
+			for(int k = 0; k < counts[code]; k++) {
+				unknown[j++] = code;
+			}
+		}
+		this.pool = new int[unknownCount];
+		
+		for(Player p : game.status().stalledPlayers()) {
+			int i = players.indexOf(p);
+			if(i >= 0) {
+				known.stall(i);
+			}
+		}
+		BeliefTracker beliefs = game.beliefs(players.get(observer));
+		long[] unseen = beliefs.unseenPieces();
+		for(int i = 0; i < players.size(); i++) {
+			if(i == observer) {
+				continue;
+			}
+			long[] possible = beliefs.possiblePieces(players.get(i));
+			long[] mask = PieceMask.create();
+			for(int w = 0; w < PieceMask.WORDS; w++) {
+				mask[w] = unseen[w] & ~possible[w];
+			}
+			if(!PieceMask.isEmpty(mask)) {
+				excluded[i] = mask;
+			}
+		}
+	}
+	
+	/**
+	 * Creates a copy that can sample positions in another thread.
+	 */
+	public Determinizer copy() {
+		return new Determinizer(this);
+	}
+	
+	/**
+	 * Deals the pieces in the shuffled pool to the other hands, constrained ones first, and the rest to the deck.
+	 * @param constrained If the pieces each seat can't hold are taken into account.
+	 * @return False if a constrained hand couldn't be filled.
+	 */
+	private boolean deal(Position into, boolean constrained) {
+		into.copyFrom(known);
+		int next = 0;
+		for(int pass = 0; pass < 2; pass++) {
+			for(int seat = 0; seat < handSizes.length; seat++) {
+				boolean hasConstraint = constrained && excluded[seat] != null;
+				if(seat == observer || hasConstraint != (pass == 0)) {
+					continue;
+				}
+				for(int k = 0; k < handSizes[seat] && next < pool.length; k++) {
+					int j = next;
+					while(hasConstraint && j < pool.length && PieceMask.contains(excluded[seat], pool[j])) {
+						j++;
+					}
+					if(j == pool.length) {
+						return false;
+					}
+					int code = pool[j];
+					pool[j] = pool[next];
+					pool[next++] = code;
+					into.addToHand(seat, code);
+				}
+			}
+		}
+		for(int k = 0; k < deckSize && next < pool.length; k++) {
+			into.pushToDeck(pool[next++]);
+		}
+		return true;
+	}
+	
+	/**
+	 * Samples a position consistent with what the player knows.
+	 * If the constraints can't be met after a few attempts, they are ignored.
+	 * @param random The random source.
+	 * @param into The position where it's stored, created by newPosition.
+	 * @return The same position.
+	 */
+	public Position sample(SplittableRandom random, Position into) {
+		for(int attempt = 0; attempt <= MAX_ATTEMPTS; attempt++) {
+			System.arraycopy(unknown, 0, pool, 0, pool.length);
+			for(int i = pool.length - 1; i > 0; i--) {
+				int j = random.nextInt(i + 1);
+				int code = pool[i];
+				pool[i] = pool[j];
+				pool[j] = code;
+			}
+			if(deal(into, attempt < MAX_ATTEMPTS)) {
+				return into;
+			}
+		}
+		return into;
+	}
+	
+	/**
+	 * Tells if there is only one position consistent with what the player knows,
+	 * as every piece the player hasn't seen must be in the same hand, or in the deck:
+	 * in two-player games, once the deck is empty.
+	 */
+	public boolean isDetermined() {
+		int places = deckSize > 0 ? 1 : 0;
+		for(int seat = 0; seat < handSizes.length; seat++) {
+			if(seat != observer && handSizes[seat] > 0) {
+				places++;
+			}
+		}
+		return places <= 1;
+	}
+	
+	/**
+	 * Deals the pieces the player hasn't seen without shuffling them, which gives the only consistent position
+	 * when isDetermined.
+	 * @param into The position where it's stored, created by newPosition.
+	 * @return The same position.
+	 */
+	public Position determine(Position into) {
+		System.arraycopy(unknown, 0, pool, 0, pool.length);
+		deal(into, false);
+		return into;
+	}
+	
+	/**
+	 * Creates an empty position with room for this round.
+	 */
+	public Position newPosition() {
+		return new Position(rules, handSizes.length, capacity);
+	}
+	
+	/**
+	 * Returns the seat of the player whose knowledge this is.
+	 */
+	public int observer() {
+		return observer;
+	}
+
+}
@@ -0,0 +1,279 @@
+package logic.search;
+
+import logic.Piece;
+
+/**
+ * Exact solver of the end of a two-player round once the deck is empty, when every piece is known:
+ * minimax with alpha-beta pruning, remembering the value of every position searched.
+ * Positions are keyed by a compact encoding that fits in a long: one bit per piece left in the hands,
+ * the values of both ends, the player in turn and the stalled players. Nothing else has to be kept,
+ * as the scores only depend on which pieces have been placed when no piece can be drawn.
+ * The values are the same as Position.reward, for the player the solver is created for.
+ * When a tablebase is installed, the positions it covers aren't searched: when rounds are won, their values are read from it,
+ * and when pieces score, the solver follows the moves it gives from the start, as it rates the difference of points instead.
+ */
+public class EndgameSolver {
+	
+	/**
+	 * Maximum amount of pieces in the hands, as each one takes a bit of the key.
+	 */
+	public static final int MAX_PIECES = 40;
+	
+	private static final int END_BITS = 5;
+	private static final int INITIAL_MEMO_BITS = 12;
+	private static final byte EXACT = 0;
+	private static final byte LOWER_BOUND = 1;
+	private static final byte UPPER_BOUND = 2;
+	
+	/**
+	 * Result of solving a position: the best move, and its value.
+	 */
+	public static class Result {
+		
+		private final int move;
+		private final double value;
+		private final int positions;
+		
+		private Result(int move, double value, int positions) {
+			this.move = move;
+			this.value = value;
+			this.positions = positions;
+		}
+		
+		/**
+		 * Returns the best move of the player in turn (see Position).
+		 */
+		public int move() {
+			return move;
+		}
+		
+		/**
+		 * Returns the value of the position with perfect play, for the player the solver was created for, as in Position.reward.
+		 */
+		public double value() {
+			return value;
+		}
+		
+		/**
+		 * Returns the amount of positions remembered.
+		 */
+		public int positions() {
+			return positions;
+		}
+	
+	}
+	
+	private final Position position;
+	private final int root;
+	private final Tablebase tablebase;		// Only probed when rounds are won, or null
+	private final int[][] bits;				// Bit of the key of each piece, by seat and code
+	private final int[][] moves;			// Scratch space for the moves of each ply
+	private long pieces;					// Bits of the pieces left in the hands
+	private long[] keys;					// Open addressing memo, where 0 is an empty slot
+	private double[] values;
+	private byte[] bounds;
+	private int[] bestMoves;
+	private int size;
+	
+	private EndgameSolver(Position position, int root) {
+		this.position = position;
+		this.root = root;
+		Tablebase installed = Tablebase.installed();
+		this.tablebase = position.rules().placedPiecesScore() ? null : installed;
+		this.bits = new int[2][Piece.CODE_COUNT];
+		int pieceCount = 0;
+		for(int seat = 0; seat < 2; seat++) {
+			for(int i = 0; i < position.handSize(seat); i++) {
+				bits[seat][position.handPiece(seat, i)] = pieceCount++;
+			}
+		}
+		this.pieces = pieceCount == Long.SIZE ? -1 : (1L << pieceCount) - 1;
+		this.moves = new int[2 * pieceCount + 3][position.moveCapacity()];		// A player can only pass before a piece is placed, or at the end
+		allocate(INITIAL_MEMO_BITS);
+	}
+	
+	private void allocate(int memoBits) {
+		keys = new long[1 << memoBits];
+		values = new double[keys.length];
+		bounds = new byte[keys.length];
+		bestMoves = new int[keys.length];
+		size = 0;
+	}
+	
+	private long key() {
+		int low = Math.min(position.leftEnd(), position.rightEnd()) + 1;
+		int high = Math.max(position.leftEnd(), position.rightEnd()) + 1;
+		return pieces | (long) low << MAX_PIECES | (long) high << MAX_PIECES + END_BITS
+				| (long) position.current() << MAX_PIECES + 2 * END_BITS | (long) position.stalledSeats() << MAX_PIECES + 2 * END_BITS + 1;
+	}
+	
+	/**
+	 * Finds the slot of a key: the one holding it, or the empty one where it would go.
+	 */
+	private int slot(long key) {
+		int mask = keys.length - 1;
+		long h = key * 0x9E3779B97F4A7C15L;
+		int slot = (int) (h ^ h >>> 32) & mask;
+		while(keys[slot] != 0 && keys[slot] != key) {
+			slot = slot + 1 & mask;
+		}
+		return slot;
+	}
+	
+	private void remember(long key, double value, byte bound, int move) {
+		int slot = slot(key);
+		if(keys[slot] == 0) {
+			if(2 * (size + 1) > keys.length) {
+				long[] oldKeys = keys;
+				double[] oldValues = values;
+				byte[] oldBounds = bounds;
+				int[] oldMoves = bestMoves;
+				allocate(Integer.numberOfTrailingZeros(oldKeys.length) + 1);
+				for(int i = 0; i < oldKeys.length; i++) {
+					if(oldKeys[i] != 0) {
+						int s = slot(oldKeys[i]);
+						keys[s] = oldKeys[i];
+						values[s] = oldValues[i];
+						bounds[s] = oldBounds[i];
+						bestMoves[s] = oldMoves[i];
+						size++;
+					}
+				}
+				slot = slot(key);
+			}
+			size++;
+		}
+		keys[slot] = key;
+		values[slot] = value;
+		bounds[slot] = bound;
+		bestMoves[slot] = move;
+	}
+	
+	/**
+	 * Searches the exact value of the position if it's between alpha and beta, or a bound otherwise (fail-soft alpha-beta).
+	 * @param ply The turns searched so far.
+	 */
+	private double value(int ply, double alpha, double beta) {
+		if(position.isOver()) {
+			return position.reward(root);
+		}
+		if(tablebase != null && tablebase.covers(position)) {
+			return tablebase.wins(position) == (position.current() == root) ? 1 : 0;
+		}
+		long key = key();
+		int slot = slot(key);
+		int hashMove = Position.PASS;
+		if(keys[slot] == key) {
+			double value = values[slot];
+			byte bound = bounds[slot];
+			if(bound == EXACT || bound == LOWER_BOUND && value >= beta || bound == UPPER_BOUND && value <= alpha) {
+				return value;
+			}
+			hashMove = bestMoves[slot];
+		}
+		
+		int[] moves = this.moves[ply];
+		int count = position.legalMoves(moves);
+		for(int i = 1; i < count; i++) {
+			if(moves[i] == hashMove) {
+				moves[i] = moves[0];
+				moves[0] = hashMove;
+				break;
+			}
+		}
+		int seat = position.current();
+		boolean maximizing = seat == root;
+		double a = alpha;
+		double b = beta;
+		double result = maximizing ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+		int best = Position.PASS;
+		for(int i = 0; i < count; i++) {
+			int move = moves[i];
+			long bit = move == Position.PASS ? 0 : 1L << bits[seat][Position.code(move)];
+			pieces &= ~bit;
+			long saved = position.apply(move, -1);
+			double value = value(ply + 1, a, b);
+			position.undo(move, saved);
+			pieces |= bit;
+			if(maximizing ? value > result : value < result) {
+				result = value;
+				best = move;
+			}
+			if(maximizing) {
+				a = Math.max(a, value);
+			}
+			else {
+				b = Math.min(b, value);
+			}
+			if(a >= b) {
+				break;
+			}
+		}
+		remember(key, result, result <= alpha ? UPPER_BOUND : result >= beta ? LOWER_BOUND : EXACT, best);
+		return result;
+	}
+	
+	/**
+	 * Tells if a position can be solved: it has two players, the deck is empty, the hands have at most MAX_PIECES pieces
+	 * between both, and no hand has the same piece twice.
+	 */
+	public static boolean canSolve(Position position) {
+		if(position.playerCount() != 2 || position.deckSize() != 0 || position.isOver()
+				|| position.handSize(0) + position.handSize(1) > MAX_PIECES) {
+			return false;
+		}
+		for(int seat = 0; seat < 2; seat++) {
+			for(int i = 0; i < position.handSize(seat); i++) {
+				for(int j = i + 1; j < position.handSize(seat); j++) {
+					if(position.handPiece(seat, i) == position.handPiece(seat, j)) {
+						return false;
+					}
+				}
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Plays the best moves of a tablebase until the round ends, to find the value of the position.
+	 */
+	private static Result followTablebase(Tablebase tablebase, Position position, int root) {
+		int first = tablebase.bestMove(position);
+		int[] moves = new int[2 * (position.handSize(0) + position.handSize(1)) + 2];
+		long[] saved = new long[moves.length];
+		int played = 0;
+		for(int move = first; !position.isOver(); move = tablebase.bestMove(position)) {
+			moves[played] = move;
+			saved[played++] = position.apply(move, -1);
+		}
+		double value = position.reward(root);
+		while(played > 0) {
+			played--;
+			position.undo(moves[played], saved[played]);
+		}
+		return new Result(first, value, 0);
+	}
+	
+	/**
+	 * Finds the best move of the player in turn, and the value of the position with perfect play.
+	 * The position is played and undone, but it's left as it was.
+	 * @param position The position, which must pass canSolve.
+	 * @param root The seat of the player the values are for.
+	 * @return The result.
+	 */
+	public static Result solve(Position position, int root) {
+		if(!canSolve(position)) {
+			throw new IllegalArgumentException("The position can't be solved exactly");
+		}
+		Tablebase tablebase = Tablebase.installed();
+		if(tablebase != null && tablebase.covers(position)) {
+			return followTablebase(tablebase, position, root);
+		}
+		EndgameSolver solver = new EndgameSolver(position, root);
+		double value = solver.value(0, 0, 1);
+		long key = solver.key();
+		int slot = solver.slot(key);
+		return new Result(solver.bestMoves[slot], value, solver.size);
+	}
+
+}
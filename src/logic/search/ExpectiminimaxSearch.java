@@ -0,0 +1,307 @@
+package logic.search;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import logic.Piece;
+
+/**
+ * Depth-limited expectiminimax: the player the search is done for maximizes its value and every other player minimizes it,
+ * while drawing from the deck is a chance node, whose value is the average over the pieces that can be drawn.
+ * The hidden hands are fixed by sampling a few positions consistent with what the player knows, which are all searched
+ * and whose values are added up. Positions are searched with alpha-beta pruning, remembering their values in a transposition table,
+ * and deeper and deeper (iterative deepening) until the time runs out, keeping the move of the last depth completed.
+ * Positions beyond the depth limit are estimated: by the share of points scored, when pieces score when placed,
+ * or by the sizes of the hands otherwise.
+ * Depths are counted in turns, including passes; drawing a piece doesn't add any.
+ */
+public class ExpectiminimaxSearch {
+	
+	private static final int CLOCK_CHECK_INTERVAL = 1024;
+	private static final double HAND_SIZE_WEIGHT = 0.1;		// Estimated value of each piece less than the smallest opposing hand
+	private static final int COMPLETE = Short.MAX_VALUE;	// Depth of the entries whose subtrees weren't cut by the depth limit
+	
+	/**
+	 * Result of a search: the move chosen, and how much work was done to choose it.
+	 */
+	public static class Result {
+		
+		private final int move;
+		private final int depth;
+		private final long nodes;
+		
+		private Result(int move, int depth, long nodes) {
+			this.move = move;
+			this.depth = depth;
+			this.nodes = nodes;
+		}
+		
+		/**
+		 * Returns the move chosen (see Position).
+		 */
+		public int move() {
+			return move;
+		}
+		
+		/**
+		 * Returns the deepest depth completed, or 0 if nothing was searched.
+		 */
+		public int depth() {
+			return depth;
+		}
+		
+		/**
+		 * Returns the amount of positions searched.
+		 */
+		public long nodes() {
+			return nodes;
+		}
+	
+	}
+	
+	private final Position position;
+	private final TranspositionTable table;
+	private final int root;
+	private final long deadline;
+	private final int[][] moves;			// Scratch space for the moves of each ply
+	private final int[][] drawCounts;		// Scratch space for the pieces that can be drawn at each ply, by code
+	private long pieces;					// Zobrist hash of the pieces of the position
+	private long nodes;
+	private boolean timedOut;
+	private boolean truncated;				// If the current subtree was cut by the depth limit
+	
+	private ExpectiminimaxSearch(Position position, TranspositionTable table, int root, long deadline, int maxDepth) {
+		this.position = position;
+		this.table = table;
+		this.root = root;
+		this.deadline = deadline;
+		this.moves = new int[maxDepth + 1][position.moveCapacity()];
+		this.drawCounts = new int[maxDepth + 1][Piece.CODE_COUNT];
+		this.pieces = Zobrist.pieces(position);
+		this.nodes = 0;
+		this.timedOut = false;
+		this.truncated = false;
+	}
+	
+	private long apply(int move, int drawn) {
+		int seat = position.current();
+		if(move != Position.PASS) {
+			pieces -= Zobrist.handKey(seat, Position.code(move));
+		}
+		else if(drawn >= 0) {
+			pieces += Zobrist.handKey(seat, drawn) - Zobrist.deckKey(drawn);
+		}
+		return position.apply(move, drawn);
+	}
+	
+	private void undo(int move, int drawn, long saved) {
+		position.undo(move, saved);
+		int seat = position.current();
+		if(move != Position.PASS) {
+			pieces += Zobrist.handKey(seat, Position.code(move));
+		}
+		else if(drawn >= 0) {
+			pieces -= Zobrist.handKey(seat, drawn) - Zobrist.deckKey(drawn);
+		}
+	}
+	
+	/**
+	 * Estimates the value of a position whose round isn't over.
+	 */
+	private double estimate() {
+		if(position.rules().placedPiecesScore()) {
+			return position.reward(root);
+		}
+		int smallestOpposingHand = Integer.MAX_VALUE;
+		for(int seat = 0; seat < position.playerCount(); seat++) {
+			if(seat != root) {
+				smallestOpposingHand = Math.min(smallestOpposingHand, position.handSize(seat));
+			}
+		}
+		double value = 0.5 + HAND_SIZE_WEIGHT * (smallestOpposingHand - position.handSize(root));
+		return Math.min(Math.max(value, HAND_SIZE_WEIGHT / 2), 1 - HAND_SIZE_WEIGHT / 2);
+	}
+	
+	/**
+	 * Averages the values of drawing each piece of the deck.
+	 */
+	private double expectation(int depth, int ply) {
+		int[] counts = drawCounts[ply];
+		int deckSize = position.deckSize();
+		for(int i = 0; i < deckSize; i++) {
+			counts[position.deckPiece(i)] = 0;
+		}
+		for(int i = 0; i < deckSize; i++) {
+			counts[position.deckPiece(i)]++;
+		}
+		double sum = 0;
+		for(int i = 0; i < deckSize && !timedOut; i++) {
+			int code = position.deckPiece(i);
+			int count = counts[code];
+			if(count == 0) {
+				continue;
+			}
+			counts[code] = 0;
+			long saved = apply(Position.PASS, code);
+			sum += count * value(depth - 1, ply + 1, 0, 1);
+			undo(Position.PASS, code, saved);
+		}
+		return sum / deckSize;
+	}
+	
+	/**
+	 * Searches the value of the position, between 0 and 1, for the player the search is done for.
+	 * It's exact if it's between alpha and beta, and a bound otherwise (fail-soft alpha-beta).
+	 * @param depth The turns left to search.
+	 * @param ply The turns searched so far.
+	 */
+	private double value(int depth, int ply, double alpha, double beta) {
+		if(position.isOver()) {
+			return position.reward(root);
+		}
+		if(depth == 0) {
+			truncated = true;
+			return estimate();
+		}
+		if(++nodes % CLOCK_CHECK_INTERVAL == 0 && System.nanoTime() - deadline >= 0) {
+			timedOut = true;
+		}
+		if(timedOut) {
+			return 0;
+		}
+		
+		long key = Zobrist.hash(position, pieces, root);
+		int hashMove = Position.PASS;
+		if(table.probe(key)) {
+			hashMove = table.move();
+			if(table.depth() >= depth) {
+				double value = table.value();
+				byte bound = table.bound();
+				if(bound == TranspositionTable.EXACT || bound == TranspositionTable.LOWER_BOUND && value >= beta
+						|| bound == TranspositionTable.UPPER_BOUND && value <= alpha) {
+					truncated |= table.depth() != COMPLETE;
+					return value;
+				}
+			}
+		}
+		
+		boolean outerTruncated = truncated;
+		truncated = false;
+		int[] moves = this.moves[ply];
+		int count = position.legalMoves(moves);
+		double result;
+		int best = Position.PASS;
+		byte bound;
+		if(moves[0] == Position.PASS && position.deckSize() > 0) {
+			result = expectation(depth, ply);
+			bound = TranspositionTable.EXACT;
+		}
+		else {
+			for(int i = 1; i < count; i++) {
+				if(moves[i] == hashMove) {
+					moves[i] = moves[0];
+					moves[0] = hashMove;
+					break;
+				}
+			}
+			boolean maximizing = position.current() == root;
+			double a = alpha;
+			double b = beta;
+			result = maximizing ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+			for(int i = 0; i < count && !timedOut; i++) {
+				int move = moves[i];
+				long saved = apply(move, -1);
+				double value = value(depth - 1, ply + 1, a, b);
+				undo(move, -1, saved);
+				if(maximizing ? value > result : value < result) {
+					result = value;
+					best = move;
+				}
+				if(maximizing) {
+					a = Math.max(a, value);
+				}
+				else {
+					b = Math.min(b, value);
+				}
+				if(a >= b) {
+					break;
+				}
+			}
+			bound = result <= alpha ? TranspositionTable.UPPER_BOUND : result >= beta ? TranspositionTable.LOWER_BOUND : TranspositionTable.EXACT;
+		}
+		
+		if(!timedOut) {
+			table.store(key, truncated ? depth : COMPLETE, result, bound, best);
+		}
+		truncated |= outerTruncated;
+		return result;
+	}
+	
+	/**
+	 * Searches the best move for the player in turn, whose knowledge the determinizer holds.
+	 * If there is only one legal move, it's returned without searching.
+	 * @param determinizer What the player knows.
+	 * @param random The random source of the samples.
+	 * @param table The transposition table. A new search is started in it.
+	 * @param samples Amount of positions sampled.
+	 * @param maxDepth Maximum depth, in turns.
+	 * @param time Maximum time, in milliseconds, or 0 for no limit. At least the first depth is always completed.
+	 * @return The result.
+	 */
+	public static Result search(Determinizer determinizer, SplittableRandom random, TranspositionTable table, int samples, int maxDepth, long time) {
+		Position first = determinizer.sample(random, determinizer.newPosition());
+		int[] rootMoves = new int[first.moveCapacity()];
+		int count = first.legalMoves(rootMoves);
+		if(count == 1) {
+			return new Result(rootMoves[0], 0, 0);
+		}
+		
+		table.newSearch();
+		long deadline = time > 0 ? System.nanoTime() + time * 1000000 : Long.MAX_VALUE;
+		ExpectiminimaxSearch[] searches = new ExpectiminimaxSearch[samples];
+		for(int s = 0; s < samples; s++) {
+			Position position = s == 0 ? first : determinizer.sample(random, determinizer.newPosition());
+			searches[s] = new ExpectiminimaxSearch(position, table, determinizer.observer(), deadline, maxDepth);
+		}
+		
+		double[] values = new double[count];
+		int bestMove = rootMoves[0];
+		int completedDepth = 0;
+		long nodes = 0;
+		for(int depth = 1; depth <= maxDepth; depth++) {
+			Arrays.fill(values, 0);
+			boolean truncated = false;
+			boolean timedOut = false;
+			for(ExpectiminimaxSearch search : searches) {
+				search.truncated = false;
+				search.timedOut = false;
+				for(int i = 0; i < count; i++) {
+					long saved = search.apply(rootMoves[i], -1);
+					values[i] += search.value(depth - 1, 1, 0, 1);
+					search.undo(rootMoves[i], -1, saved);
+				}
+				truncated |= search.truncated;
+				timedOut |= search.timedOut && depth > 1;
+			}
+			if(timedOut) {
+				break;
+			}
+			int best = 0;
+			for(int i = 1; i < count; i++) {
+				if(values[i] > values[best]) {
+					best = i;
+				}
+			}
+			bestMove = rootMoves[best];
+			completedDepth = depth;
+			if(!truncated) {
+				break;			// Every round was searched to its end, so going deeper won't change anything
+			}
+		}
+		for(ExpectiminimaxSearch search : searches) {
+			nodes += search.nodes;
+		}
+		return new Result(bestMove, completedDepth, nodes);
+	}
+
+}
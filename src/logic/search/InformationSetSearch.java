@@ -0,0 +1,216 @@
+package logic.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Information set Monte Carlo tree search (single observer): every iteration samples a position consistent with
+ * what the player knows, walks down a tree of moves shared by all of them, and plays the rest of the round at random.
+ * Children are chosen by UCB1, counting only the iterations where their move was legal.
+ * With several threads, each one grows its own tree from its own samples, and the visits of the moves of the player
+ * are added up at the end (root parallelization), so no locks are needed.
+ */
+public class InformationSetSearch {
+	
+	private static final double EXPLORATION = 0.7;
+	private static final int CLOCK_CHECK_INTERVAL = 64;
+	
+	/**
+	 * The moves played from a node, and how they did for the player who played them.
+	 */
+	private static class Node {
+		
+		private final int move;
+		private final int player;			// Seat of the player who played the move
+		private final Node parent;
+		private Node[] children;
+		private int childCount;
+		private int visits;
+		private int availability;			// Iterations where the move was legal
+		private double reward;
+		
+		private Node(int move, int player, Node parent) {
+			this.move = move;
+			this.player = player;
+			this.parent = parent;
+			this.children = new Node[4];
+			this.childCount = 0;
+			this.visits = 0;
+			this.availability = 0;
+			this.reward = 0;
+		}
+		
+		private Node child(int move) {
+			for(int i = 0; i < childCount; i++) {
+				if(children[i].move == move) {
+					return children[i];
+				}
+			}
+			return null;
+		}
+		
+		private Node addChild(int move, int player) {
+			if(childCount == children.length) {
+				Node[] newChildren = new Node[children.length * 2];
+				System.arraycopy(children, 0, newChildren, 0, childCount);
+				children = newChildren;
+			}
+			Node child = new Node(move, player, this);
+			children[childCount++] = child;
+			return child;
+		}
+		
+		private double upperBound() {
+			return reward / visits + EXPLORATION * Math.sqrt(Math.log(availability) / visits);
+		}
+	
+	}
+	
+	/**
+	 * Result of a search: the move chosen, and how much work was done to choose it.
+	 */
+	public static class Result {
+		
+		private final int move;
+		private final long iterations;
+		
+		private Result(int move, long iterations) {
+			this.move = move;
+			this.iterations = iterations;
+		}
+		
+		/**
+		 * Returns the move chosen (see Position).
+		 */
+		public int move() {
+			return move;
+		}
+		
+		/**
+		 * Returns the amount of iterations played by all the threads.
+		 */
+		public long iterations() {
+			return iterations;
+		}
+	
+	}
+	
+	/**
+	 * Runs one iteration: selection and expansion on a sampled position, a random playout and the backpropagation.
+	 */
+	private static void iterate(Node root, Position position, int[] moves, SplittableRandom random) {
+		Node node = root;
+		while(!position.isOver()) {
+			int count = position.legalMoves(moves);
+			Node best = null;
+			double bestValue = Double.NEGATIVE_INFINITY;
+			int untried = 0;
+			for(int i = 0; i < count; i++) {
+				Node child = node.child(moves[i]);
+				if(child == null) {
+					moves[untried++] = moves[i];
+				}
+				else {
+					child.availability++;
+					double value = child.upperBound();
+					if(value > bestValue) {
+						bestValue = value;
+						best = child;
+					}
+				}
+			}
+			if(untried > 0) {
+				int move = moves[untried == 1 ? 0 : random.nextInt(untried)];
+				node = node.addChild(move, position.current());
+				node.availability++;
+				position.play(move);
+				break;
+			}
+			position.play(best.move);
+			node = best;
+		}
+		position.playout(random, moves);
+		for(; node != root; node = node.parent) {
+			node.visits++;
+			node.reward += position.reward(node.player);
+		}
+		root.visits++;
+	}
+	
+	/**
+	 * Grows a tree until one of the limits is reached.
+	 * @param iterations Maximum amount of iterations, or 0 for no limit.
+	 * @param deadline Value of System.nanoTime when it has to stop, or Long.MAX_VALUE for no limit.
+	 */
+	private static Node grow(Determinizer determinizer, SplittableRandom random, long iterations, long deadline) {
+		Node root = new Node(Position.PASS, -1, null);
+		Position position = determinizer.newPosition();
+		int[] moves = new int[position.moveCapacity()];
+		for(long i = 0; iterations <= 0 || i < iterations; i++) {
+			if(i % CLOCK_CHECK_INTERVAL == 0 && System.nanoTime() - deadline >= 0) {
+				break;
+			}
+			iterate(root, determinizer.sample(random, position), moves, random);
+		}
+		return root;
+	}
+	
+	/**
+	 * Searches the best move for the player in turn, whose knowledge the determinizer holds.
+	 * If there is only one legal move, it's returned without searching.
+	 * @param determinizer What the player knows.
+	 * @param random The random source. The threads split their own from it.
+	 * @param iterations Maximum amount of iterations, between all threads, or 0 for no limit.
+	 * @param time Maximum time, in milliseconds, or 0 for no limit. One of both limits must be set.
+	 * @param threads Amount of trees grown in parallel.
+	 * @return The result.
+	 */
+	public static Result search(Determinizer determinizer, SplittableRandom random, long iterations, long time, int threads) {
+		Position position = determinizer.sample(random, determinizer.newPosition());
+		int[] moves = new int[position.moveCapacity()];
+		if(position.legalMoves(moves) == 1) {
+			return new Result(moves[0], 0);
+		}
+		
+		long deadline = time > 0 ? System.nanoTime() + time * 1000000 : Long.MAX_VALUE;
+		List<CompletableFuture<Node>> helpers = new ArrayList<>();
+		for(int t = 1; t < threads; t++) {
+			long helperIterations = iterations / threads;
+			if(iterations > 0 && helperIterations == 0) {
+				break;
+			}
+			Determinizer copy = determinizer.copy();
+			SplittableRandom helperRandom = random.split();
+			helpers.add(CompletableFuture.supplyAsync(() -> grow(copy, helperRandom, helperIterations, deadline), ForkJoinPool.commonPool()));
+		}
+		Node root = grow(determinizer, random, iterations - iterations / threads * helpers.size(), deadline);
+		for(CompletableFuture<Node> helper : helpers) {
+			Node other = helper.join();
+			root.visits += other.visits;
+			for(int i = 0; i < other.childCount; i++) {
+				Node child = root.child(other.children[i].move);
+				if(child == null) {
+					child = root.addChild(other.children[i].move, other.children[i].player);
+				}
+				child.visits += other.children[i].visits;
+				child.reward += other.children[i].reward;
+			}
+		}
+		
+		Node best = null;
+		for(int i = 0; i < root.childCount; i++) {
+			Node child = root.children[i];
+			if(best == null || child.visits > best.visits || child.visits == best.visits && child.reward > best.reward) {
+				best = child;
+			}
+		}
+		return new Result(best == null ? moves[0] : best.move, root.visits);
+	}
+	
+	// Prevent instantiation
+	private InformationSetSearch() {}
+
+}
@@ -0,0 +1,483 @@
+package logic.search;
+
+import java.util.SplittableRandom;
+
+import logic.Piece;
+import logic.PieceMask;
+
+/**
+ * Compact state of a round where every piece is known, as the search engine sees it after a determinization:
+ * the hands and the deck are plain arrays of codes, and only the ends of the board are kept.
+ * It follows the same rules as Game, Snake and the game modes, but without players, movements or observers,
+ * so it can be copied and played to the end of the round many thousands of times per second, or searched depth first
+ * with apply and undo.
+ * Moves are integers: PASS, or the code of a piece shifted left once, with the lowest bit set when it's placed on the right end.
+ */
+public class Position {
+	
+	public static final int PASS = -1;
+	public static final int NO_END = -1;
+	
+	private final SearchRules rules;
+	private final int playerCount;
+	private final int[][] hands;
+	private final int[] handSizes;
+	private final int[] deck;				// The top of the deck (the next piece to be drawn) is the last one
+	private int deckSize;
+	private int leftEnd;
+	private int rightEnd;
+	private int current;
+	private int stalled;					// One bit per seat stalled since the last piece was placed
+	private final int[] roundScores;
+	private final int[] globalScores;
+	private final int[] initialGlobalScores;	// Global scores when the search started
+	private int roundWinner;				// -1 until the round is over
+	private boolean gameOver;
+	private final long[] seen;				// Scratch mask, so repeated pieces only give one move
+	
+	private static int pips(int code) {
+		return Piece.lowValue(code) + Piece.highValue(code);
+	}
+	
+	private void finishRound(int winner) {
+		roundWinner = winner;
+		if(rules.placedPiecesScore()) {
+			for(int i = 0; i < playerCount; i++) {
+				globalScores[i] += roundScores[i];
+			}
+		}
+		else {
+			globalScores[winner]++;
+		}
+		gameOver = rules.placedPiecesScore() && globalScores[leader()] > rules.winningScore();
+	}
+	
+	/**
+	 * Finds the winner of a blocked round, as the game modes do: the highest round score wins,
+	 * unless pieces score when placed, where the lowest one does. Ties go to the first seat.
+	 */
+	private int blockedWinner() {
+		int winner = 0;
+		for(int i = 1; i < playerCount; i++) {
+			if(rules.placedPiecesScore() ? roundScores[i] < roundScores[winner] : roundScores[i] > roundScores[winner]) {
+				winner = i;
+			}
+		}
+		return winner;
+	}
+	
+	/**
+	 * Finds the seat with the highest global score. Ties go to the first seat.
+	 */
+	private int leader() {
+		int leader = 0;
+		for(int i = 1; i < playerCount; i++) {
+			if(globalScores[i] > globalScores[leader]) {
+				leader = i;
+			}
+		}
+		return leader;
+	}
+	
+	/**
+	 * Creates an empty position, with room for every piece in every hand and in the deck.
+	 * @param rules The rules of the game mode.
+	 * @param playerCount The amount of players.
+	 * @param capacity The amount of pieces in the game.
+	 */
+	public Position(SearchRules rules, int playerCount, int capacity) {
+		this.rules = rules;
+		this.playerCount = playerCount;
+		this.hands = new int[playerCount][capacity];
+		this.handSizes = new int[playerCount];
+		this.deck = new int[capacity];
+		this.roundScores = new int[playerCount];
+		this.globalScores = new int[playerCount];
+		this.initialGlobalScores = new int[playerCount];
+		this.seen = PieceMask.create();
+		clear();
+	}
+	
+	/**
+	 * Removes every piece and score, leaving an empty board with the first seat to move.
+	 */
+	public void clear() {
+		for(int i = 0; i < playerCount; i++) {
+			handSizes[i] = 0;
+			roundScores[i] = 0;
+			globalScores[i] = 0;
+			initialGlobalScores[i] = 0;
+		}
+		deckSize = 0;
+		leftEnd = NO_END;
+		rightEnd = NO_END;
+		current = 0;
+		stalled = 0;
+		roundWinner = -1;
+		gameOver = false;
+	}
+	
+	/**
+	 * Turns this position into a copy of another one with the same rules, players and capacity.
+	 */
+	public void copyFrom(Position other) {
+		for(int i = 0; i < playerCount; i++) {
+			System.arraycopy(other.hands[i], 0, hands[i], 0, other.handSizes[i]);
+			handSizes[i] = other.handSizes[i];
+			roundScores[i] = other.roundScores[i];
+			globalScores[i] = other.globalScores[i];
+			initialGlobalScores[i] = other.initialGlobalScores[i];
+		}
+		System.arraycopy(other.deck, 0, deck, 0, other.deckSize);
+		deckSize = other.deckSize;
+		leftEnd = other.leftEnd;
+		rightEnd = other.rightEnd;
+		current = other.current;
+		stalled = other.stalled;
+		roundWinner = other.roundWinner;
+		gameOver = other.gameOver;
+	}
+	
+	public void addToHand(int seat, int code) {
+		hands[seat][handSizes[seat]++] = code;
+	}
+	
+	/**
+	 * Puts a piece on top of the deck.
+	 */
+	public void pushToDeck(int code) {
+		deck[deckSize++] = code;
+	}
+	
+	public void setEnds(int leftEnd, int rightEnd) {
+		this.leftEnd = leftEnd;
+		this.rightEnd = rightEnd;
+	}
+	
+	public void setCurrent(int seat) {
+		this.current = seat;
+	}
+	
+	public void stall(int seat) {
+		stalled |= 1 << seat;
+	}
+	
+	/**
+	 * Sets the scores of a player. The global score is also taken as the one the search started with.
+	 */
+	public void setScores(int seat, int roundScore, int globalScore) {
+		roundScores[seat] = roundScore;
+		globalScores[seat] = globalScore;
+		initialGlobalScores[seat] = globalScore;
+	}
+	
+	/**
+	 * Finds the moves of the player in turn, following the same rules as Snake.playablePieces.
+	 * When a piece matches both ends, and they are different, placing it on each of them is a different move.
+	 * @param moves Where the moves are stored. It needs room for two moves per piece in the hand.
+	 * @return The amount of moves. If no piece can be placed, the only move is PASS.
+	 */
+	public int legalMoves(int[] moves) {
+		int[] hand = hands[current];
+		int size = handSizes[current];
+		int count = 0;
+		if(leftEnd == NO_END) {
+			int biggestDouble = -1;
+			for(int i = 0; i < size; i++) {
+				int code = hand[i];
+				if(code > biggestDouble && Piece.lowValue(code) == Piece.highValue(code)) {
+					biggestDouble = code;
+				}
+			}
+			if(biggestDouble >= 0) {
+				moves[0] = biggestDouble << 1;
+				return 1;
+			}
+		}
+		PieceMask.clear(seen);
+		for(int i = 0; i < size; i++) {
+			int code = hand[i];
+			if(PieceMask.contains(seen, code)) {
+				continue;
+			}
+			PieceMask.add(seen, code);
+			if(leftEnd == NO_END) {
+				moves[count++] = code << 1;
+				continue;
+			}
+			int low = Piece.lowValue(code);
+			int high = Piece.highValue(code);
+			boolean matchesLeft = low == leftEnd || high == leftEnd;
+			boolean matchesRight = low == rightEnd || high == rightEnd;
+			if(matchesLeft) {
+				moves[count++] = code << 1;
+			}
+			if(matchesRight && !(matchesLeft && leftEnd == rightEnd)) {
+				moves[count++] = code << 1 | 1;
+			}
+		}
+		if(count == 0) {
+			moves[count++] = PASS;
+		}
+		return count;
+	}
+	
+	/**
+	 * Plays a move of the player in turn, which must be legal, and moves on to the next turn unless the round is over.
+	 * Passing draws the top piece of the deck, or stalls the player if it's empty.
+	 */
+	public void play(int move) {
+		apply(move, move == PASS && deckSize > 0 ? deck[deckSize - 1] : -1);
+	}
+	
+	/**
+	 * Plays a move like play, but passing draws the given piece of the deck, wherever it is, and the move can be undone.
+	 * @param move The move, which must be legal.
+	 * @param drawn The code of the piece drawn when passing with pieces left in the deck, which must be there, or -1 otherwise.
+	 * @return What undo needs to restore the position.
+	 */
+	public long apply(int move, int drawn) {
+		int seat = current;
+		long saved = (leftEnd + 1L) | (rightEnd + 1L) << 8 | (long) current << 16 | (roundWinner + 1L) << 24 | (long) stalled << 32;
+		if(gameOver) {
+			saved |= 1L << 48;
+		}
+		int index = 0;
+		if(move == PASS) {
+			if(deckSize == 0) {
+				stalled |= 1 << seat;
+			}
+			else {
+				index = deckSize - 1;
+				while(deck[index] != drawn) {
+					index--;
+				}
+				deck[index] = deck[--deckSize];
+				deck[deckSize] = drawn;			// Kept past the end, so undo can put it back in place
+				hands[seat][handSizes[seat]++] = drawn;
+				if(!rules.placedPiecesScore()) {
+					roundScores[seat] += pips(drawn);
+				}
+				saved |= 1L << 49;
+			}
+		}
+		else {
+			int code = code(move);
+			int[] hand = hands[seat];
+			while(hand[index] != code) {
+				index++;
+			}
+			hand[index] = hand[--handSizes[seat]];
+			hand[handSizes[seat]] = code;
+			int low = Piece.lowValue(code);
+			int high = Piece.highValue(code);
+			if(leftEnd == NO_END) {
+				leftEnd = low;
+				rightEnd = high;
+			}
+			else if((move & 1) == 0) {
+				leftEnd = low == leftEnd ? high : low;
+			}
+			else {
+				rightEnd = low == rightEnd ? high : low;
+			}
+			if(rules.placedPiecesScore()) {
+				globalScores[seat] += low + high;
+			}
+			else {
+				roundScores[seat] -= low + high;
+			}
+			stalled = 0;
+		}
+		
+		if(handSizes[seat] == 0) {
+			finishRound(seat);
+		}
+		else if(stalled == (1 << playerCount) - 1) {
+			finishRound(blockedWinner());
+		}
+		else if(rules.placedPiecesScore() && globalScores[leader()] > rules.winningScore()) {
+			gameOver = true;
+		}
+		else {
+			current = (current + 1) % playerCount;
+		}
+		return saved | (long) index << 50;
+	}
+	
+	/**
+	 * Undoes the last move applied and not undone yet.
+	 * @param move The move.
+	 * @param saved What apply returned.
+	 */
+	public void undo(int move, long saved) {
+		if(roundWinner >= 0 && (saved >>> 24 & 0xFF) == 0) {
+			if(rules.placedPiecesScore()) {
+				for(int i = 0; i < playerCount; i++) {
+					globalScores[i] -= roundScores[i];
+				}
+			}
+			else {
+				globalScores[roundWinner]--;
+			}
+		}
+		leftEnd = (int) (saved & 0xFF) - 1;
+		rightEnd = (int) (saved >>> 8 & 0xFF) - 1;
+		current = (int) (saved >>> 16 & 0xFF);
+		roundWinner = (int) (saved >>> 24 & 0xFF) - 1;
+		stalled = (int) (saved >>> 32 & 0xFFFF);
+		gameOver = (saved >>> 48 & 1) != 0;
+		int index = (int) (saved >>> 50);
+		int seat = current;
+		if(move == PASS) {
+			if((saved >>> 49 & 1) != 0) {
+				int code = hands[seat][--handSizes[seat]];
+				if(!rules.placedPiecesScore()) {
+					roundScores[seat] -= pips(code);
+				}
+				deck[deckSize] = deck[index];
+				deck[index] = code;
+				deckSize++;
+			}
+		}
+		else {
+			int code = code(move);
+			int[] hand = hands[seat];
+			int last = handSizes[seat]++;
+			hand[last] = hand[index];
+			hand[index] = code;
+			if(rules.placedPiecesScore()) {
+				globalScores[seat] -= pips(code);
+			}
+			else {
+				roundScores[seat] += pips(code);
+			}
+		}
+	}
+	
+	/**
+	 * Plays random legal moves until the round is over.
+	 * @param random The random source.
+	 * @param moves Scratch space for the moves, as in legalMoves.
+	 */
+	public void playout(SplittableRandom random, int[] moves) {
+		while(!isOver()) {
+			int count = legalMoves(moves);
+			play(moves[count == 1 ? 0 : random.nextInt(count)]);
+		}
+	}
+	
+	/**
+	 * Tells if the round, or the whole game, is over.
+	 */
+	public boolean isOver() {
+		return roundWinner >= 0 || gameOver;
+	}
+	
+	/**
+	 * Rates the end of the round for a player, between 0 and 1.
+	 * When rounds are won, it's 1 for the winner of the round. When pieces score, it's 1 for the winner of the game if it's over,
+	 * or the share of the points scored since the search started otherwise.
+	 * @param seat The player.
+	 */
+	public double reward(int seat) {
+		if(!rules.placedPiecesScore()) {
+			return roundWinner == seat ? 1 : 0;
+		}
+		if(gameOver) {
+			return leader() == seat ? 1 : 0;
+		}
+		int total = 0;
+		for(int i = 0; i < playerCount; i++) {
+			total += globalScores[i] - initialGlobalScores[i];
+		}
+		return total == 0 ? 1.0 / playerCount : (globalScores[seat] - initialGlobalScores[seat]) / (double) total;
+	}
+	
+	/**
+	 * Returns the seat of the player in turn.
+	 */
+	public int current() {
+		return current;
+	}
+	
+	public int playerCount() {
+		return playerCount;
+	}
+	
+	public int handSize(int seat) {
+		return handSizes[seat];
+	}
+	
+	/**
+	 * Returns the code of a piece in a hand. The order of the hands changes as moves are played.
+	 */
+	public int handPiece(int seat, int index) {
+		return hands[seat][index];
+	}
+	
+	public int deckSize() {
+		return deckSize;
+	}
+	
+	/**
+	 * Returns the code of a piece in the deck, counting from the bottom.
+	 */
+	public int deckPiece(int index) {
+		return deck[index];
+	}
+	
+	/**
+	 * Returns the value of the left end of the board, or NO_END if it's empty.
+	 */
+	public int leftEnd() {
+		return leftEnd;
+	}
+	
+	/**
+	 * Returns the value of the right end of the board, or NO_END if it's empty.
+	 */
+	public int rightEnd() {
+		return rightEnd;
+	}
+	
+	/**
+	 * Returns one bit per seat stalled since the last piece was placed.
+	 */
+	public int stalledSeats() {
+		return stalled;
+	}
+	
+	/**
+	 * Returns the points a player has scored since the search started.
+	 */
+	public int scoredPoints(int seat) {
+		return globalScores[seat] - initialGlobalScores[seat];
+	}
+	
+	public SearchRules rules() {
+		return rules;
+	}
+	
+	/**
+	 * Returns the size of the biggest array of moves that legalMoves may need.
+	 */
+	public int moveCapacity() {
+		return 2 * deck.length + 1;
+	}
+	
+	/**
+	 * Returns the code of the piece a move places.
+	 */
+	public static int code(int move) {
+		return move >>> 1;
+	}
+	
+	/**
+	 * Tells if a move places its piece on the right end of the board.
+	 */
+	public static boolean placesOnTheRight(int move) {
+		return (move & 1) != 0;
+	}
+
+}
@@ -0,0 +1,48 @@
+package logic.search;
+
+/**
+ * What a game mode rewards, in the terms the search engine understands, so a Position can be played
+ * without the game mode and the players it belongs to.
+ */
+public class SearchRules {
+	
+	private final boolean placedPiecesScore;
+	private final int winningScore;
+	
+	private SearchRules(boolean placedPiecesScore, int winningScore) {
+		this.placedPiecesScore = placedPiecesScore;
+		this.winningScore = winningScore;
+	}
+	
+	/**
+	 * Rules of games won by winning rounds: the winner of a round gets a point, and a blocked round is won
+	 * by the player whose hand adds up to the most.
+	 */
+	public static SearchRules roundsWon() {
+		return new SearchRules(false, Integer.MAX_VALUE);
+	}
+	
+	/**
+	 * Rules of games won by scoring: placing a piece adds its values to the global score of the player,
+	 * and the game ends as soon as someone has more than the winning score.
+	 * @param winningScore The winning score.
+	 */
+	public static SearchRules pointsScored(int winningScore) {
+		return new SearchRules(true, winningScore);
+	}
+	
+	/**
+	 * Tells if the pieces score when placed, rather than rounds being won.
+	 */
+	public boolean placedPiecesScore() {
+		return placedPiecesScore;
+	}
+	
+	/**
+	 * Returns the global score that ends the game once a player goes over it.
+	 */
+	public int winningScore() {
+		return winningScore;
+	}
+
+}
@@ -0,0 +1,335 @@
+package logic.search;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+import logic.Piece;
+
+/**
+ * Exact values of every two-player position with an empty deck and small hands (up to maxHandSize pieces each),
+ * under both scoring rules, generated by TablebaseGenerator and probed without searching.
+ * The positions are numbered densely: first by the sizes of the hands, then by the pieces of the player in turn and of the other one
+ * (in the combinatorial number system), then by the ends of the board, unordered, and finally by whether the other player is stalled.
+ * Each one has a byte for each rule: when rounds are won, if the player in turn wins the round,
+ * for both seats it may have, as ties of blocked rounds go to the first one; when pieces score, how many points more the player
+ * in turn scores than the other one until the round ends. The winning score isn't taken into account, as it depends on the game.
+ * A file holds a header and both arrays of bytes, and it's memory-mapped when opened, so probes read the pages they need.
+ */
+public class Tablebase {
+	
+	public static final int VERSION = 1;
+	/**
+	 * Default maximum size of the hands, which keeps the tablebase of the default set around 16 MB.
+	 */
+	public static final int DEFAULT_MAX_HAND_SIZE = 2;
+	public static final int MAX_HAND_SIZE = 4;
+	
+	static final byte WINS_AS_FIRST = 1;		// The player in turn wins the round if it has the first seat
+	static final byte WINS_AS_SECOND = 2;		// The player in turn wins the round if it has the second seat
+	
+	private static final byte[] MAGIC = {'D', 'O', 'M', 'T'};
+	private static final int HEADER_SIZE = MAGIC.length + 3 * Integer.BYTES;
+	
+	private static volatile Tablebase installed = null;
+	
+	private final int highestValue;
+	private final int maxHandSize;
+	private final int pieceCount;
+	private final int endCount;					// Unordered pairs of ends
+	private final long[][] binomials;			// Binomial coefficients, up to maxHandSize elements
+	private final long[][] layerOffsets;		// First position with each pair of hand sizes
+	private final int positionCount;
+	private final ByteBuffer roundsWon;
+	private final ByteBuffer pointsScored;
+	
+	/**
+	 * Creates an empty tablebase in memory, to be filled by the generator.
+	 */
+	Tablebase(int highestValue, int maxHandSize) {
+		this(highestValue, maxHandSize, null, null);
+	}
+	
+	private Tablebase(int highestValue, int maxHandSize, ByteBuffer roundsWon, ByteBuffer pointsScored) {
+		if(maxHandSize < 1 || maxHandSize > MAX_HAND_SIZE) {
+			throw new IllegalArgumentException("The maximum size of the hands must be between 1 and " + MAX_HAND_SIZE + "!");
+		}
+		this.highestValue = highestValue;
+		this.maxHandSize = maxHandSize;
+		this.pieceCount = Piece.codeCount(highestValue);
+		this.endCount = Piece.codeCount(highestValue);
+		this.binomials = new long[pieceCount + 1][maxHandSize + 1];
+		for(int n = 0; n <= pieceCount; n++) {
+			binomials[n][0] = 1;
+			for(int k = 1; k <= maxHandSize; k++) {
+				binomials[n][k] = n == 0 ? 0 : binomials[n - 1][k - 1] + binomials[n - 1][k];
+			}
+		}
+		this.layerOffsets = new long[maxHandSize + 1][maxHandSize + 1];
+		long count = 0;
+		for(int a = 1; a <= maxHandSize; a++) {
+			for(int b = 1; b <= maxHandSize; b++) {
+				layerOffsets[a][b] = count;
+				count += binomials[pieceCount][a] * binomials[pieceCount - a][b] * endCount * 2;
+			}
+		}
+		if(count > Integer.MAX_VALUE - HEADER_SIZE) {
+			throw new IllegalArgumentException("The tablebase would have " + count + " positions, too many for a file!");
+		}
+		this.positionCount = (int) count;
+		this.roundsWon = roundsWon != null ? roundsWon : ByteBuffer.allocate(positionCount);
+		this.pointsScored = pointsScored != null ? pointsScored : ByteBuffer.allocate(positionCount);
+	}
+	
+	/**
+	 * Ranks a combination of codes, sorted in ascending order, in the combinatorial number system.
+	 * The codes of the excluded combination are skipped, so the rank is among the combinations of the rest.
+	 */
+	private long rank(int[] codes, int size, int[] excluded, int excludedSize) {
+		long rank = 0;
+		for(int i = 0; i < size; i++) {
+			int code = codes[i];
+			for(int j = 0; j < excludedSize; j++) {
+				if(excluded[j] < codes[i]) {
+					code--;
+				}
+			}
+			rank += binomials[code][i + 1];
+		}
+		return rank;
+	}
+	
+	/**
+	 * Finds the combination of codes with a given rank, in ascending order.
+	 */
+	void unrank(long rank, int size, int[] codes) {
+		int code = pieceCount;
+		for(int k = size; k > 0; k--) {
+			do {
+				code--;
+			} while(binomials[code][k] > rank);
+			codes[k - 1] = code;
+			rank -= binomials[code][k];
+		}
+	}
+	
+	/**
+	 * Returns the number of a position.
+	 * @param mover The pieces of the player in turn, in ascending order.
+	 * @param other The pieces of the other player, in ascending order.
+	 * @param low The lowest end of the board.
+	 * @param high The highest end of the board.
+	 * @param otherStalled If the other player is stalled.
+	 */
+	int index(int[] mover, int moverSize, int[] other, int otherSize, int low, int high, boolean otherStalled) {
+		long hands = rank(mover, moverSize, null, 0) * binomials[pieceCount - moverSize][otherSize] + rank(other, otherSize, mover, moverSize);
+		long ends = hands * endCount + Piece.code(low, high);
+		return (int) (layerOffsets[moverSize][otherSize] + 2 * ends + (otherStalled ? 1 : 0));
+	}
+	
+	byte roundsWon(int index) {
+		return roundsWon.get(index);
+	}
+	
+	byte pointsScored(int index) {
+		return pointsScored.get(index);
+	}
+	
+	void store(int index, byte roundsWon, byte pointsScored) {
+		this.roundsWon.put(index, roundsWon);
+		this.pointsScored.put(index, pointsScored);
+	}
+	
+	int pieceCount() {
+		return pieceCount;
+	}
+	
+	long binomial(int n, int k) {
+		return binomials[n][k];
+	}
+	
+	/**
+	 * Returns the number of the current position, which must be covered.
+	 */
+	private int index(Position position) {
+		int mover = position.current();
+		int other = 1 - mover;
+		int[] moverHand = sortedHand(position, mover);
+		int[] otherHand = sortedHand(position, other);
+		int low = Math.min(position.leftEnd(), position.rightEnd());
+		int high = Math.max(position.leftEnd(), position.rightEnd());
+		return index(moverHand, moverHand.length, otherHand, otherHand.length, low, high, (position.stalledSeats() >>> other & 1) != 0);
+	}
+	
+	private static int[] sortedHand(Position position, int seat) {
+		int[] hand = new int[position.handSize(seat)];
+		for(int i = 0; i < hand.length; i++) {
+			hand[i] = position.handPiece(seat, i);
+		}
+		Arrays.sort(hand);
+		return hand;
+	}
+	
+	public int highestValue() {
+		return highestValue;
+	}
+	
+	public int maxHandSize() {
+		return maxHandSize;
+	}
+	
+	/**
+	 * Tells if a position is in the tablebase: it has two players, the deck is empty, the board isn't,
+	 * both hands have between 1 and maxHandSize pieces, none of them twice, and every piece and end belongs to the set.
+	 */
+	public boolean covers(Position position) {
+		if(position.playerCount() != 2 || position.deckSize() != 0 || position.isOver() || position.leftEnd() == Position.NO_END
+				|| position.leftEnd() > highestValue || position.rightEnd() > highestValue) {
+			return false;
+		}
+		for(int seat = 0; seat < 2; seat++) {
+			int size = position.handSize(seat);
+			if(size < 1 || size > maxHandSize) {
+				return false;
+			}
+			for(int i = 0; i < size; i++) {
+				int code = position.handPiece(seat, i);
+				if(code >= pieceCount) {
+					return false;
+				}
+				for(int j = i + 1; j < size; j++) {
+					if(position.handPiece(seat, j) == code) {
+						return false;
+					}
+				}
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Tells if the player in turn wins the round with perfect play, when rounds are won. The position must be covered.
+	 */
+	public boolean wins(Position position) {
+		return (roundsWon(index(position)) & (position.current() == 0 ? WINS_AS_FIRST : WINS_AS_SECOND)) != 0;
+	}
+	
+	/**
+	 * Returns how many points more the player in turn scores than the other one until the round ends, with perfect play,
+	 * when pieces score when placed. The position must be covered.
+	 */
+	public int pointDifference(Position position) {
+		return pointsScored(index(position));
+	}
+	
+	/**
+	 * Finds the best move of the player in turn, under the rules of the position, by probing the positions after each move.
+	 * The position must be covered. It's played and undone, but it's left as it was.
+	 */
+	public int bestMove(Position position) {
+		int[] moves = new int[position.moveCapacity()];
+		int count = position.legalMoves(moves);
+		int mover = position.current();
+		boolean placedPiecesScore = position.rules().placedPiecesScore();
+		int best = moves[0];
+		int bestValue = Integer.MIN_VALUE;
+		for(int i = 0; i < count; i++) {
+			int move = moves[i];
+			long saved = position.apply(move, -1);
+			int value;
+			if(placedPiecesScore) {
+				value = move == Position.PASS ? 0 : Piece.lowValue(Position.code(move)) + Piece.highValue(Position.code(move));
+				if(!position.isOver()) {
+					value -= pointDifference(position);
+				}
+			}
+			else if(position.isOver()) {
+				value = position.reward(mover) > 0 ? 1 : 0;
+			}
+			else {
+				value = wins(position) ? 0 : 1;
+			}
+			position.undo(move, saved);
+			if(value > bestValue) {
+				bestValue = value;
+				best = move;
+			}
+		}
+		return best;
+	}
+	
+	/**
+	 * Writes the tablebase to a file.
+	 */
+	public void write(File file) throws IOException {
+		try(OutputStream stream = new FileOutputStream(file); DataOutputStream out = new DataOutputStream(stream)) {
+			out.write(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(highestValue);
+			out.writeInt(maxHandSize);
+			out.write(roundsWon.array(), 0, positionCount);
+			out.write(pointsScored.array(), 0, positionCount);
+		}
+	}
+	
+	/**
+	 * Opens a tablebase file, memory-mapping its values.
+	 * @param file The file, written by write.
+	 * @return The tablebase.
+	 */
+	public static Tablebase open(File file) throws IOException {
+		try(RandomAccessFile in = new RandomAccessFile(file, "r")) {
+			byte[] magic = new byte[MAGIC.length];
+			in.readFully(magic);
+			if(!Arrays.equals(magic, MAGIC)) {
+				throw new StreamCorruptedException("Not a tablebase");
+			}
+			int version = in.readInt();
+			if(version != VERSION) {
+				throw new StreamCorruptedException("Unsupported tablebase version: " + version);
+			}
+			int highestValue = in.readInt();
+			int maxHandSize = in.readInt();
+			if(highestValue < 0 || highestValue >= Piece.VALUE_COUNT) {
+				throw new StreamCorruptedException("Invalid highest value in the tablebase: " + highestValue);
+			}
+			Tablebase layout;
+			try {
+				layout = new Tablebase(highestValue, maxHandSize, ByteBuffer.allocate(0), ByteBuffer.allocate(0));
+			}
+			catch(IllegalArgumentException iae) {
+				throw new StreamCorruptedException("Invalid tablebase: " + iae.getMessage());
+			}
+			int count = layout.positionCount;
+			if(in.length() != HEADER_SIZE + 2L * count) {
+				throw new StreamCorruptedException("The tablebase file has the wrong size");
+			}
+			FileChannel channel = in.getChannel();
+			ByteBuffer roundsWon = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE, count);
+			ByteBuffer pointsScored = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE + (long) count, count);
+			return new Tablebase(highestValue, maxHandSize, roundsWon, pointsScored);
+		}
+	}
+	
+	/**
+	 * Makes a tablebase the one probed by the endgame solver, or none if it's null.
+	 */
+	public static void install(Tablebase tablebase) {
+		installed = tablebase;
+	}
+	
+	/**
+	 * Returns the tablebase probed by the endgame solver, or null if there is none.
+	 */
+	public static Tablebase installed() {
+		return installed;
+	}
+
+}
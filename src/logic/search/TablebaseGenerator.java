@@ -0,0 +1,143 @@
+package logic.search;
+
+import java.util.stream.IntStream;
+
+import logic.Piece;
+
+/**
+ * Generates a tablebase by retrograde analysis: positions are solved from the fewest pieces in the hands to the most,
+ * as placing a piece always leads to a position with one less, already solved. Passing keeps the same pieces,
+ * but leads to a position where the other player is stalled, so those are solved first.
+ * Every group of positions is split by the hand of the player in turn, and solved in parallel in the common fork-join pool.
+ */
+public class TablebaseGenerator {
+	
+	private final Tablebase tablebase;
+	private final int highestValue;
+	private final int pieceCount;
+	
+	private TablebaseGenerator(int highestValue, int maxHandSize) {
+		this.tablebase = new Tablebase(highestValue, maxHandSize);
+		this.highestValue = highestValue;
+		this.pieceCount = tablebase.pieceCount();
+	}
+	
+	private static int pips(int[] hand, int size) {
+		int pips = 0;
+		for(int i = 0; i < size; i++) {
+			pips += Piece.lowValue(hand[i]) + Piece.highValue(hand[i]);
+		}
+		return pips;
+	}
+	
+	/**
+	 * Solves a position, whose following positions must be solved already, and stores it.
+	 */
+	private void solve(int[] mover, int moverSize, int[] other, int otherSize, int low, int high, boolean otherStalled, int[] rest) {
+		boolean canPlay = false;
+		int bestPoints = Integer.MIN_VALUE;
+		byte roundsWon = 0;
+		for(int i = 0; i < moverSize; i++) {
+			int code = mover[i];
+			int restSize = 0;
+			for(int j = 0; j < moverSize; j++) {
+				if(j != i) {
+					rest[restSize++] = mover[j];
+				}
+			}
+			for(int side = 0; side < 2; side++) {
+				int end = side == 0 ? low : high;
+				int kept = side == 0 ? high : low;
+				if(side == 1 && low == high || Piece.lowValue(code) != end && Piece.highValue(code) != end) {
+					continue;
+				}
+				canPlay = true;
+				int newEnd = Piece.lowValue(code) == end ? Piece.highValue(code) : Piece.lowValue(code);
+				int points = Piece.lowValue(code) + Piece.highValue(code);
+				if(restSize == 0) {
+					roundsWon = Tablebase.WINS_AS_FIRST | Tablebase.WINS_AS_SECOND;
+				}
+				else {
+					int next = tablebase.index(other, otherSize, rest, restSize, Math.min(kept, newEnd), Math.max(kept, newEnd), false);
+					points -= tablebase.pointsScored(next);
+					roundsWon |= afterTurn(tablebase.roundsWon(next));
+				}
+				bestPoints = Math.max(bestPoints, points);
+			}
+		}
+		if(!canPlay) {
+			if(otherStalled) {
+				int moverPips = pips(mover, moverSize);
+				int otherPips = pips(other, otherSize);
+				bestPoints = 0;
+				roundsWon = (byte) ((moverPips >= otherPips ? Tablebase.WINS_AS_FIRST : 0) | (moverPips > otherPips ? Tablebase.WINS_AS_SECOND : 0));
+			}
+			else {
+				int next = tablebase.index(other, otherSize, mover, moverSize, low, high, true);
+				bestPoints = -tablebase.pointsScored(next);
+				roundsWon = afterTurn(tablebase.roundsWon(next));
+			}
+		}
+		tablebase.store(tablebase.index(mover, moverSize, other, otherSize, low, high, otherStalled), roundsWon, (byte) bestPoints);
+	}
+	
+	/**
+	 * Turns the outcome of the next turn, for the other player, into the one of this player: it wins with a seat
+	 * when the other player, who has the other seat, loses.
+	 */
+	private static byte afterTurn(byte next) {
+		return (byte) (((next & Tablebase.WINS_AS_SECOND) == 0 ? Tablebase.WINS_AS_FIRST : 0) | ((next & Tablebase.WINS_AS_FIRST) == 0 ? Tablebase.WINS_AS_SECOND : 0));
+	}
+	
+	/**
+	 * Solves every position with the given hand sizes, and with the other player stalled or not.
+	 */
+	private void solveGroup(int moverSize, int otherSize, boolean otherStalled) {
+		IntStream.range(0, (int) tablebase.binomial(pieceCount, moverSize)).parallel().forEach((int moverRank) -> {
+			int[] mover = new int[moverSize];
+			int[] remaining = new int[pieceCount - moverSize];
+			int[] other = new int[otherSize];
+			int[] rest = new int[moverSize];
+			tablebase.unrank(moverRank, moverSize, mover);
+			for(int code = 0, i = 0, j = 0; code < pieceCount; code++) {
+				if(i < moverSize && mover[i] == code) {
+					i++;
+				}
+				else {
+					remaining[j++] = code;
+				}
+			}
+			long otherCount = tablebase.binomial(pieceCount - moverSize, otherSize);
+			for(long otherRank = 0; otherRank < otherCount; otherRank++) {
+				tablebase.unrank(otherRank, otherSize, other);
+				for(int i = 0; i < otherSize; i++) {
+					other[i] = remaining[other[i]];
+				}
+				for(int high = 0; high <= highestValue; high++) {
+					for(int low = 0; low <= high; low++) {
+						solve(mover, moverSize, other, otherSize, low, high, otherStalled, rest);
+					}
+				}
+			}
+		});
+	}
+	
+	/**
+	 * Generates the tablebase of a set of pieces.
+	 * @param highestValue The highest value of the set.
+	 * @param maxHandSize The maximum amount of pieces in each hand, between 1 and Tablebase.MAX_HAND_SIZE.
+	 * @return The tablebase, in memory.
+	 */
+	public static Tablebase generate(int highestValue, int maxHandSize) {
+		TablebaseGenerator generator = new TablebaseGenerator(highestValue, maxHandSize);
+		for(int total = 2; total <= 2 * maxHandSize; total++) {
+			for(int stalled = 1; stalled >= 0; stalled--) {
+				for(int moverSize = Math.max(1, total - maxHandSize); moverSize <= Math.min(maxHandSize, total - 1); moverSize++) {
+					generator.solveGroup(moverSize, total - moverSize, stalled == 1);
+				}
+			}
+		}
+		return generator.tablebase;
+	}
+
+}
@@ -0,0 +1,118 @@
+package logic.search;
+
+/**
+ * Fixed-size table of the values of searched positions, indexed by their Zobrist hash, so a position reached again,
+ * through another order of moves or in a later iteration of iterative deepening, isn't searched again.
+ * Each hash has a single slot. A slot is replaced when the new entry was searched at least as deep,
+ * or when the old one belongs to a previous search, whose entries are never returned, as they may be rated for other scores.
+ * Each thread needs its own table.
+ */
+public class TranspositionTable {
+	
+	/**
+	 * The value is exact.
+	 */
+	public static final byte EXACT = 0;
+	/**
+	 * The search failed high: the value is a lower bound.
+	 */
+	public static final byte LOWER_BOUND = 1;
+	/**
+	 * The search failed low: the value is an upper bound.
+	 */
+	public static final byte UPPER_BOUND = 2;
+	
+	private final int mask;
+	private final long[] keys;
+	private final double[] values;
+	private final int[] moves;
+	private final short[] depths;
+	private final byte[] bounds;
+	private final int[] searches;
+	private int search;
+	private int lastSlot;
+	
+	/**
+	 * @param bits Base 2 logarithm of the amount of slots.
+	 */
+	public TranspositionTable(int bits) {
+		if(bits < 1 || bits > 28) {
+			throw new IllegalArgumentException("The table must have between 2^1 and 2^28 slots!");
+		}
+		int size = 1 << bits;
+		this.mask = size - 1;
+		this.keys = new long[size];
+		this.values = new double[size];
+		this.moves = new int[size];
+		this.depths = new short[size];
+		this.bounds = new byte[size];
+		this.searches = new int[size];
+		this.search = 1;
+		this.lastSlot = -1;
+	}
+	
+	/**
+	 * Starts a new search, so the entries of the previous ones are ignored and replaced.
+	 */
+	public void newSearch() {
+		search++;
+	}
+	
+	/**
+	 * Looks a position up. When found, its entry can be read with value, move, depth and bound until the next call.
+	 * @param key The hash of the position.
+	 * @return If it was found.
+	 */
+	public boolean probe(long key) {
+		int slot = (int) key & mask;
+		lastSlot = searches[slot] == search && keys[slot] == key ? slot : -1;
+		return lastSlot >= 0;
+	}
+	
+	public double value() {
+		return values[lastSlot];
+	}
+	
+	/**
+	 * Returns the best move found, or Position.PASS if there was none.
+	 */
+	public int move() {
+		return moves[lastSlot];
+	}
+	
+	/**
+	 * Returns the depth the position was searched to.
+	 */
+	public int depth() {
+		return depths[lastSlot];
+	}
+	
+	/**
+	 * Returns what the value is: EXACT, LOWER_BOUND or UPPER_BOUND.
+	 */
+	public byte bound() {
+		return bounds[lastSlot];
+	}
+	
+	/**
+	 * Stores the value of a position, unless its slot holds one of this search searched deeper.
+	 * @param key The hash of the position.
+	 * @param depth The depth it was searched to.
+	 * @param value The value.
+	 * @param bound What the value is: EXACT, LOWER_BOUND or UPPER_BOUND.
+	 * @param move The best move found, or Position.PASS.
+	 */
+	public void store(long key, int depth, double value, byte bound, int move) {
+		int slot = (int) key & mask;
+		if(searches[slot] == search && depths[slot] > depth) {
+			return;
+		}
+		keys[slot] = key;
+		values[slot] = value;
+		moves[slot] = move;
+		depths[slot] = (short) depth;
+		bounds[slot] = bound;
+		searches[slot] = search;
+	}
+
+}
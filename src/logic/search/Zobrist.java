@@ -0,0 +1,99 @@
+package logic.search;
+
+import java.util.SplittableRandom;
+
+import logic.Piece;
+
+/**
+ * Random keys that hash a position (Zobrist hashing): the hash is the sum of the keys of everything in it,
+ * so it's updated by adding and subtracting keys as moves are played, instead of being computed again.
+ * Keys are added, rather than xored, so repeated pieces don't cancel each other out.
+ * The keys are always the same, generated from a fixed seed.
+ */
+public class Zobrist {
+	
+	/**
+	 * Maximum amount of seats with their own keys.
+	 */
+	public static final int MAX_SEATS = 16;
+	
+	private static final long SEED = 0x2545F4914F6CDD1DL;
+	private static final long[][] HAND_KEYS;		// For each seat and code
+	private static final long[] DECK_KEYS;			// For each code
+	private static final long[] END_KEYS;			// For each value of an end, plus one for the empty board
+	private static final long[] CURRENT_KEYS;		// For each seat
+	private static final long[] ROOT_KEYS;			// For each seat the search is done for
+	
+	static {
+		SplittableRandom random = new SplittableRandom(SEED);
+		HAND_KEYS = new long[MAX_SEATS][Piece.CODE_COUNT];
+		for(long[] keys : HAND_KEYS) {
+			fill(keys, random);
+		}
+		DECK_KEYS = fill(new long[Piece.CODE_COUNT], random);
+		END_KEYS = fill(new long[Piece.VALUE_COUNT + 1], random);
+		CURRENT_KEYS = fill(new long[MAX_SEATS], random);
+		ROOT_KEYS = fill(new long[MAX_SEATS], random);
+	}
+	
+	private static long[] fill(long[] keys, SplittableRandom random) {
+		for(int i = 0; i < keys.length; i++) {
+			keys[i] = random.nextLong();
+		}
+		return keys;
+	}
+	
+	/**
+	 * Mixes the bits of a value (the finalizer of SplitMix64), to hash what has too many values for a table of keys.
+	 */
+	private static long mix(long value) {
+		value = (value ^ value >>> 30) * 0xBF58476D1CE4E5B9L;
+		value = (value ^ value >>> 27) * 0x94D049BB133111EBL;
+		return value ^ value >>> 31;
+	}
+	
+	public static long handKey(int seat, int code) {
+		return HAND_KEYS[seat][code];
+	}
+	
+	public static long deckKey(int code) {
+		return DECK_KEYS[code];
+	}
+	
+	/**
+	 * Hashes the pieces of a position: the hands and the deck, but not the order of any of them.
+	 */
+	public static long pieces(Position position) {
+		long hash = 0;
+		for(int seat = 0; seat < position.playerCount(); seat++) {
+			for(int i = 0; i < position.handSize(seat); i++) {
+				hash += HAND_KEYS[seat][position.handPiece(seat, i)];
+			}
+		}
+		for(int i = 0; i < position.deckSize(); i++) {
+			hash += DECK_KEYS[position.deckPiece(i)];
+		}
+		return hash;
+	}
+	
+	/**
+	 * Hashes what the pieces don't tell about a position: the ends of the board, the player in turn, the stalled players,
+	 * and the points scored when pieces score when placed. Both ends get the same keys, as mirrored boards play the same.
+	 * @param pieces The hash of the pieces of the position.
+	 * @param root The seat the search is done for, as the values of the positions depend on it.
+	 */
+	public static long hash(Position position, long pieces, int root) {
+		long hash = pieces + END_KEYS[position.leftEnd() + 1] + END_KEYS[position.rightEnd() + 1]
+				+ CURRENT_KEYS[position.current()] + ROOT_KEYS[root] + mix(position.stalledSeats() + SEED);
+		if(position.rules().placedPiecesScore()) {
+			for(int seat = 0; seat < position.playerCount(); seat++) {
+				hash += mix((long) seat << 32 | position.scoredPoints(seat));
+			}
+		}
+		return hash;
+	}
+	
+	// Prevent instantiation
+	private Zobrist() {}
+
+}
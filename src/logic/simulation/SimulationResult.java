@@ -0,0 +1,57 @@
+package logic.simulation;
+
+/**
+ * Compact summary of a finished headless game.
+ */
+public class SimulationResult {
+	
+	private final long seed;
+	private final int winner;
+	private final int rounds;
+	private final int movements;
+	private final int[] globalScores;
+	
+	public SimulationResult(long seed, int winner, int rounds, int movements, int[] globalScores) {
+		this.seed = seed;
+		this.winner = winner;
+		this.rounds = rounds;
+		this.movements = movements;
+		this.globalScores = globalScores;
+	}
+	
+	/**
+	 * Returns the seed the game was played with, which plays it again exactly.
+	 */
+	public long seed() {
+		return seed;
+	}
+	
+	/**
+	 * Returns the seat (index in turn order) of the player that won the game.
+	 */
+	public int winner() {
+		return winner;
+	}
+	
+	public int rounds() {
+		return rounds;
+	}
+	
+	public int movements() {
+		return movements;
+	}
+	
+	public int globalScore(int seat) {
+		return globalScores[seat];
+	}
+	
+	public int playerCount() {
+		return globalScores.length;
+	}
+	
+	@Override
+	public String toString() {
+		return "Seed: " + seed + ", Winner: " + winner + ", Rounds: " + rounds + ", Movements: " + movements;
+	}
+	
+}
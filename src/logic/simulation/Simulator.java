@@ -0,0 +1,79 @@
+package logic.simulation;
+
+import java.util.List;
+
+import logic.AIPlayer;
+import logic.AIStrategy;
+import logic.Game;
+import logic.Player;
+import logic.RandomUtilities;
+import logic.gamemodes.GameMode;
+
+/**
+ * Runs games between AI players without observers, views or threads.
+ * Every movement is decided and executed in a tight loop on the calling thread.
+ */
+public class Simulator {
+	
+	private static final int MAX_MOVEMENTS = 100000;
+	
+	/**
+	 * Plays a whole game between AI players.
+	 * @param strategies The strategy of each player, in turn order.
+	 * @param gameMode The game mode. It must be already initialized.
+	 * @return The result of the game.
+	 */
+	public static SimulationResult play(List<AIStrategy> strategies, GameMode gameMode) {
+		return play(strategies, gameMode, RandomUtilities.newSeed());
+	}
+	
+	/**
+	 * Plays a whole game between AI players, which is always the same for the same seed.
+	 * @param strategies The strategy of each player, in turn order.
+	 * @param gameMode The game mode. It must be already initialized.
+	 * @param seed The seed of the random source of the game.
+	 * @return The result of the game.
+	 */
+	public static SimulationResult play(List<AIStrategy> strategies, GameMode gameMode, long seed) {
+		Game game = new Game(seed);
+		game.setAutomaticAI(false);
+		game.reset(strategies, gameMode);
+		
+		int movements = 0;
+		while(!game.finished()) {
+			if(movements == MAX_MOVEMENTS) {
+				throw new IllegalStateException("The simulated game didn't finish after " + MAX_MOVEMENTS + " movements!");
+			}
+			AIPlayer player = (AIPlayer) game.status().currentPlayer();
+			game.execute(player.decideMovement());
+			movements++;
+		}
+		
+		List<Player> players = game.players();
+		int[] globalScores = new int[players.size()];
+		for(int i = 0; i < players.size(); i++) {
+			globalScores[i] = players.get(i).globalScore();
+		}
+		int winner = players.indexOf(game.status().currentWinner());
+		return new SimulationResult(seed, winner, game.status().round(), movements, globalScores);
+	}
+	
+	/**
+	 * Plays a batch of games between AI players, one after the other.
+	 * @param gameCount The amount of games to play.
+	 * @param strategies The strategy of each player, in turn order.
+	 * @param gameMode The game mode. It must be already initialized.
+	 * @return The results of the games.
+	 */
+	public static SimulationResult[] play(int gameCount, List<AIStrategy> strategies, GameMode gameMode) {
+		SimulationResult[] results = new SimulationResult[gameCount];
+		for(int i = 0; i < gameCount; i++) {
+			results[i] = play(strategies, gameMode);
+		}
+		return results;
+	}
+	
+	// Prevent instantiation
+	private Simulator() {}
+	
+}
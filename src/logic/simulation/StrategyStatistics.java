@@ -0,0 +1,99 @@
+package logic.simulation;
+
+import logic.AIStrategy;
+
+/**
+ * Aggregated results of a strategy over a batch of simulated games.
+ */
+public class StrategyStatistics {
+	
+	private static final double Z_95 = 1.959964;
+	
+	private final AIStrategy strategy;
+	private long games;
+	private long wins;
+	private long rounds;
+	private long movements;
+	
+	public StrategyStatistics(AIStrategy strategy) {
+		this.strategy = strategy;
+		this.games = 0;
+		this.wins = 0;
+		this.rounds = 0;
+		this.movements = 0;
+	}
+	
+	/**
+	 * Adds the result of a game where the strategy played in a certain seat.
+	 * @param result The result of the game.
+	 * @param seat The seat of the strategy in that game.
+	 */
+	void add(SimulationResult result, int seat) {
+		games++;
+		if(result.winner() == seat) {
+			wins++;
+		}
+		rounds += result.rounds();
+		movements += result.movements();
+	}
+	
+	/**
+	 * Adds all the games accumulated by another statistics object of the same strategy.
+	 * @param other The other statistics.
+	 */
+	void merge(StrategyStatistics other) {
+		games += other.games;
+		wins += other.wins;
+		rounds += other.rounds;
+		movements += other.movements;
+	}
+	
+	public AIStrategy strategy() {
+		return strategy;
+	}
+	
+	public long games() {
+		return games;
+	}
+	
+	public long wins() {
+		return wins;
+	}
+	
+	public double winRate() {
+		return games == 0 ? 0 : wins / (double) games;
+	}
+	
+	public double averageRounds() {
+		return games == 0 ? 0 : rounds / (double) games;
+	}
+	
+	public double averageMovements() {
+		return games == 0 ? 0 : movements / (double) games;
+	}
+	
+	/**
+	 * Computes the 95% Wilson score interval of the win rate.
+	 * @return The lower and upper bounds of the interval.
+	 */
+	public double[] winRateInterval() {
+		if(games == 0) {
+			return new double[] {0, 1};
+		}
+		double p = winRate();
+		double z2 = Z_95 * Z_95;
+		double denominator = 1 + z2 / games;
+		double center = (p + z2 / (2 * games)) / denominator;
+		double margin = Z_95 * Math.sqrt(p * (1 - p) / games + z2 / (4.0 * games * games)) / denominator;
+		return new double[] {Math.max(0, center - margin), Math.min(1, center + margin)};
+	}
+	
+	@Override
+	public String toString() {
+		double[] interval = winRateInterval();
+		return String.format("%-40s games: %8d  win rate: %6.2f%% [%6.2f%%, %6.2f%%]  avg. rounds: %6.2f  avg. movements: %7.2f",
+				strategy.name(), games, 100 * winRate(), 100 * interval[0], 100 * interval[1],
+				averageRounds(), averageMovements());
+	}
+	
+}
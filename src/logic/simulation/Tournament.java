@@ -0,0 +1,155 @@
+package logic.simulation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import logic.AIStrategy;
+import logic.BothersomePlacementStrategy;
+import logic.HighestScorePlacementStrategy;
+import logic.RandomPlacementStrategy;
+import logic.RandomUtilities;
+import logic.gamemodes.GameMode;
+
+/**
+ * Plays large batches of simulated games in parallel and aggregates the results of each strategy.
+ * Games are split between the workers of a fork/join pool, so idle cores steal the remaining work.
+ * The seats are rotated every game so that no strategy benefits from always moving first.
+ * Every task splits its own random source from the one of its parent, and the way the games are split
+ * only depends on their amount, so the whole tournament is reproduced by playing it again with the same seed.
+ */
+public class Tournament {
+	
+	public static final AIStrategy[] STRATEGIES = {
+		new RandomPlacementStrategy(),
+		new BothersomePlacementStrategy(),
+		new HighestScorePlacementStrategy()
+	};
+	
+	private static final int GAMES_PER_TASK = 64;
+	
+	private class TournamentTask extends RecursiveTask<StrategyStatistics[]> {
+		
+		private static final long serialVersionUID = 1L;
+		
+		private final int from;
+		private final int to;
+		private final SplittableRandom random;
+		
+		public TournamentTask(int from, int to, SplittableRandom random) {
+			this.from = from;
+			this.to = to;
+			this.random = random;
+		}
+		
+		@Override
+		protected StrategyStatistics[] compute() {
+			if(to - from <= GAMES_PER_TASK) {
+				return playGames(from, to, random);
+			}
+			int middle = (from + to) >>> 1;
+			TournamentTask left = new TournamentTask(from, middle, random.split());
+			left.fork();
+			StrategyStatistics[] result = new TournamentTask(middle, to, random).compute();
+			StrategyStatistics[] leftResult = left.join();
+			for(int i = 0; i < result.length; i++) {
+				result[i].merge(leftResult[i]);
+			}
+			return result;
+		}
+		
+	}
+	
+	private final List<AIStrategy> strategies;
+	private final GameMode gameMode;
+	private final int gameCount;
+	private final long seed;
+	
+	/**
+	 * Plays the games with indexes in a certain range.
+	 * In the game with index i, the seat s is taken by the strategy (s + i) % n.
+	 */
+	private StrategyStatistics[] playGames(int from, int to, SplittableRandom random) {
+		int n = strategies.size();
+		StrategyStatistics[] statistics = emptyStatistics();
+		List<AIStrategy> seats = new ArrayList<>(n);
+		for(int game = from; game < to; game++) {
+			seats.clear();
+			for(int seat = 0; seat < n; seat++) {
+				seats.add(strategies.get((seat + game) % n));
+			}
+			SimulationResult result = Simulator.play(seats, gameMode, random.nextLong());
+			for(int seat = 0; seat < n; seat++) {
+				statistics[(seat + game) % n].add(result, seat);
+			}
+		}
+		return statistics;
+	}
+	
+	private StrategyStatistics[] emptyStatistics() {
+		StrategyStatistics[] statistics = new StrategyStatistics[strategies.size()];
+		for(int i = 0; i < statistics.length; i++) {
+			statistics[i] = new StrategyStatistics(strategies.get(i));
+		}
+		return statistics;
+	}
+	
+	/**
+	 * Creates a new tournament.
+	 * @param strategies The competing strategies. Every game is played by all of them.
+	 * @param gameMode The game mode. It must be already initialized.
+	 * @param gameCount The amount of games to play.
+	 */
+	public Tournament(List<AIStrategy> strategies, GameMode gameMode, int gameCount) {
+		this(strategies, gameMode, gameCount, RandomUtilities.newSeed());
+	}
+	
+	/**
+	 * Creates a new tournament that is always played the same way for the same seed.
+	 * @param strategies The competing strategies. Every game is played by all of them.
+	 * @param gameMode The game mode. It must be already initialized.
+	 * @param gameCount The amount of games to play.
+	 * @param seed The seed all the games are derived from.
+	 */
+	public Tournament(List<AIStrategy> strategies, GameMode gameMode, int gameCount, long seed) {
+		this.strategies = strategies;
+		this.gameMode = gameMode;
+		this.gameCount = gameCount;
+		this.seed = seed;
+	}
+	
+	/**
+	 * Plays all the games using every available core.
+	 * @return The statistics of each strategy, in the order they were given.
+	 */
+	public List<StrategyStatistics> run() {
+		ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+		try {
+			return run(pool);
+		}
+		finally {
+			pool.shutdown();
+		}
+	}
+	
+	/**
+	 * Plays all the games in the given pool.
+	 * @param pool The pool.
+	 * @return The statistics of each strategy, in the order they were given.
+	 */
+	public List<StrategyStatistics> run(ForkJoinPool pool) {
+		StrategyStatistics[] statistics = gameCount > 0 ? pool.invoke(new TournamentTask(0, gameCount, new SplittableRandom(seed))) : emptyStatistics();
+		return List.of(statistics);
+	}
+	
+	public GameMode gameMode() {
+		return gameMode;
+	}
+	
+	public long seed() {
+		return seed;
+	}
+	
+}
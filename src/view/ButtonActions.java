@@ -9,11 +9,14 @@ import javax.swing.JOptionPane;
 import javax.swing.filechooser.FileNameExtensionFilter;
 
 import controller.Controller;
+import controller.ReplayController;
+import logic.GameBinary;
 
 public class ButtonActions {
 
-	private static File chooseJSONFile(Component parent) {
+	private static File chooseGameFile(Component parent) {
 		JFileChooser fileChooser = new JFileChooser();
+		fileChooser.addChoosableFileFilter(new FileNameExtensionFilter("Binary Files", GameBinary.EXTENSION));
 		fileChooser.setFileFilter(new FileNameExtensionFilter("JSON Files", "json"));
 		int result = fileChooser.showOpenDialog(parent);
 		if(result == JFileChooser.APPROVE_OPTION) {
@@ -30,8 +33,12 @@ public class ButtonActions {
 		new JoinGameDialog(parent);
 	}
 	
+	public static void openLobby(Frame parent) {
+		LobbyDialog.open(parent);
+	}
+	
 	public static boolean loadGame(Component parent, Controller controller) {
-		File file = chooseJSONFile(parent);
+		File file = chooseGameFile(parent);
 		if(file != null) {
 			try {
 				controller.loadGame(file);
@@ -44,8 +51,26 @@ public class ButtonActions {
 		return false;
 	}
 	
+	/**
+	 * Opens a game recorded in a journal and shows it in a replay window.
+	 * @return Whether the replay could be opened.
+	 */
+	public static boolean watchReplay(Component parent) {
+		JFileChooser fileChooser = new JFileChooser();
+		if(fileChooser.showOpenDialog(parent) == JFileChooser.APPROVE_OPTION) {
+			try {
+				new ReplayWindow(new ReplayController(fileChooser.getSelectedFile())).setVisible(true);
+				return true;
+			}
+			catch(Exception ex) {
+				JOptionPane.showMessageDialog(parent, "Failed to open file!" + System.lineSeparator() + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+			}
+		}
+		return false;
+	}
+	
 	public static void saveGame(Component parent, Controller controller) {
-		File file = chooseJSONFile(parent);
+		File file = chooseGameFile(parent);
 		if(file != null) {
 			try {
 				controller.saveGame(file);
@@ -8,6 +8,7 @@ import java.net.InetAddress;
 
 import javax.swing.BorderFactory;
 import javax.swing.JButton;
+import javax.swing.JCheckBox;
 import javax.swing.JDialog;
 import javax.swing.JLabel;
 import javax.swing.JOptionPane;
@@ -17,7 +18,7 @@ import javax.swing.JTextField;
 import controller.Client;
 
 public class JoinGameDialog extends JDialog {
-
+	
 	private static final long serialVersionUID = 1L;
 	
 	private Frame parentFrame;
@@ -42,13 +43,21 @@ public class JoinGameDialog extends JDialog {
 		
 		serverInfoPanel.add(addressLabel);
 		serverInfoPanel.add(addressField);
-
+		
+		JLabel spectatorLabel = new JLabel("Only watch:");
+		
+		JCheckBox spectatorCheckBox = new JCheckBox();
+		spectatorCheckBox.setFocusable(false);
+		
+		serverInfoPanel.add(spectatorLabel);
+		serverInfoPanel.add(spectatorCheckBox);
+		
 		serverInfoPanel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
 		
 		JButton connectButton = new JButton("Connect");
 		connectButton.addActionListener((ActionEvent e) -> {
 			try {
-				Client c = new Client(playerNameField.getText(), InetAddress.getByName(addressField.getText()));
+				Client c = new Client(playerNameField.getText(), InetAddress.getByName(addressField.getText()), spectatorCheckBox.isSelected());
 				MainWindow mainWindow = new MainWindow(c);
 				c.startListening();
 				parentFrame.dispose();
@@ -0,0 +1,195 @@
+package view;
+
+import java.awt.BorderLayout;
+import java.awt.Dimension;
+import java.awt.Frame;
+import java.awt.GridLayout;
+import java.awt.event.ActionEvent;
+import java.net.InetAddress;
+
+import javax.swing.BorderFactory;
+import javax.swing.DefaultListModel;
+import javax.swing.JButton;
+import javax.swing.JComboBox;
+import javax.swing.JDialog;
+import javax.swing.JLabel;
+import javax.swing.JList;
+import javax.swing.JOptionPane;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JSpinner;
+import javax.swing.JTextField;
+import javax.swing.ListSelectionModel;
+import javax.swing.SpinnerNumberModel;
+
+import controller.net.TableClient;
+import controller.net.TableInfo;
+import controller.net.TableServer;
+import logic.Game;
+import logic.gamemodes.GameMode;
+
+public class LobbyDialog extends JDialog {
+
+	private static final long serialVersionUID = 1L;
+	
+	private Frame parentFrame;
+	private TableClient client;
+	private DefaultListModel<TableInfo> tableListModel;
+	
+	private void refresh() {
+		try {
+			tableListModel.clear();
+			tableListModel.addAll(client.listTables());
+		}
+		catch(Exception ex) {
+			JOptionPane.showMessageDialog(this, ex.getMessage(), "Lobby Error", JOptionPane.ERROR_MESSAGE);
+		}
+	}
+	
+	private void join(int id) {
+		try {
+			client.joinTable(id);
+			MainWindow mainWindow = new MainWindow(client);
+			client.startListening();
+			parentFrame.dispose();
+			dispose();
+			mainWindow.setVisible(true);
+		}
+		catch(Exception ex) {
+			JOptionPane.showMessageDialog(this, ex.getMessage(), "Lobby Error", JOptionPane.ERROR_MESSAGE);
+		}
+	}
+	
+	private JPanel createTablePanel() {
+		JPanel tablePanel = new JPanel();
+		tablePanel.setLayout(new GridLayout(0, 2, 10, 10));
+		tablePanel.setBorder(BorderFactory.createTitledBorder("New table"));
+		
+		JTextField tableNameField = new JTextField();
+		JComboBox<GameMode> gameModeBox = new JComboBox<>(Game.MODES);
+		JTextField parameterField = new JTextField();
+		JLabel parameterLabel = new JLabel(Game.MODES[0].parameters()[0] + ":");
+		gameModeBox.addActionListener((ActionEvent e) -> {
+			parameterLabel.setText(((GameMode) gameModeBox.getSelectedItem()).parameters()[0] + ":");
+		});
+		JSpinner humanPlayerSpinner = new JSpinner(new SpinnerNumberModel(2, 1, TableServer.MAX_PLAYERS, 1));
+		JSpinner AIPlayerSpinner = new JSpinner(new SpinnerNumberModel(0, 0, TableServer.MAX_PLAYERS - 1, 1));
+		
+		tablePanel.add(new JLabel("Table name:"));
+		tablePanel.add(tableNameField);
+		tablePanel.add(new JLabel("Game mode:"));
+		tablePanel.add(gameModeBox);
+		tablePanel.add(parameterLabel);
+		tablePanel.add(parameterField);
+		tablePanel.add(new JLabel("Human Players:"));
+		tablePanel.add(humanPlayerSpinner);
+		tablePanel.add(new JLabel("AI Players:"));
+		tablePanel.add(AIPlayerSpinner);
+		
+		JButton createButton = new JButton("Create and join");
+		createButton.addActionListener((ActionEvent e) -> {
+			try {
+				int id = client.createTable(tableNameField.getText(), gameModeBox.getSelectedIndex(), new String[] {parameterField.getText()},
+						(int) humanPlayerSpinner.getValue(), (int) AIPlayerSpinner.getValue());
+				join(id);
+			}
+			catch(Exception ex) {
+				JOptionPane.showMessageDialog(this, ex.getMessage(), "Lobby Error", JOptionPane.ERROR_MESSAGE);
+			}
+		});
+		createButton.setFocusable(false);
+		tablePanel.add(new JLabel());
+		tablePanel.add(createButton);
+		return tablePanel;
+	}
+	
+	private void initGUI() {
+		
+		setLayout(new BorderLayout());
+		
+		JList<TableInfo> tableList = new JList<>(tableListModel);
+		tableList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+		JScrollPane listPanel = new JScrollPane(tableList);
+		listPanel.setPreferredSize(new Dimension(400, 150));
+		listPanel.setBorder(BorderFactory.createTitledBorder("Tables"));
+		
+		JButton refreshButton = new JButton("Refresh");
+		refreshButton.addActionListener((ActionEvent e) -> refresh());
+		refreshButton.setFocusable(false);
+		
+		JButton joinButton = new JButton("Join");
+		joinButton.addActionListener((ActionEvent e) -> {
+			if(tableList.getSelectedValue() != null) {
+				join(tableList.getSelectedValue().id());
+			}
+		});
+		joinButton.setFocusable(false);
+		
+		JButton cancelButton = new JButton("Cancel");
+		cancelButton.addActionListener((ActionEvent e) -> {
+			client.onGameEnd(null);		// Closes the connection
+			dispose();
+		});
+		cancelButton.setFocusable(false);
+		
+		JPanel buttonPanel = new JPanel();
+		buttonPanel.add(refreshButton);
+		buttonPanel.add(joinButton);
+		buttonPanel.add(cancelButton);
+		
+		JPanel centerPanel = new JPanel(new BorderLayout());
+		centerPanel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+		centerPanel.add(listPanel, BorderLayout.CENTER);
+		centerPanel.add(createTablePanel(), BorderLayout.SOUTH);
+		
+		add(centerPanel, BorderLayout.CENTER);
+		add(buttonPanel, BorderLayout.SOUTH);
+		
+		refresh();
+		
+		pack();
+		setModal(true);
+		setLocationRelativeTo(null);
+		setDefaultCloseOperation(DISPOSE_ON_CLOSE);
+		setVisible(true);
+	}
+	
+	public LobbyDialog(Frame parentFrame, TableClient client) {
+		super(parentFrame, "Lobby");
+		this.parentFrame = parentFrame;
+		this.client = client;
+		this.tableListModel = new DefaultListModel<>();
+		initGUI();
+	}
+	
+	/**
+	 * Asks for the server and the player name, and opens the lobby.
+	 * @param parentFrame The parent frame.
+	 */
+	public static void open(Frame parentFrame) {
+		JTextField playerNameField = new JTextField();
+		JTextField addressField = new JTextField("localhost");
+		JTextField portField = new JTextField(String.valueOf(TableServer.DEFAULT_PORT));
+		
+		JPanel serverInfoPanel = new JPanel();
+		serverInfoPanel.setLayout(new GridLayout(0, 2, 10, 10));
+		serverInfoPanel.add(new JLabel("Player name:"));
+		serverInfoPanel.add(playerNameField);
+		serverInfoPanel.add(new JLabel("IP Address:"));
+		serverInfoPanel.add(addressField);
+		serverInfoPanel.add(new JLabel("Port:"));
+		serverInfoPanel.add(portField);
+		
+		int result = JOptionPane.showConfirmDialog(parentFrame, serverInfoPanel, "Connect to lobby", JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+		if(result == JOptionPane.OK_OPTION) {
+			try {
+				TableClient client = new TableClient(playerNameField.getText(), InetAddress.getByName(addressField.getText()), Integer.parseInt(portField.getText()));
+				new LobbyDialog(parentFrame, client);
+			}
+			catch(Exception ex) {
+				JOptionPane.showMessageDialog(parentFrame, ex.getMessage(), "Connection Error", JOptionPane.ERROR_MESSAGE);
+			}
+		}
+	}
+	
+}
@@ -58,6 +58,8 @@ public class MainMenu extends JFrame {
 		
 		JButton joinOnlineGameButton = generateButton("Join Online Game", (ActionEvent e) -> ButtonActions.joinOnlineGame(this));
 		
+		JButton lobbyButton = generateButton("Online Lobby", (ActionEvent e) -> ButtonActions.openLobby(this));
+		
 		JButton loadGameButton = generateButton("Load Game", (ActionEvent e) -> {
 			Controller c = new LocalController();
 			MainWindow mainWindow = new MainWindow(c);
@@ -67,6 +69,12 @@ public class MainMenu extends JFrame {
 			}
 		});
 		
+		JButton replayButton = generateButton("Watch Replay", (ActionEvent e) -> {
+			if(ButtonActions.watchReplay(this)) {
+				dispose();
+			}
+		});
+		
 		JButton quitButton = generateButton("Quit", (ActionEvent e) -> ButtonActions.closeGame(this));
 		
 		JLabel boardImage = new JLabel(loadImage(BOARD_IMAGE_PATH));
@@ -89,6 +97,10 @@ public class MainMenu extends JFrame {
 		mainPanel.add(Box.createVerticalStrut(10));
 		mainPanel.add(joinOnlineGameButton);
 		mainPanel.add(Box.createVerticalStrut(10));
+		mainPanel.add(lobbyButton);
+		mainPanel.add(Box.createVerticalStrut(10));
+		mainPanel.add(replayButton);
+		mainPanel.add(Box.createVerticalStrut(10));
 		mainPanel.add(quitButton);
 		
 		add(mainPanel);
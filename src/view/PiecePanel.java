@@ -22,6 +22,8 @@ import logic.Piece;
 import logic.Player;
 import logic.Snake;
 import logic.movements.PlaceMovement;
+import logic.search.EndgameSolver;
+import logic.search.Position;
 
 public class PiecePanel extends JPanel implements GameObserver {
 
@@ -33,13 +35,24 @@ public class PiecePanel extends JPanel implements GameObserver {
 		
 		private static final Color PLAYABLE_COLOR = new Color(0, 180, 0);
 		private static final Color NON_PLAYABLE_COLOR = new Color(200, 0, 0);
+		private static final Color BEST_COLOR = new Color(0, 0, 220);
 		
 		private Piece piece;
 		private boolean playable;
+		private boolean best;
 		
 		public PieceComponent(Piece piece, boolean playable) {
 			this.piece = piece;
 			this.playable = playable;
+			this.best = false;
+		}
+		
+		/**
+		 * Marks this piece as the best movement found by the endgame solver.
+		 */
+		public void markBest(String description) {
+			best = true;
+			setToolTipText(description);
 		}
 		
 		@Override
@@ -51,7 +64,7 @@ public class PiecePanel extends JPanel implements GameObserver {
 			g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
 			
 			if(hintsEnabled) {
-				g.setColor(playable ? PLAYABLE_COLOR : NON_PLAYABLE_COLOR);
+				g.setColor(best ? BEST_COLOR : playable ? PLAYABLE_COLOR : NON_PLAYABLE_COLOR);
 			}
 			else {
 				g.setColor(Color.BLACK);
@@ -98,7 +111,7 @@ public class PiecePanel extends JPanel implements GameObserver {
 	
 	private void update(GameStatus status, Snake board) {
 		pieceComponents.clear();
-		if(status.currentPlayer().dependsOnUser()) {
+		if(controller.usesThisController(status.currentPlayer())) {
 			List<Integer> playablePieces = board.playablePieces(status.currentPlayer().hand());
 			List<Piece> pieces = status.currentPlayer().hand().pieces();
 			pieceComponents.clear();
@@ -112,10 +125,32 @@ public class PiecePanel extends JPanel implements GameObserver {
 					pieceComponents.add(new PieceComponent(pieces.get(j), false));
 				}
 			}
+			markEndgameHint(status);
 		}
 		resetGUI();
 	}
 	
+	/**
+	 * Marks the best piece to place when the rest of the round can be solved exactly, with the outcome as its tool tip.
+	 */
+	private void markEndgameHint(GameStatus status) {
+		Player player = status.currentPlayer();
+		EndgameSolver.Result endgame = player.solveEndgame();
+		if(endgame == null || endgame.move() == Position.PASS) {
+			return;
+		}
+		int index = player.hand().indexOf(Position.code(endgame.move()));
+		String side = Position.placesOnTheRight(endgame.move()) ? "right" : "left";
+		String outcome;
+		if(status.gameMode().searchRules().placedPiecesScore()) {
+			outcome = String.format("scores %.0f%% of the remaining points", 100 * endgame.value());
+		}
+		else {
+			outcome = endgame.value() > 0 ? "wins the round" : "loses the round";
+		}
+		pieceComponents.get(index).markBest("Best movement: place it on the " + side + " end (" + outcome + " with perfect play)");
+	}
+	
 	private void initGUI() {
 		addMouseListener(new MouseAdapter() {
 			@Override
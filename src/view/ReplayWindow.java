@@ -0,0 +1,120 @@
+package view;
+
+import java.awt.BorderLayout;
+import java.awt.Dimension;
+import java.awt.GridBagLayout;
+import java.awt.event.ActionEvent;
+import java.util.List;
+
+import javax.swing.BorderFactory;
+import javax.swing.JButton;
+import javax.swing.JFrame;
+import javax.swing.JLabel;
+import javax.swing.JOptionPane;
+import javax.swing.JPanel;
+import javax.swing.JSlider;
+import javax.swing.event.ChangeEvent;
+
+import controller.ReplayController;
+import logic.GameObserver;
+import logic.GameStatus;
+import logic.Player;
+import logic.Snake;
+
+public class ReplayWindow extends JFrame implements GameObserver {
+	
+	private static final long serialVersionUID = 1L;
+	
+	private ReplayController controller;
+	private BoardPane boardPane;
+	private PiecePanel piecePanel;
+	private JLabel positionLabel;
+	private JLabel playerLabel;
+	private JSlider positionSlider;
+	
+	private JButton generateButton(String name, int step) {
+		JButton button = new JButton(name);
+		button.setFocusable(false);
+		button.addActionListener((ActionEvent e) -> positionSlider.setValue(positionSlider.getValue() + step));
+		return button;
+	}
+	
+	private void initGUI() {
+		
+		setPreferredSize(new Dimension(800, 600));
+		setLayout(new BorderLayout());
+		
+		this.boardPane = new BoardPane();
+		controller.addObserver(boardPane);
+		add(boardPane, BorderLayout.CENTER);
+		
+		this.piecePanel = new PiecePanel(controller);
+		controller.addObserver(piecePanel);
+		this.positionLabel = new JLabel();
+		this.playerLabel = new JLabel();
+		this.positionSlider = new JSlider(0, controller.size() - 1, 0);
+		positionSlider.addChangeListener((ChangeEvent e) -> controller.seek(positionSlider.getValue()));
+		
+		JPanel infoPanel = new JPanel(new BorderLayout());
+		infoPanel.add(positionLabel, BorderLayout.NORTH);
+		infoPanel.add(playerLabel, BorderLayout.SOUTH);
+		infoPanel.setBorder(BorderFactory.createEmptyBorder(5, 10, 5, 10));
+		
+		JPanel auxiliarPanel = new JPanel();
+		auxiliarPanel.setLayout(new GridBagLayout());
+		auxiliarPanel.add(piecePanel);
+		
+		JPanel navigationPanel = new JPanel();
+		navigationPanel.add(generateButton("<<", -controller.size()));
+		navigationPanel.add(generateButton("<", -1));
+		navigationPanel.add(positionSlider);
+		navigationPanel.add(generateButton(">", 1));
+		navigationPanel.add(generateButton(">>", controller.size()));
+		
+		JPanel southPanel = new JPanel(new BorderLayout());
+		southPanel.add(infoPanel, BorderLayout.WEST);
+		southPanel.add(auxiliarPanel, BorderLayout.CENTER);
+		southPanel.add(navigationPanel, BorderLayout.SOUTH);
+		add(southPanel, BorderLayout.SOUTH);
+		
+		setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+		pack();
+		setLocationRelativeTo(null);
+		controller.seek(0);
+	}
+	
+	public ReplayWindow(ReplayController controller) {
+		super("Domino - Replay");
+		this.controller = controller;
+		controller.addObserver(this);
+		initGUI();
+	}
+	
+	@Override
+	public void onRoundStart(GameStatus status, Snake board) {
+		positionLabel.setText("Round " + status.round() + ", turn " + status.turn() + " (" + (controller.position() + 1) + "/" + controller.size() + ")");
+		Player player = status.currentPlayer();
+		playerLabel.setText(player.name() + " - " + status.gameMode().globalScoreName() + ": " + player.globalScore());
+	}
+	
+	@Override
+	public void onTurnChange(GameStatus status, Snake board) {}
+	
+	@Override
+	public void onPieceAdded(GameStatus status, Snake board) {}
+	
+	@Override
+	public void onRoundEnd(GameStatus status, Snake board, List<Player> players, Player winner) {}
+	
+	@Override
+	public void onGameEnd(Player winner) {}
+	
+	@Override
+	public void onSpecificError(Player currentPlayer, Exception e) {}
+	
+	@Override
+	public void onError(Exception e) {
+		JOptionPane.showMessageDialog(this, e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+	}
+
+}